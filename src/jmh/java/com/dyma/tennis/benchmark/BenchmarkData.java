@@ -0,0 +1,72 @@
+package com.dyma.tennis.benchmark;
+
+import com.dyma.tennis.data.DatasetGenerator;
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.data.TournamentEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Jeux de données des benchmarks, construits sans base de données.
+ * La graine est fixe pour que deux exécutions mesurent exactement les mêmes données.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Joueurs dans un ordre aléatoire, avec la distribution de points de DatasetGenerator
+     * (longue traîne proche de zéro, donc beaucoup d'égalités comme en réalité).
+     */
+    static List<PlayerEntity> players(int count, Random random) {
+        int[] points = DatasetGenerator.rankedPoints(count, random);
+        List<PlayerEntity> players = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            players.add(new PlayerEntity(
+                    id,
+                    new UUID(random.nextLong(), random.nextLong()),
+                    "LastName" + id,
+                    "FirstName" + id,
+                    LocalDate.of(1980 + random.nextInt(25), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    points[(int) id - 1],
+                    0));
+        }
+        Collections.shuffle(players, random);
+        return players;
+    }
+
+    static List<TournamentEntity> tournaments(int count, Random random) {
+        List<TournamentEntity> tournaments = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            LocalDate startDate = LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365));
+            tournaments.add(new TournamentEntity(
+                    new UUID(random.nextLong(), random.nextLong()),
+                    "Tournament " + i,
+                    startDate,
+                    startDate.plusDays(14),
+                    1_000_000 + random.nextInt(10_000_000),
+                    128));
+        }
+        return tournaments;
+    }
+
+    /**
+     * Inscrit chaque joueur aux tournois, des deux côtés de la relation comme le ferait Hibernate au chargement.
+     */
+    static void register(List<PlayerEntity> players, List<TournamentEntity> tournaments) {
+        for (PlayerEntity player : players) {
+            for (TournamentEntity tournament : tournaments) {
+                player.addTournament(tournament);
+                tournament.getPlayers().add(player);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.dyma.tennis.benchmark;
+
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.data.TournamentEntity;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût du flush Hibernate d'une session contenant PLAYERS joueurs gérés, dont updated ont des points modifiés.
+ * Avec updated = 0, seul le contrôle des modifications est mesuré ; avec updated = PLAYERS, les UPDATE en batch s'y ajoutent.
+ * Pour comparer avec des entités non améliorées (comparaison des instantanés à chaque flush), reconstruire sans
+ * l'amélioration du bytecode : ./mvnw clean verify -Pbenchmark -Dhibernate.enhance.phase=none -Djmh.includes=FlushBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class FlushBenchmark {
+
+    private static final int PLAYERS = 100_000;
+
+    @Param({"0", "100000"})
+    private int updated;
+
+    private SessionFactory sessionFactory;
+
+    private Session session;
+
+    private Transaction transaction;
+
+    @Setup(Level.Trial)
+    public void createPlayers() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(PlayerEntity.class)
+                .addAnnotatedClass(TournamentEntity.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:flush;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "1000")
+                .setProperty(AvailableSettings.ORDER_UPDATES, "true")
+                .buildSessionFactory();
+        System.out.printf("%nPlayerEntity bytecode enhanced: %b%n", SelfDirtinessTracker.class.isAssignableFrom(PlayerEntity.class));
+        try (StatelessSession statelessSession = sessionFactory.openStatelessSession()) {
+            Transaction insert = statelessSession.beginTransaction();
+            for (PlayerEntity player : BenchmarkData.players(PLAYERS, new Random(BenchmarkData.SEED))) {
+                statelessSession.insert(new PlayerEntity(player.getIdentifier(), player.getLastName(), player.getFirstName(),
+                        player.getBirthDate(), player.getPoints(), 0));
+            }
+            insert.commit();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void loadAndUpdatePlayers() {
+        session = sessionFactory.openSession();
+        transaction = session.beginTransaction();
+        List<PlayerEntity> players = session.createQuery("select p from PlayerEntity p left join fetch p.tournaments", PlayerEntity.class)
+                .getResultList();
+        for (int i = 0; i < updated; i++) {
+            PlayerEntity player = players.get(i);
+            player.setPoints(player.getPoints() + 1);
+        }
+    }
+
+    @Benchmark
+    public void flush() {
+        session.flush();
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        transaction.rollback();
+        session.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        sessionFactory.close();
+    }
+}
@@ -0,0 +1,130 @@
+package com.dyma.tennis.benchmark;
+
+import com.dyma.tennis.data.IdentifierGenerator;
+import com.dyma.tennis.data.RandomIdentifierGenerator;
+import com.dyma.tennis.data.TimeOrderedIdentifierGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertion de ROWS identifiants UUIDv4 (random) ou UUIDv7 (time-ordered) dans une table à index unique,
+ * comme player.identifier et tournament.identifier : le score est le temps moyen par ligne insérée.
+ * Par défaut sur H2 en mémoire ; pour mesurer aussi la taille de l'index, viser un PostgreSQL jetable :
+ * -p url=jdbc:postgresql://localhost:5432/bench -p user=... -p password=...
+ * La taille de l'index unique et le nombre de lignes sont alors affichés après chaque itération.
+ * generate mesure le coût du générateur seul.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class IdentifierBenchmark {
+
+    private static final int ROWS = 3_000_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param({"random", "time-ordered"})
+    private String generator;
+
+    @Param({"jdbc:h2:mem:identifiers;DB_CLOSE_DELAY=-1"})
+    private String url;
+
+    @Param({"sa"})
+    private String user;
+
+    @Param({""})
+    private String password;
+
+    private IdentifierGenerator identifierGenerator;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void connect() throws SQLException {
+        identifierGenerator = "random".equals(generator) ? new RandomIdentifierGenerator() : new TimeOrderedIdentifierGenerator();
+        connection = DriverManager.getConnection(url, user, password);
+        connection.setAutoCommit(false);
+    }
+
+    @Setup(Level.Iteration)
+    public void createTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists identifier_benchmark");
+            statement.execute("create table identifier_benchmark (id bigint generated by default as identity primary key, "
+                    + "identifier uuid not null, constraint identifier_benchmark_identifier_key unique (identifier))");
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    @OperationsPerInvocation(ROWS)
+    public void insert() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("insert into identifier_benchmark(identifier) values (?)")) {
+            for (int row = 1; row <= ROWS; row++) {
+                statement.setObject(1, identifierGenerator.next());
+                statement.addBatch();
+                if (row % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public UUID generate() {
+        return identifierGenerator.next();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportIndexSize() throws SQLException {
+        if (!url.startsWith("jdbc:postgresql:")) {
+            return;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select pg_relation_size('identifier_benchmark_identifier_key'), "
+                     + "(select count(*) from identifier_benchmark)")) {
+            resultSet.next();
+            System.out.printf("%n%s: unique index %.1f MB for %d rows%n", generator,
+                    resultSet.getLong(1) / 1_048_576.0, resultSet.getLong(2));
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void disconnect() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists identifier_benchmark");
+        }
+        connection.commit();
+        connection.close();
+    }
+}
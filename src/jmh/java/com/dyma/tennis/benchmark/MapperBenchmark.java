@@ -0,0 +1,68 @@
+package com.dyma.tennis.benchmark;
+
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.data.TournamentEntity;
+import com.dyma.tennis.model.Player;
+import com.dyma.tennis.model.Tournament;
+import com.dyma.tennis.service.PlayerMapper;
+import com.dyma.tennis.service.TournamentMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion entité vers modèle selon le nombre de relations à parcourir :
+ * tournois d'un joueur pour PlayerMapper, joueurs inscrits d'un tournoi pour TournamentMapper.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"0", "10", "128"})
+    private int fanOut;
+
+    private final PlayerMapper playerMapper = new PlayerMapper();
+
+    private final TournamentMapper tournamentMapper = new TournamentMapper();
+
+    private PlayerEntity player;
+
+    private TournamentEntity tournament;
+
+    @Setup
+    public void createEntities() {
+        Random random = new Random(BenchmarkData.SEED);
+
+        player = BenchmarkData.players(1, random).get(0);
+        BenchmarkData.register(List.of(player), BenchmarkData.tournaments(fanOut, random));
+
+        tournament = BenchmarkData.tournaments(1, random).get(0);
+        BenchmarkData.register(BenchmarkData.players(fanOut, random), List.of(tournament));
+    }
+
+    @Benchmark
+    public Player mapPlayer() {
+        return playerMapper.playerEntityToPlayer(player);
+    }
+
+    @Benchmark
+    public Tournament mapTournament() {
+        return tournamentMapper.tournamentEntityToTournament(tournament);
+    }
+}
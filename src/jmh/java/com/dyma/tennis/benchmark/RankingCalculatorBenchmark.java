@@ -0,0 +1,57 @@
+package com.dyma.tennis.benchmark;
+
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.service.RankingCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recalcul du classement (tri par points puis attribution des rangs) pour différentes tailles de tableau.
+ * RankingCalculator trie la liste reçue sur place : la liste mélangée est recopiée avant chaque appel
+ * pour ne jamais mesurer le tri d'une liste déjà triée.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RankingCalculatorBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int players;
+
+    private List<PlayerEntity> shuffledPlayers;
+
+    private List<PlayerEntity> currentPlayersRanking;
+
+    @Setup(Level.Trial)
+    public void createPlayers() {
+        shuffledPlayers = BenchmarkData.players(players, new Random(BenchmarkData.SEED));
+    }
+
+    @Setup(Level.Invocation)
+    public void resetRanking() {
+        currentPlayersRanking = new ArrayList<>(shuffledPlayers);
+    }
+
+    @Benchmark
+    public List<PlayerEntity> recomputeRanking() {
+        return new RankingCalculator(currentPlayersRanking).getNewPlayersRanking();
+    }
+}
@@ -0,0 +1,98 @@
+package com.dyma.tennis.benchmark;
+
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.model.Rank;
+import com.dyma.tennis.model.RankedPlayer;
+import com.dyma.tennis.service.RankingCalculator;
+import com.dyma.tennis.service.RankingTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requêtes par rang et par identifiant sur RankingTable, à lancer avec -prof gc pour vérifier
+ * qu'aucune allocation n'a lieu en dehors de la réponse.
+ * À la mise en place, l'empreinte mémoire de la table est comparée à celle des PlayerEntity
+ * (heap occupé après GC), ramenée à un million de joueurs, et affichée dans la sortie du benchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RankingTableBenchmark {
+
+    @Param({"1000000"})
+    private int players;
+
+    private RankingTable rankingTable;
+
+    private UUID[] identifiers;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createRanking() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedHeapAfterGc(memory);
+        List<PlayerEntity> ranking = new RankingCalculator(BenchmarkData.players(players, new Random(BenchmarkData.SEED)))
+                .getNewPlayersRanking();
+        long entitiesBytes = usedHeapAfterGc(memory) - baseline;
+
+        rankingTable = new RankingTable(new SimpleDriverDataSource(), event -> {
+        });
+        rankingTable.publish(ranking);
+        long tableBytes = usedHeapAfterGc(memory) - baseline - entitiesBytes;
+
+        Random random = new Random(BenchmarkData.SEED);
+        identifiers = new UUID[1024];
+        for (int i = 0; i < identifiers.length; i++) {
+            identifiers[i] = ranking.get(random.nextInt(ranking.size())).getIdentifier();
+        }
+
+        double millions = players / 1_000_000.0;
+        System.out.printf("Heap per million players: PlayerEntity list %.1f MB, RankingTable %.1f MB (arrays: %.1f MB)%n",
+                entitiesBytes / millions / 1_048_576, tableBytes / millions / 1_048_576,
+                rankingTable.footprintBytes() / millions / 1_048_576);
+    }
+
+    @Benchmark
+    public List<RankedPlayer> top100() {
+        return rankingTable.range(1, 100);
+    }
+
+    @Benchmark
+    public List<RankedPlayer> ranks500To600() {
+        return rankingTable.range(500, 600);
+    }
+
+    @Benchmark
+    public Rank rankOfIdentifier() {
+        return rankingTable.rankOf(identifiers[next++ & (identifiers.length - 1)]);
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,74 @@
+package com.dyma.tennis.benchmark;
+
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.data.TournamentEntity;
+import com.dyma.tennis.model.Player;
+import com.dyma.tennis.model.Tournament;
+import com.dyma.tennis.service.PlayerMapper;
+import com.dyma.tennis.service.TournamentMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON des réponses de GET /players et GET /tournaments/{identifier}.
+ * L'ObjectMapper est construit comme celui de Spring Boot (modules java.time, dates ISO).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int TOURNAMENTS_PER_PLAYER = 5;
+
+    @Param({"10", "1000"})
+    private int players;
+
+    private ObjectMapper objectMapper;
+
+    private List<Player> playerList;
+
+    private Tournament tournament;
+
+    @Setup
+    public void createModels() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Random random = new Random(BenchmarkData.SEED);
+
+        List<PlayerEntity> playerEntities = BenchmarkData.players(players, random);
+        List<TournamentEntity> tournamentEntities = BenchmarkData.tournaments(TOURNAMENTS_PER_PLAYER, random);
+        BenchmarkData.register(playerEntities, tournamentEntities);
+
+        PlayerMapper playerMapper = new PlayerMapper();
+        playerList = playerEntities.stream().map(playerMapper::playerEntityToPlayer).toList();
+        tournament = new TournamentMapper().tournamentEntityToTournament(tournamentEntities.get(0));
+    }
+
+    @Benchmark
+    public byte[] serializePlayers() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(playerList);
+    }
+
+    @Benchmark
+    public byte[] serializeTournament() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tournament);
+    }
+}
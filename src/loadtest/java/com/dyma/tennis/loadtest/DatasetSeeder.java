@@ -0,0 +1,45 @@
+package com.dyma.tennis.loadtest;
+
+import com.dyma.tennis.data.DatasetGenerator;
+import com.dyma.tennis.data.DatasetSpecification;
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.data.PlayerRepository;
+import com.dyma.tennis.data.TournamentEntity;
+import com.dyma.tennis.data.TournamentRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Jeu de données du test de charge, généré par DatasetGenerator à partir de la graine du test.
+ */
+@Component
+@Profile("loadtest")
+public class DatasetSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final DatasetGenerator datasetGenerator;
+    private final PlayerRepository playerRepository;
+    private final TournamentRepository tournamentRepository;
+
+    public DatasetSeeder(DatasetGenerator datasetGenerator, PlayerRepository playerRepository, TournamentRepository tournamentRepository) {
+        this.datasetGenerator = datasetGenerator;
+        this.playerRepository = playerRepository;
+        this.tournamentRepository = tournamentRepository;
+    }
+
+    public Dataset seed(LoadTestSettings settings) {
+        datasetGenerator.generate(new DatasetSpecification(
+                settings.getSeed(),
+                settings.getPlayers(),
+                settings.getTournaments(),
+                settings.getRegistrationDensity(),
+                BATCH_SIZE));
+        return new Dataset(playerRepository.findAll(), tournamentRepository.findAll());
+    }
+
+    public record Dataset(List<PlayerEntity> players, List<TournamentEntity> tournaments) {
+    }
+}
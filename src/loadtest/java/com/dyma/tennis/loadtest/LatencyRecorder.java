@@ -0,0 +1,78 @@
+package com.dyma.tennis.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latences et statuts par scénario. Les latences sont mesurées depuis l'instant d'envoi prévu
+ * et non l'instant d'envoi réel, pour ne pas masquer l'attente quand le serveur ralentit (coordinated omission).
+ */
+class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<Scenario, Recorder> recorders = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, LongAdder> clientErrors = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, LongAdder> serverErrors = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, LongAdder> failures = new EnumMap<>(Scenario.class);
+
+    LatencyRecorder() {
+        for (Scenario scenario : Scenario.values()) {
+            recorders.put(scenario, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            clientErrors.put(scenario, new LongAdder());
+            serverErrors.put(scenario, new LongAdder());
+            failures.put(scenario, new LongAdder());
+        }
+    }
+
+    void recordResponse(Scenario scenario, long latencyNanos, int status) {
+        recorders.get(scenario).recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        if (status >= 500) {
+            serverErrors.get(scenario).increment();
+        } else if (status >= 400) {
+            clientErrors.get(scenario).increment();
+        }
+    }
+
+    /**
+     * Erreur réseau, timeout ou requête abandonnée faute de place : comptée comme une erreur, sans latence.
+     */
+    void recordFailure(Scenario scenario) {
+        failures.get(scenario).increment();
+    }
+
+    /**
+     * Renvoie les mesures accumulées depuis l'appel précédent et repart de zéro (fin du warmup).
+     */
+    Map<Scenario, Result> reset() {
+        Map<Scenario, Result> results = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            results.put(scenario, new Result(
+                    recorders.get(scenario).getIntervalHistogram(),
+                    clientErrors.get(scenario).sumThenReset(),
+                    serverErrors.get(scenario).sumThenReset(),
+                    failures.get(scenario).sumThenReset()));
+        }
+        return results;
+    }
+
+    record Result(Histogram histogram, long clientErrors, long serverErrors, long failures) {
+
+        long responses() {
+            return histogram.getTotalCount();
+        }
+
+        long attempts() {
+            return responses() + failures;
+        }
+
+        long errors() {
+            return serverErrors + failures;
+        }
+    }
+}
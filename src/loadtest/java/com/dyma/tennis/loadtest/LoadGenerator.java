@@ -0,0 +1,175 @@
+package com.dyma.tennis.loadtest;
+
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.data.TournamentEntity;
+import com.dyma.tennis.model.PlayerToUpdate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Générateur en boucle ouverte : les requêtes partent au débit cible quelle que soit la vitesse du serveur,
+ * chacune sur un thread virtuel. Au-delà de max-in-flight requêtes en cours, les suivantes sont abandonnées
+ * et comptées en erreur plutôt que d'épuiser la mémoire du client.
+ */
+class LoadGenerator implements AutoCloseable {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final String baseUrl;
+    private final List<PlayerEntity> players;
+    private final List<TournamentEntity> tournaments;
+    private final List<String> readerTokens;
+    private final List<String> adminTokens;
+    private final ObjectMapper objectMapper;
+    private final LatencyRecorder latencyRecorder;
+    private final int maxInFlight;
+    private final Scenario[] weightedScenarios;
+    private final Random random;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    LoadGenerator(String baseUrl, DatasetSeeder.Dataset dataset, List<String> readerTokens, List<String> adminTokens,
+                  ObjectMapper objectMapper, LatencyRecorder latencyRecorder, LoadTestSettings settings) {
+        this.baseUrl = baseUrl;
+        this.players = dataset.players();
+        this.tournaments = dataset.tournaments();
+        this.readerTokens = readerTokens;
+        this.adminTokens = adminTokens;
+        this.objectMapper = objectMapper;
+        this.latencyRecorder = latencyRecorder;
+        this.maxInFlight = settings.getMaxInFlight();
+        this.weightedScenarios = weightedScenarios(settings.getMix());
+        this.random = new Random(settings.getSeed());
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Envoie rate requêtes par seconde pendant duration, puis attend la fin des requêtes en cours.
+     */
+    void run(int rate, Duration duration) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long intendedStart = start; intendedStart < end; intendedStart += intervalNanos) {
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario scenario = weightedScenarios[random.nextInt(weightedScenarios.length)];
+            HttpRequest request = request(scenario);
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                latencyRecorder.recordFailure(scenario);
+                continue;
+            }
+            long scheduledAt = intendedStart;
+            executor.execute(() -> send(scenario, request, scheduledAt));
+        }
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void send(Scenario scenario, HttpRequest request, long scheduledAt) {
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            latencyRecorder.recordResponse(scenario, System.nanoTime() - scheduledAt, response.statusCode());
+        } catch (IOException e) {
+            log.debug("{} failed: {}", scenario.getEndpoint(), e.getMessage());
+            latencyRecorder.recordFailure(scenario);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            latencyRecorder.recordFailure(scenario);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private HttpRequest request(Scenario scenario) {
+        return switch (scenario) {
+            case LIST_PLAYERS -> get("/players");
+            case GET_PLAYER -> get("/players/" + randomPlayer().getIdentifier());
+            case LIST_TOURNAMENTS -> get("/tournaments");
+            case GET_TOURNAMENT -> get("/tournaments/" + randomTournament().getIdentifier());
+            case UPDATE_PLAYER -> {
+                PlayerEntity player = randomPlayer();
+                PlayerToUpdate playerToUpdate = new PlayerToUpdate(
+                        player.getIdentifier(),
+                        player.getFirstName(),
+                        player.getLastName(),
+                        player.getBirthDate(),
+                        random.nextInt(12_000));
+                yield builder("/players", adminTokens)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofByteArray(json(playerToUpdate)))
+                        .build();
+            }
+            case REGISTER_PLAYER -> builder("/tournaments/" + randomTournament().getIdentifier()
+                    + "/players/" + randomPlayer().getIdentifier(), adminTokens)
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path, readerTokens).GET().build();
+    }
+
+    private HttpRequest.Builder builder(String path, List<String> tokens) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + tokens.get(random.nextInt(tokens.size())));
+    }
+
+    private PlayerEntity randomPlayer() {
+        return players.get(random.nextInt(players.size()));
+    }
+
+    private TournamentEntity randomTournament() {
+        return tournaments.get(random.nextInt(tournaments.size()));
+    }
+
+    private byte[] json(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize request body", e);
+        }
+    }
+
+    private static Scenario[] weightedScenarios(Map<Scenario, Integer> mix) {
+        return mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Scenario[]::new);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
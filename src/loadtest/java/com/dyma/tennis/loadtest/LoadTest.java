@@ -0,0 +1,26 @@
+package com.dyma.tennis.loadtest;
+
+import com.dyma.tennis.TennisApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Point d'entrée du test de charge : démarre l'application sur H2 avec le profil loadtest,
+ * exécute le scénario puis sort avec le code 1 si un seuil est dépassé (ce qui fait échouer le build).
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TennisApplication.class)
+                .profiles("loadtest")
+                .run(args);
+        int exitCode;
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            exitCode = context.getBean(LoadTestRunner.class).run(port);
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,144 @@
+package com.dyma.tennis.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Déroulé du test de charge : jeu de données, warmup non mesuré, mesure, rapport et vérification des seuils.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestRunner {
+
+    private final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final LoadTestSettings settings;
+    private final DatasetSeeder datasetSeeder;
+    private final LoadTestTokenIssuer tokenIssuer;
+    private final ObjectMapper objectMapper;
+
+    public LoadTestRunner(LoadTestSettings settings, DatasetSeeder datasetSeeder, LoadTestTokenIssuer tokenIssuer,
+                          ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.datasetSeeder = datasetSeeder;
+        this.tokenIssuer = tokenIssuer;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param port port HTTP de l'application démarrée
+     * @return 0 si tous les seuils sont respectés, 1 sinon.
+     */
+    public int run(int port) throws InterruptedException {
+        DatasetSeeder.Dataset dataset = datasetSeeder.seed(settings);
+        log.warn("Seeded {} players and {} tournaments", dataset.players().size(), dataset.tournaments().size());
+
+        List<String> readerTokens = tokens("user", List.of("ROLE_USER"));
+        List<String> adminTokens = tokens("admin", List.of("ROLE_USER", "ROLE_ADMIN"));
+        LatencyRecorder latencyRecorder = new LatencyRecorder();
+
+        Map<Scenario, LatencyRecorder.Result> results;
+        try (LoadGenerator loadGenerator = new LoadGenerator("http://localhost:" + port, dataset,
+                readerTokens, adminTokens, objectMapper, latencyRecorder, settings)) {
+            log.warn("Warming up for {} at {} requests/s", settings.getWarmup(), settings.getRate());
+            loadGenerator.run(settings.getRate(), settings.getWarmup());
+            latencyRecorder.reset();
+
+            log.warn("Measuring for {} at {} requests/s", settings.getDuration(), settings.getRate());
+            loadGenerator.run(settings.getRate(), settings.getDuration());
+            results = latencyRecorder.reset();
+        }
+
+        System.out.println(report(results));
+        List<String> violations = violations(results);
+        violations.forEach(violation -> System.out.println("THRESHOLD FAILED: " + violation));
+        return violations.isEmpty() ? 0 : 1;
+    }
+
+    private List<String> tokens(String prefix, List<String> roles) {
+        return IntStream.rangeClosed(1, settings.getUsers())
+                .mapToObj(i -> tokenIssuer.issue(prefix + i, roles))
+                .toList();
+    }
+
+    private String report(Map<Scenario, LatencyRecorder.Result> results) {
+        double seconds = settings.getDuration().toMillis() / 1000.0;
+        StringBuilder report = new StringBuilder()
+                .append(String.format("%n%-52s %8s %9s %9s %9s %9s %9s %6s %6s%n",
+                        "endpoint", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "4xx", "err"));
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Scenario, LatencyRecorder.Result> entry : results.entrySet()) {
+            LatencyRecorder.Result result = entry.getValue();
+            total.add(result.histogram());
+            totalErrors += result.errors();
+            report.append(line(entry.getKey().getEndpoint(), result.histogram(), seconds, result.clientErrors(), result.errors()));
+        }
+        report.append(line("total", total, seconds,
+                results.values().stream().mapToLong(LatencyRecorder.Result::clientErrors).sum(), totalErrors));
+        return report.toString();
+    }
+
+    private String line(String endpoint, Histogram histogram, double seconds, long clientErrors, long errors) {
+        return String.format("%-52s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %6d %6d%n",
+                endpoint,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                clientErrors,
+                errors);
+    }
+
+    private List<String> violations(Map<Scenario, LatencyRecorder.Result> results) {
+        List<String> violations = new ArrayList<>();
+        long attempts = 0;
+        long responses = 0;
+        long errors = 0;
+        for (Map.Entry<Scenario, LatencyRecorder.Result> entry : results.entrySet()) {
+            Histogram histogram = entry.getValue().histogram();
+            attempts += entry.getValue().attempts();
+            responses += entry.getValue().responses();
+            errors += entry.getValue().errors();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            checkLatency(violations, entry.getKey(), "p99", histogram.getValueAtPercentile(99), settings.getP99Threshold());
+            checkLatency(violations, entry.getKey(), "p999", histogram.getValueAtPercentile(99.9), settings.getP999Threshold());
+        }
+
+        double errorRate = attempts == 0 ? 0 : (double) errors / attempts;
+        if (errorRate > settings.getMaxErrorRate()) {
+            violations.add(String.format("error rate %.4f > %.4f", errorRate, settings.getMaxErrorRate()));
+        }
+        double expected = settings.getRate() * (settings.getDuration().toMillis() / 1000.0);
+        double throughputRatio = responses / expected;
+        if (throughputRatio < settings.getMinThroughputRatio()) {
+            violations.add(String.format("throughput %.0f%% of target < %.0f%%", throughputRatio * 100, settings.getMinThroughputRatio() * 100));
+        }
+        return violations;
+    }
+
+    private void checkLatency(List<String> violations, Scenario scenario, String percentile, long valueNanos, Duration threshold) {
+        if (valueNanos > threshold.toNanos()) {
+            violations.add(String.format("%s %s %.2f ms > %d ms", scenario.getEndpoint(), percentile, millis(valueNanos), threshold.toMillis()));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,129 @@
+package com.dyma.tennis.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Paramètres du test de charge (application-loadtest.properties, surchargeables en ligne de commande).
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestSettings {
+
+    private final long seed;
+    private final int players;
+    private final int tournaments;
+    private final double registrationDensity;
+    private final int users;
+    private final int rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+    private final Duration p99Threshold;
+    private final Duration p999Threshold;
+    private final double maxErrorRate;
+    private final double minThroughputRatio;
+
+    public LoadTestSettings(
+            @Value("${loadtest.seed}") long seed,
+            @Value("${loadtest.players}") int players,
+            @Value("${loadtest.tournaments}") int tournaments,
+            @Value("${loadtest.registration-density}") double registrationDensity,
+            @Value("${loadtest.users}") int users,
+            @Value("${loadtest.rate}") int rate,
+            @Value("${loadtest.warmup}") Duration warmup,
+            @Value("${loadtest.duration}") Duration duration,
+            @Value("${loadtest.max-in-flight}") int maxInFlight,
+            @Value("${loadtest.mix.list-players}") int listPlayers,
+            @Value("${loadtest.mix.get-player}") int getPlayer,
+            @Value("${loadtest.mix.list-tournaments}") int listTournaments,
+            @Value("${loadtest.mix.get-tournament}") int getTournament,
+            @Value("${loadtest.mix.update-player}") int updatePlayer,
+            @Value("${loadtest.mix.register-player}") int registerPlayer,
+            @Value("${loadtest.threshold.p99}") Duration p99Threshold,
+            @Value("${loadtest.threshold.p999}") Duration p999Threshold,
+            @Value("${loadtest.threshold.max-error-rate}") double maxErrorRate,
+            @Value("${loadtest.threshold.min-throughput-ratio}") double minThroughputRatio) {
+        this.seed = seed;
+        this.players = players;
+        this.tournaments = tournaments;
+        this.registrationDensity = registrationDensity;
+        this.users = users;
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.maxInFlight = maxInFlight;
+        mix.put(Scenario.LIST_PLAYERS, listPlayers);
+        mix.put(Scenario.GET_PLAYER, getPlayer);
+        mix.put(Scenario.LIST_TOURNAMENTS, listTournaments);
+        mix.put(Scenario.GET_TOURNAMENT, getTournament);
+        mix.put(Scenario.UPDATE_PLAYER, updatePlayer);
+        mix.put(Scenario.REGISTER_PLAYER, registerPlayer);
+        this.p99Threshold = p99Threshold;
+        this.p999Threshold = p999Threshold;
+        this.maxErrorRate = maxErrorRate;
+        this.minThroughputRatio = minThroughputRatio;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    public int getTournaments() {
+        return tournaments;
+    }
+
+    public double getRegistrationDensity() {
+        return registrationDensity;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Map<Scenario, Integer> getMix() {
+        return mix;
+    }
+
+    public Duration getP99Threshold() {
+        return p99Threshold;
+    }
+
+    public Duration getP999Threshold() {
+        return p999Threshold;
+    }
+
+    public double getMaxErrorRate() {
+        return maxErrorRate;
+    }
+
+    public double getMinThroughputRatio() {
+        return minThroughputRatio;
+    }
+}
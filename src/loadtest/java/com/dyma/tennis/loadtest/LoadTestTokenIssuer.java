@@ -0,0 +1,80 @@
+package com.dyma.tennis.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remplace Keycloak pendant le test de charge : les tokens sont signés avec une clé générée au démarrage
+ * et vérifiés par un JwtDecoder prioritaire. Le reste de la chaîne de sécurité (rôles, autorisations) est inchangé.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestTokenIssuer {
+
+    private static final Duration TOKEN_VALIDITY = Duration.ofHours(4);
+
+    private final RSAKey signingKey;
+    private final String issuerUri;
+    private final String clientId;
+    private final String principalAttribute;
+
+    public LoadTestTokenIssuer(
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+            @Value("${jwt.auth.client-id}") String clientId,
+            @Value("${jwt.auth.principal-attribute}") String principalAttribute) throws JOSEException {
+        this.signingKey = new RSAKeyGenerator(2048).keyID("loadtest").generate();
+        this.issuerUri = issuerUri;
+        this.clientId = clientId;
+        this.principalAttribute = principalAttribute;
+    }
+
+    @Bean
+    @Primary
+    public JwtDecoder loadTestJwtDecoder() throws JOSEException {
+        NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withPublicKey(signingKey.toRSAPublicKey()).build();
+        jwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return jwtDecoder;
+    }
+
+    /**
+     * Émet un token au format Keycloak : rôles dans resource_access.{client-id}.roles.
+     */
+    public String issue(String username, List<String> roles) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuerUri)
+                .subject(username)
+                .claim(principalAttribute, username)
+                .claim("resource_access", Map.of(clientId, Map.of("roles", roles)))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(TOKEN_VALIDITY)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(signingKey));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not sign load test token", e);
+        }
+        return jwt.serialize();
+    }
+}
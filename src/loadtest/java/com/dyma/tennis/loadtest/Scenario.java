@@ -0,0 +1,27 @@
+package com.dyma.tennis.loadtest;
+
+/**
+ * Requêtes jouées par le test de charge, une ligne du rapport par scénario.
+ */
+public enum Scenario {
+    LIST_PLAYERS("GET /players"),
+    GET_PLAYER("GET /players/{identifier}"),
+    LIST_TOURNAMENTS("GET /tournaments"),
+    GET_TOURNAMENT("GET /tournaments/{identifier}"),
+    UPDATE_PLAYER("PUT /players"),
+    REGISTER_PLAYER("POST /tournaments/{identifier}/players/{identifier}");
+
+    private final String endpoint;
+
+    Scenario(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public boolean isWrite() {
+        return this == UPDATE_PLAYER || this == REGISTER_PLAYER;
+    }
+}
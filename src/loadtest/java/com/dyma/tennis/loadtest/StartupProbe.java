@@ -0,0 +1,181 @@
+package com.dyma.tennis.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure du démarrage : temps entre le lancement de la JVM et la première réponse 200 à GET /players.
+ * Le jar (construit avec ./mvnw -Pstartup package) est extrait comme dans le Dockerfile, puis démarré plusieurs fois
+ * dans chaque mode : sans optimisation, avec AOT, avec AOT et une archive CDS produite par un démarrage d'entraînement.
+ * L'application tourne sur H2 ; les clés JWT sont servies par la sonde, qui signe elle-même le token de l'appel.
+ * Lancement : ./mvnw -Ploadtest test-compile exec:exec@measure-startup
+ * Paramètres (-Dstartup.args) : [jar] [nombre de démarrages par mode], par défaut target/dyma-tennis.jar et 5.
+ */
+public class StartupProbe {
+
+    private static final String ISSUER = "http://localhost:8090/realms/dyma";
+    private static final String CLIENT_ID = "dyma-tennis-api";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args.length > 0 ? args[0] : "target/dyma-tennis.jar");
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Path workDirectory = Files.createDirectories(Path.of("target", "startup-probe"));
+
+        RSAKey signingKey = new RSAKeyGenerator(2048).keyID("startup-probe").generate();
+        HttpServer jwksServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        byte[] jwks = new JWKSet(signingKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        jwksServer.createContext("/certs", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(jwks);
+            }
+        });
+        jwksServer.start();
+        String token = token(signingKey);
+        String jwksUri = "http://localhost:" + jwksServer.getAddress().getPort() + "/certs";
+
+        try {
+            Path application = extract(jar, workDirectory);
+            Path archive = workDirectory.resolve("application.jsa");
+            Files.deleteIfExists(archive);
+            run(application, List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh"),
+                    jwksUri, workDirectory.resolve("training.log")).waitFor(STARTUP_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+
+            Map<String, List<String>> modes = new LinkedHashMap<>();
+            modes.put("default", List.of());
+            modes.put("aot", List.of("-Dspring.aot.enabled=true"));
+            modes.put("aot+cds", List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive));
+
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                long[] millis = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    millis[run] = timeToFirstPlayers(client, application, mode.getValue(), jwksUri, token,
+                            workDirectory.resolve(mode.getKey() + "-" + run + ".log"));
+                }
+                Arrays.sort(millis);
+                System.out.printf("%-8s time to first GET /players: median %5d ms, min %5d ms, max %5d ms (%d runs)%n",
+                        mode.getKey(), millis[runs / 2], millis[0], millis[runs - 1], runs);
+            }
+        } finally {
+            jwksServer.stop(0);
+        }
+    }
+
+    private static long timeToFirstPlayers(HttpClient client, Path application, List<String> jvmOptions, String jwksUri,
+                                           String token, Path log) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> options = new ArrayList<>(jvmOptions);
+        options.add("-Dserver.port=" + port);
+        long start = System.nanoTime();
+        Process process = run(application, options, jwksUri, log);
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/players"))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+            while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with code " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // Pas encore à l'écoute
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            throw new IllegalStateException("No successful GET /players within " + STARTUP_TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static Process run(Path application, List<String> jvmOptions, String jwksUri, Path log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-jar", application.toString(),
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.flyway.locations=classpath:db/migrations/common,classpath:db/migrations/dev",
+                "--spring.security.oauth2.resourceserver.jwk.set-uri=" + jwksUri,
+                "--jwt.auth.jwks.cache-file=" + log.resolveSibling("jwks.json").toAbsolutePath()));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    /**
+     * Extrait le jar en couches (java -Djarmode=tools extract), indispensable pour que l'archive CDS s'applique.
+     */
+    private static Path extract(Path jar, Path workDirectory) throws IOException, InterruptedException {
+        Path destination = workDirectory.resolve("application");
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force", "--destination", destination.toString())
+                .inheritIO()
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Couldn't extract " + jar);
+        }
+        return destination.resolve(jar.getFileName());
+    }
+
+    private static String token(RSAKey signingKey) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject("startup-probe")
+                .claim("preferred_username", "startup-probe")
+                .claim("resource_access", Map.of(CLIENT_ID, Map.of("roles", List.of("ROLE_USER"))))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(Duration.ofHours(1))))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.dyma.tennis.loadtest;
+
+import com.dyma.tennis.web.TrafficRecord;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Rejoue un fichier capturé par TrafficCaptureFilter contre une instance de test et compare, par endpoint,
+ * la distribution des latences rejouées à celle des durées capturées.
+ * Les requêtes partent dans l'ordre de capture, à leur instant d'origine divisé par la vitesse (1 = temps réel,
+ * 4 = quatre fois plus vite) ; leur latence est mesurée depuis cet instant prévu, comme dans le test de charge.
+ * À la vitesse max, elles partent dès qu'une place se libère parmi MAX_IN_FLIGHT requêtes en cours.
+ * Les requêtes capturées avec un corps ne sont pas rejouables (le corps n'est pas capturé) et sont seulement comptées.
+ * Les tokens sont lus dans REPLAY_TOKEN_USER, REPLAY_TOKEN_ADMIN et REPLAY_TOKEN_AUTHENTICATED selon la catégorie
+ * de l'appelant capturé ; sans token pour sa catégorie, la requête est ignorée.
+ * Lancement : ./mvnw -Ploadtest test-compile exec:exec@replay-traffic -Dreplay.args="traffic.ndjson http://localhost:8080 4"
+ */
+public class TrafficReplay {
+
+    private static final int MAX_IN_FLIGHT = 256;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final String baseUrl;
+    private final double speed;
+    private final Map<String, String> tokens;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(executor)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+    private final Map<String, Endpoint> endpoints = new TreeMap<>();
+
+    TrafficReplay(String baseUrl, double speed, Map<String, String> tokens) {
+        this.baseUrl = baseUrl;
+        this.speed = speed;
+        this.tokens = tokens;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: TrafficReplay <capture.ndjson> <base url> [1|N|max]");
+            System.exit(2);
+        }
+        String speedArgument = args.length > 2 ? args[2] : "1";
+        double speed = "max".equals(speedArgument) ? Double.POSITIVE_INFINITY : Double.parseDouble(speedArgument);
+        Map<String, String> tokens = new TreeMap<>();
+        for (String principalClass : List.of("user", "admin", "authenticated")) {
+            String token = System.getenv("REPLAY_TOKEN_" + principalClass.toUpperCase(Locale.ROOT));
+            if (token != null) {
+                tokens.put(principalClass, token);
+            }
+        }
+        List<TrafficRecord> records = read(Path.of(args[0]));
+        TrafficReplay replay = new TrafficReplay(args[1].replaceAll("/$", ""), speed, tokens);
+        long start = System.nanoTime();
+        replay.run(records);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%nReplayed %d captured requests at speed %s in %.1f s%n", records.size(), speedArgument, seconds);
+        System.out.println(replay.report());
+    }
+
+    private static List<TrafficRecord> read(Path file) throws IOException {
+        List<TrafficRecord> records = new ArrayList<>();
+        try (MappingIterator<TrafficRecord> iterator = new ObjectMapper().readerFor(TrafficRecord.class).readValues(file.toFile())) {
+            iterator.forEachRemaining(records::add);
+        }
+        // Le fichier est écrit dans l'ordre de fin des requêtes : on rejoue dans l'ordre d'arrivée
+        records.sort(Comparator.comparingLong(TrafficRecord::timestamp));
+        return records;
+    }
+
+    void run(List<TrafficRecord> records) throws InterruptedException {
+        if (records.isEmpty()) {
+            return;
+        }
+        long firstTimestamp = records.getFirst().timestamp();
+        long start = System.nanoTime();
+        for (TrafficRecord record : records) {
+            Endpoint endpoint = endpoints.computeIfAbsent(endpointName(record), name -> new Endpoint());
+            endpoint.captured.recordValue(Math.min(TimeUnit.MICROSECONDS.toNanos(record.durationMicros()), HIGHEST_TRACKABLE_NANOS));
+            HttpRequest request = request(record);
+            if (request == null) {
+                endpoint.skipped.increment();
+                continue;
+            }
+            long scheduledAt;
+            if (Double.isInfinite(speed)) {
+                inFlight.acquire();
+                scheduledAt = System.nanoTime();
+            } else {
+                scheduledAt = start + (long) (TimeUnit.MILLISECONDS.toNanos(record.timestamp() - firstTimestamp) / speed);
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    endpoint.failures.increment();
+                    continue;
+                }
+            }
+            executor.execute(() -> send(endpoint, record, request, scheduledAt));
+        }
+        inFlight.tryAcquire(MAX_IN_FLIGHT, REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        executor.shutdownNow();
+    }
+
+    private void send(Endpoint endpoint, TrafficRecord record, HttpRequest request, long scheduledAt) {
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            endpoint.replayed.recordValue(Math.min(System.nanoTime() - scheduledAt, HIGHEST_TRACKABLE_NANOS));
+            if (response.statusCode() != record.status()) {
+                endpoint.statusMismatches.increment();
+            }
+        } catch (IOException e) {
+            endpoint.failures.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            endpoint.failures.increment();
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private HttpRequest request(TrafficRecord record) {
+        if (record.requestBytes() > 0) {
+            return null;
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(record))
+                .timeout(REQUEST_TIMEOUT)
+                .method(record.method(), HttpRequest.BodyPublishers.noBody());
+        if (!"anonymous".equals(record.principalClass())) {
+            String token = tokens.get(record.principalClass());
+            if (token == null) {
+                return null;
+            }
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Endpoint du rapport : méthode, modèle de chemin et noms des paramètres (GET /players?rankFrom&rankTo).
+     */
+    private static String endpointName(TrafficRecord record) {
+        return record.parameters().isEmpty() ? record.endpoint() : record.endpoint() + "?" + String.join("&", record.parameters().keySet());
+    }
+
+    private URI uri(TrafficRecord record) {
+        return URI.create(baseUrl + UriComponentsBuilder.fromPath(record.template())
+                .queryParams(CollectionUtils.toMultiValueMap(record.parameters()))
+                .buildAndExpand(record.uriVariables())
+                .encode()
+                .toUriString());
+    }
+
+    String report() {
+        StringBuilder report = new StringBuilder(String.format("%n%-52s %8s %8s %21s %21s %21s %8s %6s%n",
+                "endpoint", "count", "skipped", "p50 ms capt/replay", "p99 ms capt/replay", "max ms capt/replay", "status", "err"));
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint endpoint = entry.getValue();
+            Histogram captured = endpoint.captured.getIntervalHistogram();
+            Histogram replayed = endpoint.replayed.getIntervalHistogram();
+            report.append(String.format("%-52s %8d %8d %21s %21s %21s %8d %6d%n",
+                    entry.getKey(),
+                    captured.getTotalCount(),
+                    endpoint.skipped.sum(),
+                    compare(captured.getValueAtPercentile(50), replayed.getValueAtPercentile(50)),
+                    compare(captured.getValueAtPercentile(99), replayed.getValueAtPercentile(99)),
+                    compare(captured.getMaxValue(), replayed.getMaxValue()),
+                    endpoint.statusMismatches.sum(),
+                    endpoint.failures.sum()));
+        }
+        return report.toString();
+    }
+
+    private static String compare(long capturedNanos, long replayedNanos) {
+        return String.format("%9.2f / %9.2f", millis(capturedNanos), millis(replayedNanos));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static final class Endpoint {
+        private final Recorder captured = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        private final Recorder replayed = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder statusMismatches = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+    }
+}
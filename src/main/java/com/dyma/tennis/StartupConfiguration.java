@@ -0,0 +1,45 @@
+package com.dyma.tennis;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+
+/**
+ * Réglages du démarrage.
+ * Les beans hors du chemin des requêtes métier (documentation OpenAPI, outils d'exploitation) sont créés au premier
+ * usage plutôt qu'au démarrage : ceux de l'application portent @Lazy, ceux des bibliothèques sont désignés par
+ * leur package (lazy-initialization.packages). Avec le traitement AOT, ce choix est figé à la construction.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfiguration {
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyInitialization(Environment environment) {
+        String[] packages = environment.getProperty("lazy-initialization.packages", String[].class, new String[0]);
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+                String className = declaringClassName(beanFactory, beanDefinition);
+                if (className != null && Arrays.stream(packages).anyMatch(prefix -> className.startsWith(prefix + "."))) {
+                    beanDefinition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    /**
+     * Classe du bean, ou pour un bean déclaré par une méthode @Bean, classe de la configuration qui le déclare.
+     */
+    private static String declaringClassName(ConfigurableListableBeanFactory beanFactory, BeanDefinition beanDefinition) {
+        String factoryBeanName = beanDefinition.getFactoryBeanName();
+        if (factoryBeanName != null && beanFactory.containsBeanDefinition(factoryBeanName)) {
+            return beanFactory.getBeanDefinition(factoryBeanName).getBeanClassName();
+        }
+        return beanDefinition.getBeanClassName();
+    }
+}
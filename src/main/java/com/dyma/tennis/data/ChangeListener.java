@@ -0,0 +1,229 @@
+package com.dyma.tennis.data;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reçoit les notifications de changement des autres instances et les publie comme événements Spring,
+ * pour que les caches locaux (ReadModel, RankingTable) se rechargent.
+ * Sur PostgreSQL, une connexion dédiée, hors du pool, écoute le canal avec LISTEN ; après une reconnexion,
+ * une notification ALL est émise car des messages ont pu être perdus.
+ * Sur les autres bases, la table change_notification est relue à intervalle régulier et purgée des lignes anciennes.
+ * Deux notifications peuvent y être validées dans le désordre (la version est tirée avant l'insertion) : chaque relecture
+ * reprend aussi les lignes des reorder-window dernières secondes, et les versions déjà traitées sont ignorées.
+ */
+@Component
+public class ChangeListener implements SmartLifecycle {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeListener.class);
+
+    private final ChangeNotifier changeNotifier;
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final Duration reorderWindow;
+    private final Counter reordered;
+    private final Map<String, Counter> received = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ChangeListener(ChangeNotifier changeNotifier,
+                          DataSourceProperties dataSourceProperties,
+                          DataSource dataSource,
+                          ApplicationEventPublisher eventPublisher,
+                          MeterRegistry meterRegistry,
+                          @Value("${change-notification.poll-interval}") Duration pollInterval,
+                          @Value("${change-notification.retention}") Duration retention,
+                          @Value("${change-notification.reorder-window}") Duration reorderWindow) {
+        this.changeNotifier = changeNotifier;
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.reorderWindow = reorderWindow;
+        this.reordered = Counter.builder("tennis.change-notifications.reordered")
+                .description("Change notifications committed after one with a higher version, caught by the reorder window")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!changeNotifier.isEnabled()) {
+            return;
+        }
+        running = true;
+        boolean postgres = changeNotifier.isPostgres();
+        thread = Thread.ofPlatform().daemon().name("change-listener").start(postgres ? this::listen : this::poll);
+        log.info("Listening to change notifications with {}", postgres ? "LISTEN/NOTIFY" : "polling every " + pollInterval);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(pollInterval.toMillis() * 2 + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + ChangeNotifier.CHANNEL);
+                }
+                if (reconnecting) {
+                    log.info("Reconnected change listener, reloading local caches");
+                    dispatch(new ChangeNotification(ChangeNotification.ALL, 0, "", List.of()));
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(ChangeNotification.fromPayload(notification.getParameter()));
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Change listener connection lost, retrying in {}", pollInterval, e);
+                reconnecting = true;
+                sleep();
+            }
+        }
+    }
+
+    private void poll() {
+        // Versions déjà traitées encore dans la fenêtre de réordonnancement, avec leur date de création
+        Map<Long, Instant> seen = new HashMap<>();
+        long lastVersion = seed(seen);
+        Instant nextPurge = Instant.now();
+        while (running && sleep()) {
+            try {
+                Instant windowStart = Instant.now().minus(reorderWindow);
+                List<PolledNotification> notifications = jdbcTemplate.query(
+                        "select version, entity_type, identifiers, origin, created_at from change_notification "
+                                + "where version > ? or created_at > ? order by version",
+                        (resultSet, rowNum) -> new PolledNotification(new ChangeNotification(
+                                resultSet.getString("entity_type"),
+                                resultSet.getLong("version"),
+                                resultSet.getString("origin"),
+                                ChangeNotification.splitIdentifiers(resultSet.getString("identifiers"))),
+                                resultSet.getTimestamp("created_at").toInstant()),
+                        lastVersion, Timestamp.from(windowStart));
+                for (PolledNotification polled : notifications) {
+                    ChangeNotification notification = polled.notification();
+                    if (seen.putIfAbsent(notification.version(), polled.createdAt()) != null) {
+                        continue;
+                    }
+                    if (notification.version() < lastVersion) {
+                        // Validée après une notification de version supérieure déjà traitée
+                        reordered.increment();
+                    }
+                    lastVersion = Math.max(lastVersion, notification.version());
+                    dispatch(notification);
+                }
+                seen.values().removeIf(createdAt -> createdAt.isBefore(windowStart));
+                if (Instant.now().isAfter(nextPurge)) {
+                    jdbcTemplate.update("delete from change_notification where created_at < ?",
+                            Timestamp.from(Instant.now().minus(retention)));
+                    nextPurge = Instant.now().plus(retention);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Couldn't poll change notifications", e);
+            }
+        }
+    }
+
+    /**
+     * Marque comme traitées les notifications déjà présentes au démarrage.
+     *
+     * @return La plus grande version déjà présente.
+     */
+    private long seed(Map<Long, Instant> seen) {
+        try {
+            jdbcTemplate.query("select version, created_at from change_notification where created_at > ?",
+                    resultSet -> {
+                        seen.put(resultSet.getLong("version"), resultSet.getTimestamp("created_at").toInstant());
+                    }, Timestamp.from(Instant.now().minus(reorderWindow)));
+            Long version = jdbcTemplate.queryForObject("select coalesce(max(version), 0) from change_notification", Long.class);
+            return version == null ? 0 : version;
+        } catch (DataAccessException e) {
+            log.warn("Couldn't read last change notification version", e);
+            return 0;
+        }
+    }
+
+    private void dispatch(ChangeNotification notification) {
+        if (changeNotifier.getOrigin().equals(notification.origin())) {
+            return;
+        }
+        received.computeIfAbsent(notification.entityType(), entityType -> Counter.builder("tennis.change-notifications.received")
+                        .description("Change notifications received from other instances")
+                        .tag("entity", entityType)
+                        .register(meterRegistry))
+                .increment();
+        try {
+            eventPublisher.publishEvent(notification);
+        } catch (RuntimeException e) {
+            log.error("Couldn't apply change notification {}", notification, e);
+        }
+    }
+
+    private record PolledNotification(ChangeNotification notification, Instant createdAt) {
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(pollInterval);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.dyma.tennis.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Message d'invalidation échangé entre instances après une écriture : type d'entité, version de la donnée
+ * (tirée de change_version_seq), instance d'origine et identifiants concernés.
+ * Une liste d'identifiants vide signifie « toutes les entités de ce type ».
+ * Publié localement comme événement Spring par ChangeListener.
+ */
+public record ChangeNotification(String entityType, long version, String origin, List<UUID> identifiers) {
+
+    public static final String PLAYER = "player";
+    public static final String TOURNAMENT = "tournament";
+    public static final String REGISTRATION = "registration";
+    // Émis après une reconnexion : des notifications ont pu être perdues, tout est à recharger
+    public static final String ALL = "all";
+
+    // Au-delà, les identifiants ne sont pas transmis (pg_notify est limité à 8000 octets)
+    static final int MAX_IDENTIFIERS = 100;
+
+    public boolean affects(String type) {
+        return ALL.equals(entityType) || type.equals(entityType);
+    }
+
+    /**
+     * @return La forme compacte : type;version;origine;uuid,uuid
+     */
+    String toPayload() {
+        return entityType + ';' + version + ';' + origin + ';' + joinedIdentifiers();
+    }
+
+    String joinedIdentifiers() {
+        return identifiers.stream().map(UUID::toString).collect(Collectors.joining(","));
+    }
+
+    static ChangeNotification fromPayload(String payload) {
+        String[] parts = payload.split(";", 4);
+        return new ChangeNotification(parts[0], Long.parseLong(parts[1]), parts[2], splitIdentifiers(parts[3]));
+    }
+
+    static List<UUID> splitIdentifiers(String joinedIdentifiers) {
+        return joinedIdentifiers.isEmpty()
+                ? List.of()
+                : Arrays.stream(joinedIdentifiers.split(",")).map(UUID::fromString).toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.dyma.tennis.data;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publie les notifications de changement vers les autres instances, une fois l'écriture validée :
+ * pg_notify sur PostgreSQL, une ligne dans change_notification sur les autres bases (relue par ChangeListener).
+ * La publication est au mieux : un échec est journalisé mais ne fait pas échouer l'écriture.
+ */
+@Component
+public class ChangeNotifier {
+
+    static final String CHANNEL = "tennis_changes";
+
+    private final Logger log = LoggerFactory.getLogger(ChangeNotifier.class);
+
+    private final boolean enabled;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> published = new ConcurrentHashMap<>();
+    private final String origin = UUID.randomUUID().toString();
+    private volatile Boolean postgres;
+
+    public ChangeNotifier(@Value("${change-notification.enabled}") boolean enabled, DataSource dataSource, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void publish(String entityType, UUID... identifiers) {
+        if (!enabled) {
+            return;
+        }
+        List<UUID> changed = identifiers.length > ChangeNotification.MAX_IDENTIFIERS ? List.of() : List.of(identifiers);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(entityType, changed);
+                }
+            });
+        } else {
+            // Les services ne sont pas transactionnels : chaque appel au repository est déjà validé
+            send(entityType, changed);
+        }
+    }
+
+    private void send(String entityType, List<UUID> identifiers) {
+        try {
+            Long version = jdbcTemplate.queryForObject("select nextval('change_version_seq')", Long.class);
+            ChangeNotification notification = new ChangeNotification(entityType, version, origin, identifiers);
+            if (isPostgres()) {
+                jdbcTemplate.query("select pg_notify(?, ?)", resultSet -> {
+                }, CHANNEL, notification.toPayload());
+            } else {
+                jdbcTemplate.update("insert into change_notification(version, entity_type, identifiers, origin) values (?, ?, ?, ?)",
+                        version, entityType, notification.joinedIdentifiers(), origin);
+            }
+            published.computeIfAbsent(entityType, key -> Counter.builder("tennis.change-notifications.published")
+                            .description("Change notifications sent to other instances")
+                            .tag("entity", entityType)
+                            .register(meterRegistry))
+                    .increment();
+        } catch (DataAccessException e) {
+            log.warn("Couldn't publish {} change notification, other instances may serve stale data", entityType, e);
+        }
+    }
+
+    /**
+     * @return L'identifiant de cette instance, pour ignorer ses propres notifications.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    boolean isPostgres() {
+        Boolean current = postgres;
+        if (current == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+                current = "PostgreSQL".equals(product);
+            } catch (MetaDataAccessException e) {
+                log.warn("Couldn't detect database product, falling back to polling", e);
+                current = false;
+            }
+            postgres = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,43 @@
+package com.dyma.tennis.data;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * Deux pools HikariCP vers la même base, derrière une seule DataSource (WriteRoutingDataSource) :
+ * "reads", configuré par spring.datasource.hikari.*, et "writes", réservé aux écritures d'administration
+ * et configuré par bulkhead.write.pool.*.
+ * Seule la DataSource d'aiguillage est instrumentée par datasource-proxy (decorator.datasource.exclude-beans) :
+ * chaque requête SQL n'est comptée qu'une fois.
+ */
+@Configuration
+public class DataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource readDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("reads");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("bulkhead.write.pool")
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("writes");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource readDataSource, HikariDataSource writeDataSource) {
+        return new WriteRoutingDataSource(readDataSource, writeDataSource);
+    }
+}
@@ -0,0 +1,312 @@
+package com.dyma.tennis.data;
+
+import com.dyma.tennis.service.ChangeTracker;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Génère un jeu de données volumineux et déterministe directement dans les tables player, tournament
+ * et player_tournament, par batchs (sans passer par Hibernate ni recalculer le classement à chaque joueur).
+ * Sur PostgreSQL, chaque batch d'insertion part en un seul COPY ; ailleurs (H2), en batch JDBC.
+ * Chaque batch tire des versions de changement : il s'exécute dans sa propre transaction, déclarée en cours
+ * auprès de ChangeTracker comme les écritures des services.
+ * Les identifiants générés par la base sont relus dans l'ordre d'insertion : aucune autre écriture
+ * ne doit avoir lieu pendant la génération. Une fois la génération terminée, une notification ALL fait recharger
+ * les caches (RankingTable, ReadModel) de cette instance et des autres.
+ */
+@Component
+@Lazy
+public class DatasetGenerator {
+
+    private static final int MAX_POINTS = 12_000;
+    private static final int[] CAPACITIES = {32, 64, 128};
+    private static final LocalDate FIRST_TOURNAMENT_DATE = LocalDate.of(2025, 1, 1);
+
+    private static final String PLAYER_COLUMNS = "player(identifier, last_name, first_name, birth_date, points, rank)";
+    private static final String TOURNAMENT_COLUMNS = "tournament(identifier, name, start_date, end_date, prize_money, capacity)";
+    private static final String REGISTRATION_COLUMNS = "player_tournament(player_id, tournament_id)";
+
+    private static final String[] FIRST_NAMES = {
+            "Rafael", "Novak", "Roger", "Carlos", "Jannik", "Daniil", "Alexander", "Stefanos", "Casper", "Holger",
+            "Taylor", "Frances", "Hubert", "Andrey", "Lorenzo", "Grigor", "Felix", "Tommy", "Ben", "Ugo"};
+    private static final String[] LAST_NAMES = {
+            "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau",
+            "Simon", "Laurent", "Lefebvre", "Michel", "Garcia", "David", "Bertrand", "Roux", "Vincent", "Fournier"};
+    private static final String[] CITIES = {
+            "Paris", "Lyon", "Marseille", "Bordeaux", "Lille", "Nantes", "Montpellier", "Metz", "Rennes", "Nice",
+            "Madrid", "Rome", "Vienna", "Basel", "Halle", "Doha", "Dubai", "Tokyo", "Shanghai", "Miami"};
+
+    private final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeTracker changeTracker;
+    private final ChangeNotifier changeNotifier;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile Boolean postgres;
+
+    public DatasetGenerator(DataSource dataSource, PlatformTransactionManager transactionManager, ChangeTracker changeTracker,
+                            ChangeNotifier changeNotifier, ApplicationEventPublisher eventPublisher) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeTracker = changeTracker;
+        this.changeNotifier = changeNotifier;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public GeneratedDataset generate(DatasetSpecification specification) {
+        long start = System.nanoTime();
+        Random random = new Random(specification.seed());
+        boolean playersAlreadyRanked = count("player") > 0;
+
+        List<Long> playerIds = insertPlayers(specification, random);
+        int[] capacities = new int[specification.tournaments()];
+        List<Long> tournamentIds = insertTournaments(specification, random, capacities);
+        long registrations = insertRegistrations(specification, random, playerIds, tournamentIds, capacities);
+        if (playersAlreadyRanked) {
+            rerank(specification.batchSize());
+        }
+        // Les tables ont été écrites en SQL : les caches déjà chargés, ici comme ailleurs, sont à recharger
+        eventPublisher.publishEvent(new ChangeNotification(ChangeNotification.ALL, 0, "", List.of()));
+        changeNotifier.publish(ChangeNotification.ALL);
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        log.info("Generated {} players, {} tournaments and {} registrations in {}",
+                playerIds.size(), tournamentIds.size(), registrations, elapsed);
+        return new GeneratedDataset(playerIds.size(), tournamentIds.size(), registrations, elapsed);
+    }
+
+    /**
+     * Points triés par ordre décroissant, distribués en loi de puissance comme un classement ATP :
+     * quelques joueurs au-delà de 10 000 points, une longue traîne proche de zéro.
+     */
+    public static int[] rankedPoints(int players, Random random) {
+        int[] points = new int[players];
+        for (int rank = 1; rank <= players; rank++) {
+            double noise = 0.9 + 0.2 * random.nextDouble();
+            points[rank - 1] = (int) Math.min(MAX_POINTS, Math.round(MAX_POINTS * Math.pow(rank, -0.85) * noise));
+        }
+        Arrays.sort(points);
+        for (int i = 0, j = players - 1; i < j; i++, j--) {
+            int swap = points[i];
+            points[i] = points[j];
+            points[j] = swap;
+        }
+        return points;
+    }
+
+    private List<Long> insertPlayers(DatasetSpecification specification, Random random) {
+        long maxIdBefore = maxId("player");
+        int[] points = rankedPoints(specification.players(), random);
+        List<Object[]> batch = new ArrayList<>(specification.batchSize());
+        for (int i = 0; i < specification.players(); i++) {
+            batch.add(new Object[]{
+                    new UUID(random.nextLong(), random.nextLong()),
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)] + "-" + Integer.toString(i, 36),
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    Date.valueOf(LocalDate.of(1975 + random.nextInt(30), 1 + random.nextInt(12), 1 + random.nextInt(28))),
+                    points[i],
+                    i + 1});
+            if (batch.size() == specification.batchSize()) {
+                insert(PLAYER_COLUMNS, batch);
+                if ((i + 1) % (specification.batchSize() * 100) == 0) {
+                    log.info("Inserted {} players", i + 1);
+                }
+            }
+        }
+        insert(PLAYER_COLUMNS, batch);
+        return jdbcTemplate.queryForList("SELECT id FROM player WHERE id > ? ORDER BY id", Long.class, maxIdBefore);
+    }
+
+    private List<Long> insertTournaments(DatasetSpecification specification, Random random, int[] capacities) {
+        long maxIdBefore = maxId("tournament");
+        List<Object[]> batch = new ArrayList<>(specification.batchSize());
+        for (int i = 0; i < specification.tournaments(); i++) {
+            LocalDate startDate = FIRST_TOURNAMENT_DATE.plusDays(random.nextInt(5 * 365));
+            capacities[i] = CAPACITIES[random.nextInt(CAPACITIES.length)];
+            batch.add(new Object[]{
+                    new UUID(random.nextLong(), random.nextLong()),
+                    CITIES[i % CITIES.length] + " Open " + (i / CITIES.length + 1),
+                    Date.valueOf(startDate),
+                    Date.valueOf(startDate.plusDays(7 + random.nextInt(8))),
+                    100_000 * (1 + random.nextInt(500)),
+                    capacities[i]});
+            if (batch.size() == specification.batchSize()) {
+                insert(TOURNAMENT_COLUMNS, batch);
+            }
+        }
+        insert(TOURNAMENT_COLUMNS, batch);
+        return jdbcTemplate.queryForList("SELECT id FROM tournament WHERE id > ? ORDER BY id", Long.class, maxIdBefore);
+    }
+
+    /**
+     * Les joueurs sont tirés avec un biais vers le haut du classement, qui joue plus de tournois.
+     * Quand un tournoi doit accueillir plus de la moitié des joueurs, le tirage devient uniforme pour rester rapide.
+     */
+    private long insertRegistrations(DatasetSpecification specification, Random random, List<Long> playerIds,
+                                     List<Long> tournamentIds, int[] capacities) {
+        if (playerIds.isEmpty()) {
+            return 0;
+        }
+        long registrations = 0;
+        List<Object[]> batch = new ArrayList<>(specification.batchSize());
+        for (int t = 0; t < tournamentIds.size(); t++) {
+            int registered = (int) Math.min(playerIds.size(), Math.round(capacities[t] * specification.registrationDensity()));
+            boolean biased = registered * 2 <= playerIds.size();
+            Set<Integer> players = new LinkedHashSet<>();
+            while (players.size() < registered) {
+                double u = random.nextDouble();
+                players.add((int) (playerIds.size() * (biased ? u * u : u)));
+            }
+            for (int player : players) {
+                batch.add(new Object[]{playerIds.get(player), tournamentIds.get(t)});
+                if (batch.size() == specification.batchSize()) {
+                    insert(REGISTRATION_COLUMNS, batch);
+                }
+            }
+            registrations += registered;
+        }
+        insert(REGISTRATION_COLUMNS, batch);
+        return registrations;
+    }
+
+    /**
+     * La table contenait déjà des joueurs : le classement est recalculé sur l'ensemble, comme RankingCalculator.
+     */
+    private void rerank(int batchSize) {
+        List<Long> idsByPoints = jdbcTemplate.queryForList("SELECT id FROM player ORDER BY points DESC, id", Long.class);
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < idsByPoints.size(); i++) {
+            batch.add(new Object[]{i + 1, idsByPoints.get(i)});
+            if (batch.size() == batchSize) {
+                flush("UPDATE player SET rank = ?, change_version = nextval('change_version_seq') WHERE id = ?", batch);
+            }
+        }
+        flush("UPDATE player SET rank = ?, change_version = nextval('change_version_seq') WHERE id = ?", batch);
+    }
+
+    private void insert(String target, List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (isPostgres()) {
+            write(batch, () -> copy(target, batch));
+        } else {
+            String placeholders = String.join(", ", Collections.nCopies(batch.get(0).length, "?"));
+            flush("INSERT INTO " + target + " VALUES (" + placeholders + ")", batch);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        write(batch, () -> jdbcTemplate.batchUpdate(sql, batch));
+    }
+
+    private void write(List<Object[]> batch, Runnable write) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Les lignes écrites tirent des versions de changement : la transaction se déclare avant
+            changeTracker.declareInFlight();
+            write.run();
+        });
+        batch.clear();
+    }
+
+    /**
+     * Envoie le batch en un seul COPY au format texte : colonnes séparées par des tabulations, une ligne par entrée.
+     */
+    private void copy(String target, List<Object[]> batch) {
+        StringBuilder rows = new StringBuilder(batch.size() * 64);
+        for (Object[] row : batch) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    rows.append('\t');
+                }
+                appendCopyValue(rows, row[i]);
+            }
+            rows.append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn("COPY " + target + " FROM STDIN", new StringReader(rows.toString()));
+            } catch (IOException e) {
+                throw new SQLException("Couldn't send rows to COPY " + target, e);
+            }
+        });
+    }
+
+    private static void appendCopyValue(StringBuilder rows, Object value) {
+        if (value == null) {
+            rows.append("\\N");
+            return;
+        }
+        String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> rows.append("\\\\");
+                case '\t' -> rows.append("\\t");
+                case '\n' -> rows.append("\\n");
+                case '\r' -> rows.append("\\r");
+                default -> rows.append(c);
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean current = postgres;
+        if (current == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+                current = "PostgreSQL".equals(product);
+            } catch (MetaDataAccessException e) {
+                log.warn("Couldn't detect database product, generating with JDBC batches", e);
+                current = false;
+            }
+            postgres = current;
+        }
+        return current;
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private long maxId(String table) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+    }
+
+    public record GeneratedDataset(int players, int tournaments, long registrations, Duration elapsed) {
+    }
+}
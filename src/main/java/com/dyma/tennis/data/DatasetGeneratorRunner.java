@@ -0,0 +1,45 @@
+package com.dyma.tennis.data;
+
+import com.dyma.tennis.service.PlayerViewTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remplit la base de développement avec un jeu de données volumineux au démarrage,
+ * uniquement si dataset.generator.enabled=true. Les lignes s'ajoutent à celles déjà présentes.
+ * Les tables étant écrites en SQL, la vue des joueurs est ensuite reconstruite.
+ */
+@Component
+@Profile("dev")
+@ConditionalOnProperty(name = "dataset.generator.enabled", havingValue = "true")
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+    private final DatasetGenerator datasetGenerator;
+    private final DatasetSpecification specification;
+    private final PlayerViewTable playerViewTable;
+
+    public DatasetGeneratorRunner(
+            DatasetGenerator datasetGenerator,
+            PlayerViewTable playerViewTable,
+            @Value("${dataset.generator.seed}") long seed,
+            @Value("${dataset.generator.players}") int players,
+            @Value("${dataset.generator.tournaments}") int tournaments,
+            @Value("${dataset.generator.registration-density}") double registrationDensity,
+            @Value("${dataset.generator.batch-size}") int batchSize) {
+        this.datasetGenerator = datasetGenerator;
+        this.playerViewTable = playerViewTable;
+        this.specification = new DatasetSpecification(seed, players, tournaments, registrationDensity, batchSize);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        datasetGenerator.generate(specification);
+        if (playerViewTable.isEnabled()) {
+            playerViewTable.rebuild();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.dyma.tennis.data;
+
+/**
+ * Taille et graine d'un jeu de données généré.
+ *
+ * @param seed                graine : une même spécification produit toujours les mêmes lignes
+ * @param players             nombre de joueurs à créer
+ * @param tournaments         nombre de tournois à créer
+ * @param registrationDensity part de la capacité de chaque tournoi occupée par des inscriptions, entre 0 et 1
+ * @param batchSize           nombre de lignes par batch JDBC
+ */
+public record DatasetSpecification(long seed, int players, int tournaments, double registrationDensity, int batchSize) {
+
+    public DatasetSpecification {
+        if (players < 0 || tournaments < 0) {
+            throw new IllegalArgumentException("Players and tournaments must be positive or zero");
+        }
+        if (registrationDensity < 0 || registrationDensity > 1) {
+            throw new IllegalArgumentException("Registration density must be between 0 and 1");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+    }
+}
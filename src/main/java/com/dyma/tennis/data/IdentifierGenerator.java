@@ -0,0 +1,12 @@
+package com.dyma.tennis.data;
+
+import java.util.UUID;
+
+/**
+ * Fournit l'identifiant public (colonne identifier) des joueurs et tournois créés.
+ * L'implémentation est choisie par la propriété identifier.generator : time-ordered (UUIDv7, par défaut) ou random (UUIDv4).
+ */
+public interface IdentifierGenerator {
+
+    UUID next();
+}
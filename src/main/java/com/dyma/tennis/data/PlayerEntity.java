@@ -32,6 +32,11 @@ public class PlayerEntity {
 
     @Column(name = "rank", nullable = false)
     private Integer rank;
+
+    // Incrémentée à chaque écriture de l'entité ; l'écriture d'une copie périmée échoue
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "player_tournament",
@@ -66,6 +71,10 @@ public class PlayerEntity {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public UUID getIdentifier() {
         return identifier;
     }
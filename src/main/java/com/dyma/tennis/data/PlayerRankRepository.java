@@ -0,0 +1,18 @@
+package com.dyma.tennis.data;
+
+import java.util.List;
+
+/**
+ * Écriture du classement seul, sans toucher aux autres colonnes ni à la version des joueurs :
+ * un recalcul ne peut ni écraser une mise à jour concurrente ni la faire échouer.
+ */
+public interface PlayerRankRepository {
+
+    /**
+     * Enregistre le rang des joueurs, en un lot, pour les seuls joueurs dont le rang a changé,
+     * et leur attribue une nouvelle version de changement : l'appelant doit s'être déclaré dans change_in_flight.
+     *
+     * @return Le nombre de joueurs dont le rang a été modifié.
+     */
+    int updateRanks(List<PlayerEntity> rankedPlayers);
+}
@@ -0,0 +1,34 @@
+package com.dyma.tennis.data;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+class PlayerRankRepositoryImpl implements PlayerRankRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PlayerRankRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public int updateRanks(List<PlayerEntity> rankedPlayers) {
+        int[][] counts = jdbcTemplate.batchUpdate("update player set rank = ?, change_version = nextval('change_version_seq') where id = ? and rank <> ?", rankedPlayers, BATCH_SIZE,
+                (statement, player) -> {
+                    statement.setInt(1, player.getRank());
+                    statement.setLong(2, player.getId());
+                    statement.setInt(3, player.getRank());
+                });
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                updated += Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+}
@@ -1,18 +1,29 @@
 package com.dyma.tennis.data;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PlayerRepository extends JpaRepository<PlayerEntity, Long> {
+public interface PlayerRepository extends JpaRepository<PlayerEntity, Long>, PlayerRankRepository {
     // Declaration de la méthode
     Optional<PlayerEntity> findOneByIdentifier(UUID identifier);
 
     Optional<PlayerEntity> findOneByFirstNameIgnoreCaseAndLastNameIgnoreCaseAndBirthDate(String firstName, String lastName, LocalDate birthdate);
 
+    // Joueurs chargés en lecture seule pour le recalcul du classement : les rangs modifiés ne sont pas écrits
+    // par Hibernate, seulement par updateRanks
+    @Query("select p from PlayerEntity p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<PlayerEntity> findAllForRanking();
+
 
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.dyma.tennis.data;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Identifiants UUIDv4 entièrement aléatoires : les insertions se répartissent sur tout l'index unique.
+ */
+@Component
+@ConditionalOnProperty(name = "identifier.generator", havingValue = "random")
+public class RandomIdentifierGenerator implements IdentifierGenerator {
+
+    @Override
+    public UUID next() {
+        return UUID.randomUUID();
+    }
+}
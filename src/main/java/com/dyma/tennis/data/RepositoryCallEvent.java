@@ -0,0 +1,26 @@
+package com.dyma.tennis.data;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement JFR émis pour chaque appel de méthode d'un repository Spring Data.
+ */
+@Name("com.dyma.tennis.RepositoryCall")
+@Label("Repository Call")
+@Category({"Dyma Tennis", "Data"})
+@Description("Call to a Spring Data repository method")
+class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,65 @@
+package com.dyma.tennis.data;
+
+import com.dyma.tennis.timing.ServerTiming;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ajoute aux proxys des repositories un intercepteur qui émet un RepositoryCallEvent par appel
+ * et compte sa durée dans la phase repo de l'en-tête Server-Timing.
+ * Quand aucun enregistrement JFR n'est actif, aucun événement n'est créé.
+ */
+@Component
+public class RepositoryCallRecording implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+            repositoryFactoryBean.addRepositoryFactoryCustomizer(repositoryFactory ->
+                    repositoryFactory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryCallInterceptor(
+                                    repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    static class RepositoryCallInterceptor implements MethodInterceptor {
+
+        private final String repository;
+
+        RepositoryCallInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            long serverTiming = ServerTiming.start(ServerTiming.Phase.REPO);
+            RepositoryCallEvent event = new RepositoryCallEvent();
+            if (!event.isEnabled()) {
+                try {
+                    return invocation.proceed();
+                } finally {
+                    ServerTiming.stop(ServerTiming.Phase.REPO, serverTiming);
+                }
+            }
+            event.begin();
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                event.failed = true;
+                throw e;
+            } finally {
+                ServerTiming.stop(ServerTiming.Phase.REPO, serverTiming);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.repository = repository;
+                    event.method = invocation.getMethod().getName();
+                    event.commit();
+                }
+            }
+        }
+    }
+}
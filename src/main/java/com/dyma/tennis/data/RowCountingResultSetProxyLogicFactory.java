@@ -0,0 +1,32 @@
+package com.dyma.tennis.data;
+
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogic;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+
+/**
+ * Compte les lignes lues par la requête HTTP en cours : chaque appel à ResultSet.next() qui renvoie true est une ligne.
+ */
+@Component
+public class RowCountingResultSetProxyLogicFactory implements ResultSetProxyLogicFactory {
+
+    @Override
+    public ResultSetProxyLogic create(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+        SimpleResultSetProxyLogic delegate = new SimpleResultSetProxyLogic(resultSet, connectionInfo, proxyConfig);
+        return (proxy, method, args) -> {
+            Object result = delegate.invoke(proxy, method, args);
+            if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                SqlStatistics statistics = SqlStatistics.current();
+                if (statistics != null) {
+                    statistics.recordRows(1);
+                }
+            }
+            return result;
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.dyma.tennis.data;
+
+/**
+ * Compteurs SQL de la requête HTTP en cours : nombre de requêtes SQL, lignes lues ou écrites et temps passé dans JDBC.
+ * Les compteurs sont attachés au thread qui traite la requête, entre begin() et end().
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long elapsedNanos;
+
+    private SqlStatistics() {
+    }
+
+    /**
+     * Commence le décompte pour le thread courant.
+     */
+    public static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Rattache au thread courant un décompte commencé sur un autre thread de la même requête HTTP
+     * (écriture exécutée par WriteExecutor, dispatch asynchrone). Un seul thread à la fois l'utilise ; à refermer par end().
+     */
+    public static void resume(SqlStatistics statistics) {
+        CURRENT.set(statistics);
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return Les compteurs du thread courant, ou null en dehors d'une requête HTTP.
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    void recordStatements(int count, long nanos) {
+        statements += count;
+        elapsedNanos += nanos;
+    }
+
+    void recordRows(long count) {
+        rows += count;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,77 @@
+package com.dyma.tennis.data;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener datasource-proxy qui alimente les SqlStatistics de la requête en cours.
+ * Les requêtes SQL plus lentes que le seuil configuré sont journalisées, avec échantillonnage
+ * pour ne pas inonder les logs quand la base ralentit.
+ */
+@Component
+public class SqlStatisticsListener implements QueryExecutionListener {
+
+    private static final String START_NANOS = SqlStatisticsListener.class.getName() + ".start";
+
+    private final Logger log = LoggerFactory.getLogger(SqlStatisticsListener.class);
+
+    private final long slowQueryThresholdNanos;
+    private final double slowQuerySampleRate;
+
+    public SqlStatisticsListener(
+            @Value("${sql-statistics.slow-query.threshold}") Duration slowQueryThreshold,
+            @Value("${sql-statistics.slow-query.sample-rate}") double slowQuerySampleRate) {
+        this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+        this.slowQuerySampleRate = slowQuerySampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long elapsedNanos = start == null ? TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime()) : System.nanoTime() - start;
+
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.recordStatements(queryInfoList.size(), elapsedNanos);
+            statistics.recordRows(updatedRows(execInfo.getResult()));
+        }
+
+        if (elapsedNanos >= slowQueryThresholdNanos && ThreadLocalRandom.current().nextDouble() < slowQuerySampleRate) {
+            log.warn("Slow query took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery());
+        }
+    }
+
+    // Les lignes lues sont comptées par RowCountingResultSetProxyLogicFactory, ici seulement les lignes modifiées
+    private long updatedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(0, count);
+        }
+        if (result instanceof Long count) {
+            return Math.max(0, count);
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(0, count);
+            }
+            return total;
+        }
+        return 0;
+    }
+}
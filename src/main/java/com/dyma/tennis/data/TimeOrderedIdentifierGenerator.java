@@ -0,0 +1,60 @@
+package com.dyma.tennis.data;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Identifiants UUIDv7 (RFC 9562) : 48 bits d'horodatage en millisecondes, puis 12 bits de compteur et 62 bits aléatoires.
+ * Les identifiants successifs sont croissants, y compris dans une même milliseconde : les insertions se font
+ * en fin d'index unique au lieu de le fragmenter.
+ * L'horodatage et le compteur tiennent dans un seul AtomicLong mis à jour par CAS ; le compteur démarre à une valeur
+ * aléatoire à chaque milliseconde et, s'il déborde, avance l'horodatage plutôt que de revenir en arrière
+ * (y compris si l'horloge recule). Seul l'objet UUID est alloué.
+ */
+@Component
+@ConditionalOnProperty(name = "identifier.generator", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedIdentifierGenerator implements IdentifierGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    // Le compteur démarre dans la première moitié de sa plage, pour laisser place aux incréments
+    private static final int COUNTER_START_MASK = (1 << (COUNTER_BITS - 1)) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    // Horodatage (ms) << 12 | compteur du dernier identifiant émis
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    @Override
+    public UUID next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long timestampAndCounter = nextTimestampAndCounter(System.currentTimeMillis(), random);
+        long mostSignificantBits = (timestampAndCounter >>> COUNTER_BITS) << 16
+                | VERSION
+                | (timestampAndCounter & ((1 << COUNTER_BITS) - 1));
+        long leastSignificantBits = VARIANT | (random.nextLong() & VARIANT_MASK);
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    private long nextTimestampAndCounter(long now, ThreadLocalRandom random) {
+        long fresh = now << COUNTER_BITS | (random.nextInt() & COUNTER_START_MASK);
+        while (true) {
+            long last = lastTimestampAndCounter.get();
+            long next = (last >>> COUNTER_BITS) < now ? fresh : last + 1;
+            if (lastTimestampAndCounter.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * @return L'horodatage en millisecondes d'un identifiant UUIDv7.
+     */
+    public static long timestamp(UUID identifier) {
+        return identifier.getMostSignificantBits() >>> 16;
+    }
+}
@@ -26,6 +26,11 @@ public class TournamentEntity {
     private Integer prizeMoney;
     @Column(name = "capacity", nullable = false)
     private Integer capacity;
+
+    // Incrémentée à chaque écriture de l'entité ; l'écriture d'une copie périmée échoue
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
     @ManyToMany(mappedBy = "tournaments", fetch = FetchType.EAGER)
     private Set<PlayerEntity> players = new HashSet<>();
     public TournamentEntity(){
@@ -44,6 +49,10 @@ public class TournamentEntity {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public UUID getIdentifier() {
         return identifier;
     }
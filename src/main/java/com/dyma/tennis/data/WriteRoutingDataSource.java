@@ -0,0 +1,43 @@
+package com.dyma.tennis.data;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Aiguille chaque demande de connexion vers l'un des deux pools : celui des écritures d'administration,
+ * pour le code exécuté dans {@link #writing(Callable)}, et celui de tout le reste (lectures, tâches de fond, démarrage).
+ * Les écritures ont ainsi leur propre budget de connexions : elles ne peuvent pas vider le pool des lectures, et inversement.
+ * Le pool est choisi à l'ouverture de la connexion : une transaction garde le sien jusqu'à sa fin.
+ */
+public class WriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String READ = "read";
+    private static final String WRITE = "write";
+
+    private static final ThreadLocal<Boolean> WRITING = new ThreadLocal<>();
+
+    WriteRoutingDataSource(DataSource readDataSource, DataSource writeDataSource) {
+        setTargetDataSources(Map.of(READ, readDataSource, WRITE, writeDataSource));
+        setDefaultTargetDataSource(readDataSource);
+    }
+
+    /**
+     * Exécute l'appel sur le thread courant avec les connexions du pool des écritures.
+     */
+    public static <T> T writing(Callable<T> call) throws Exception {
+        WRITING.set(Boolean.TRUE);
+        try {
+            return call.call();
+        } finally {
+            WRITING.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WRITING.get() == null ? READ : WRITE;
+    }
+}
@@ -0,0 +1,73 @@
+package com.dyma.tennis.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Expose les événements de log perdus (délestage, file pleine, échantillonnage) et le remplissage des files asynchrones.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    private final LoggerContext loggerContext;
+
+    public LoggingMetrics() {
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        this.loggerContext = loggerFactory instanceof LoggerContext context ? context : null;
+    }
+
+    LoggingMetrics(LoggerContext loggerContext) {
+        this.loggerContext = loggerContext;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        if (loggerContext == null) {
+            return;
+        }
+        loggerContext.getLoggerList().forEach(logger -> {
+            Iterator<Appender<ILoggingEvent>> appenders = logger.iteratorForAppenders();
+            while (appenders.hasNext()) {
+                if (appenders.next() instanceof MeteredAsyncAppender appender) {
+                    bindAppender(meterRegistry, appender);
+                }
+            }
+        });
+        for (TurboFilter turboFilter : loggerContext.getTurboFilterList()) {
+            if (turboFilter instanceof SamplingTurboFilter samplingFilter) {
+                FunctionCounter.builder("tennis.logging.events.sampled", samplingFilter, SamplingTurboFilter::getSampledOut)
+                        .description("Log events skipped by per-logger sampling")
+                        .tag("logger", samplingFilter.getLoggerName())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    private void bindAppender(MeterRegistry meterRegistry, MeteredAsyncAppender appender) {
+        FunctionCounter.builder("tennis.logging.events.dropped", appender, MeteredAsyncAppender::getDiscarded)
+                .description("Log events dropped by an asynchronous appender")
+                .tag("appender", appender.getName())
+                .tag("reason", "discarded")
+                .register(meterRegistry);
+        FunctionCounter.builder("tennis.logging.events.dropped", appender, MeteredAsyncAppender::getOverflowed)
+                .description("Log events dropped by an asynchronous appender")
+                .tag("appender", appender.getName())
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        Gauge.builder("tennis.logging.queue.remaining", appender, MeteredAsyncAppender::getRemainingCapacity)
+                .description("Free slots in the asynchronous appender queue")
+                .tag("appender", appender.getName())
+                .register(meterRegistry);
+    }
+}
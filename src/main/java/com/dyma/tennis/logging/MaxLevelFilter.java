@@ -0,0 +1,27 @@
+package com.dyma.tennis.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Refuse les événements plus graves que level : complément de ThresholdFilter pour router
+ * DEBUG/INFO et WARN/ERROR vers des appenders différents.
+ */
+public class MaxLevelFilter extends Filter<ILoggingEvent> {
+
+    private Level level = Level.INFO;
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (!isStarted()) {
+            return FilterReply.NEUTRAL;
+        }
+        return event.getLevel().toInt() > level.toInt() ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+}
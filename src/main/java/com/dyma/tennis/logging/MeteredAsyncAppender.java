@@ -0,0 +1,61 @@
+package com.dyma.tennis.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AsyncAppender qui compte les événements perdus, exposés par LoggingMetrics.
+ * Quand la file passe sous discardingThreshold, les événements de niveau inférieur ou égal à discardLevel
+ * sont abandonnés ; avec neverBlock, un événement qui ne trouve pas de place est abandonné au lieu de bloquer l'appelant.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private Level discardLevel = Level.INFO;
+
+    private final LongAdder discarded = new LongAdder();
+
+    private final LongAdder overflowed = new LongAdder();
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() <= discardLevel.toInt();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isQueueBelowDiscardingThreshold() && isDiscardable(event)) {
+            discarded.increment();
+            return;
+        }
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            overflowed.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    public Level getDiscardLevel() {
+        return discardLevel;
+    }
+
+    public void setDiscardLevel(Level discardLevel) {
+        this.discardLevel = discardLevel;
+    }
+
+    /**
+     * Événements abandonnés par la politique de délestage (file presque pleine).
+     */
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    /**
+     * Événements abandonnés faute de place dans la file (neverBlock).
+     */
+    public long getOverflowed() {
+        return overflowed.sum();
+    }
+}
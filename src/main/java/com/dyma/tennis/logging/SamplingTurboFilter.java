@@ -0,0 +1,77 @@
+package com.dyma.tennis.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ne garde qu'un événement sur sampleEvery pour un logger (et ses descendants), jusqu'au niveau level inclus.
+ * Le filtre intervient avant la création de l'événement : les lignes écartées ne coûtent ni formatage ni file d'attente.
+ * Les tests isXxxEnabled() (format null) ne sont pas échantillonnés.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String loggerName;
+
+    private Level level = Level.INFO;
+
+    private int sampleEvery = 1;
+
+    private final AtomicLong calls = new AtomicLong();
+
+    private final LongAdder sampledOut = new LongAdder();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || sampleEvery <= 1 || format == null
+                || level.toInt() > this.level.toInt() || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (calls.getAndIncrement() % sampleEvery == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        sampledOut.increment();
+        return FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (loggerName == null) {
+            addError("No loggerName set for sampling filter " + getName());
+            return;
+        }
+        super.start();
+    }
+
+    private boolean matches(String name) {
+        return name.equals(loggerName) || (name.startsWith(loggerName) && name.charAt(loggerName.length()) == '.');
+    }
+
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * Événements écartés par l'échantillonnage depuis le démarrage.
+     */
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+}
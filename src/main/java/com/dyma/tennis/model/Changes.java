@@ -0,0 +1,16 @@
+package com.dyma.tennis.model;
+
+import java.util.List;
+
+public record Changes(
+        long since,
+        // Version à passer en since à l'appel suivant
+        long highWaterMark,
+        // Vrai si d'autres changements suivent highWaterMark : rappeler immédiatement
+        boolean hasMore,
+        List<PlayerChange> players,
+        List<TournamentChange> tournaments,
+        List<RegistrationChange> registrations,
+        List<Deletion> deleted
+) {
+}
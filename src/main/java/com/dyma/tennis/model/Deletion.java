@@ -0,0 +1,14 @@
+package com.dyma.tennis.model;
+
+import java.util.UUID;
+
+public record Deletion(
+        long version,
+        // player, tournament ou registration
+        String type,
+        // Pour une inscription : le tournoi
+        UUID identifier,
+        // Pour une inscription : le joueur
+        UUID relatedIdentifier
+) {
+}
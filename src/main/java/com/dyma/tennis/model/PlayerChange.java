@@ -0,0 +1,7 @@
+package com.dyma.tennis.model;
+
+public record PlayerChange(
+        long version,
+        PlayerDescription player
+) {
+}
@@ -0,0 +1,9 @@
+package com.dyma.tennis.model;
+
+import java.util.UUID;
+
+public record RankedPlayer(
+        UUID identifier,
+        Rank rank
+) {
+}
@@ -0,0 +1,9 @@
+package com.dyma.tennis.model;
+
+import java.util.UUID;
+
+public record Registration(
+        UUID tournamentIdentifier,
+        UUID playerIdentifier
+) {
+}
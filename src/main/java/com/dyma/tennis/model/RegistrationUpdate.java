@@ -0,0 +1,12 @@
+package com.dyma.tennis.model;
+
+import java.util.UUID;
+
+public record RegistrationUpdate(
+        UUID tournamentIdentifier,
+        // Le dernier joueur inscrit
+        UUID playerIdentifier,
+        int registeredPlayers,
+        int remainingCapacity
+) {
+}
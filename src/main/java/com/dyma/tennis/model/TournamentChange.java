@@ -0,0 +1,7 @@
+package com.dyma.tennis.model;
+
+public record TournamentChange(
+        long version,
+        TournamentDescription tournament
+) {
+}
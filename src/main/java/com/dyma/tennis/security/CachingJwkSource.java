@@ -0,0 +1,186 @@
+package com.dyma.tennis.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source de clés JWKS gardée en mémoire et rafraîchie en tâche de fond.
+ * Les requêtes ne bloquent jamais sur Keycloak tant qu'une clé connue signe le token :
+ * le jeu de clés est rechargé périodiquement, avant son expiration, par un thread dédié.
+ * Le dernier jeu de clés valide est écrit sur disque pour démarrer sans Keycloak
+ * et continuer à valider les tokens pendant une panne.
+ */
+public class CachingJwkSource implements JWKSource<SecurityContext>, AutoCloseable {
+
+    private final Logger log = LoggerFactory.getLogger(CachingJwkSource.class);
+
+    private final Callable<JWKSet> loader;
+    private final Path cacheFile;
+    private final Duration refreshInterval;
+    private final Duration minForcedRefreshInterval;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+
+    // Jeu de clés courant, remplacé atomiquement à chaque rafraîchissement réussi
+    private volatile CachedKeys cachedKeys;
+
+    private final Object refreshLock = new Object();
+    private volatile Instant lastForcedRefresh = Instant.EPOCH;
+
+    public CachingJwkSource(Callable<JWKSet> loader, Path cacheFile, Duration refreshInterval, Duration minForcedRefreshInterval) {
+        this(loader, cacheFile, refreshInterval, minForcedRefreshInterval, Clock.systemUTC());
+    }
+
+    CachingJwkSource(Callable<JWKSet> loader, Path cacheFile, Duration refreshInterval, Duration minForcedRefreshInterval, Clock clock) {
+        this.loader = loader;
+        this.cacheFile = cacheFile;
+        this.refreshInterval = refreshInterval;
+        this.minForcedRefreshInterval = minForcedRefreshInterval;
+        this.clock = clock;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cachedKeys = readCacheFile();
+    }
+
+    /**
+     * Démarre le rafraîchissement périodique. Le premier chargement est immédiat
+     * mais asynchrone : le démarrage de l'application n'attend pas Keycloak.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        CachedKeys current = cachedKeys;
+        if (current != null) {
+            List<JWK> matches = jwkSelector.select(current.keys());
+            if (!matches.isEmpty()) {
+                return matches;
+            }
+        }
+        // Clé inconnue : rotation probable côté Keycloak, on recharge une fois de façon synchrone
+        CachedKeys refreshed = forceRefresh(current);
+        if (refreshed == null) {
+            throw new KeySourceException("No JWK set available, Keycloak couldn't be reached and no cached key set exists");
+        }
+        return jwkSelector.select(refreshed.keys());
+    }
+
+    /**
+     * Recharge le jeu de clés depuis Keycloak et le persiste sur disque.
+     *
+     * @return Le nouveau jeu de clés.
+     */
+    public JWKSet refresh() throws Exception {
+        JWKSet keys = loader.call();
+        cachedKeys = new CachedKeys(keys, clock.instant());
+        writeCacheFile(keys);
+        log.debug("JWK set refreshed with {} keys", keys.getKeys().size());
+        return keys;
+    }
+
+    /**
+     * @return L'instant du dernier chargement réussi, ou null si aucun jeu de clés n'est connu.
+     */
+    public Instant getLastRefresh() {
+        CachedKeys current = cachedKeys;
+        return current == null ? null : current.loadedAt();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // En cas de panne de Keycloak on continue de valider avec les clés en cache
+            CachedKeys current = cachedKeys;
+            if (current == null) {
+                log.warn("Couldn't load JWK set and no cached key set is available", e);
+            } else {
+                log.warn("Couldn't refresh JWK set, keeping keys loaded at {}", current.loadedAt(), e);
+            }
+        }
+    }
+
+    private CachedKeys forceRefresh(CachedKeys seen) {
+        synchronized (refreshLock) {
+            CachedKeys current = cachedKeys;
+            // Un autre thread a déjà rechargé les clés pendant l'attente du verrou
+            if (current != seen) {
+                return current;
+            }
+            Instant now = clock.instant();
+            if (Duration.between(lastForcedRefresh, now).compareTo(minForcedRefreshInterval) < 0) {
+                return current;
+            }
+            lastForcedRefresh = now;
+            refreshQuietly();
+            return cachedKeys;
+        }
+    }
+
+    private CachedKeys readCacheFile() {
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try {
+            JWKSet keys = JWKSet.parse(Files.readString(cacheFile, StandardCharsets.UTF_8));
+            Instant loadedAt = Files.getLastModifiedTime(cacheFile).toInstant();
+            log.info("Loaded {} cached JWKs from {}", keys.getKeys().size(), cacheFile);
+            return new CachedKeys(keys, loadedAt);
+        } catch (IOException | ParseException e) {
+            log.warn("Couldn't read cached JWK set from {}", cacheFile, e);
+            return null;
+        }
+    }
+
+    private void writeCacheFile(JWKSet keys) {
+        if (cacheFile == null) {
+            return;
+        }
+        try {
+            Path parent = cacheFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // Écriture dans un fichier temporaire puis déplacement pour ne jamais laisser un fichier tronqué
+            Path temporaryFile = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+            Files.writeString(temporaryFile, keys.toString(true), StandardCharsets.UTF_8);
+            Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Couldn't persist JWK set to {}", cacheFile, e);
+        }
+    }
+
+    private record CachedKeys(JWKSet keys, Instant loadedAt) {
+    }
+}
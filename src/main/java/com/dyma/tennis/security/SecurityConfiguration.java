@@ -1,14 +1,28 @@
 package com.dyma.tennis.security;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfiguration {
@@ -36,6 +50,7 @@ public class SecurityConfiguration {
                                 .requestMatchers("/v3/api-docs/**").permitAll()
                                 .requestMatchers("/accounts/token").permitAll()
                                 .requestMatchers("/healthcheck").permitAll()
+                                .requestMatchers("/actuator/health/liveness", "/actuator/health/readiness").permitAll()
                                 .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                                 .requestMatchers(HttpMethod.GET, "/players/**").hasAuthority("ROLE_USER")
                                 .requestMatchers(HttpMethod.POST, "/players/**").hasAuthority("ROLE_ADMIN")
@@ -45,6 +60,7 @@ public class SecurityConfiguration {
                                 .requestMatchers(HttpMethod.POST, "/tournaments/**").hasAuthority("ROLE_ADMIN")
                                 .requestMatchers(HttpMethod.PUT, "/tournaments/**").hasAuthority("ROLE_ADMIN")
                                 .requestMatchers(HttpMethod.DELETE, "/tournaments/**").hasAuthority("ROLE_ADMIN")
+                                .requestMatchers(HttpMethod.GET, "/changes").hasAuthority("ROLE_USER")
                                 .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -53,4 +69,36 @@ public class SecurityConfiguration {
                 );
         return http.build();
     }
+
+    /**
+     * Clés de Keycloak gardées en cache, rafraîchies en tâche de fond et persistées sur disque.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public CachingJwkSource jwkSource(
+            @Value("${spring.security.oauth2.resourceserver.jwk.set-uri}") URL jwkSetUri,
+            @Value("${jwt.auth.jwks.cache-file}") Path cacheFile,
+            @Value("${jwt.auth.jwks.refresh-interval}") Duration refreshInterval,
+            @Value("${jwt.auth.jwks.min-forced-refresh-interval}") Duration minForcedRefreshInterval) {
+        int timeoutMillis = 2000;
+        int sizeLimitBytes = 50 * 1024;
+        return new CachingJwkSource(
+                () -> JWKSet.load(jwkSetUri, timeoutMillis, timeoutMillis, sizeLimitBytes),
+                cacheFile,
+                refreshInterval,
+                minForcedRefreshInterval);
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(
+            JWKSource<SecurityContext> jwkSource,
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Les claims sont validés par Spring Security (expiration, émetteur), pas par Nimbus
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        jwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return jwtDecoder;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.model.Changes;
+import com.dyma.tennis.model.Deletion;
+import com.dyma.tennis.model.PlayerChange;
+import com.dyma.tennis.model.PlayerDescription;
+import com.dyma.tennis.model.Rank;
+import com.dyma.tennis.model.Registration;
+import com.dyma.tennis.model.RegistrationChange;
+import com.dyma.tennis.model.TournamentChange;
+import com.dyma.tennis.model.TournamentDescription;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Flux des changements depuis une version donnée, pour la synchronisation incrémentale des clients.
+ * Les joueurs, tournois et inscriptions créés ou modifiés sont relus avec leur version de changement,
+ * les suppressions viennent des pierres tombales. Les quatre lectures se font dans une même transaction
+ * REPEATABLE READ pour que la page soit cohérente. Seules les versions inférieures à la plus ancienne écriture
+ * encore en cours (change_in_flight, voir ChangeTracker) sont servies : celles au-delà peuvent encore être précédées
+ * par une ligne de version inférieure, pas encore validée.
+ * Un client part de since=0, applique la page, puis rappelle avec highWaterMark tant que hasMore est vrai.
+ */
+@Service
+public class ChangeFeed {
+
+    // Nombre maximum de changements renvoyés par page.
+    static final int MAX_LIMIT = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary pageSize;
+    private final Duration inFlightExpiry;
+
+    public ChangeFeed(DataSource dataSource, MeterRegistry meterRegistry,
+                      @Value("${change-feed.in-flight-expiry}") Duration inFlightExpiry) {
+        this.inFlightExpiry = inFlightExpiry;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate.setReadOnly(true);
+        this.pageSize = DistributionSummary.builder("tennis.changes.page")
+                .description("Changes returned per page of the change feed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Renvoie au plus limit changements de version strictement supérieure à since, par version croissante.
+     *
+     * @param since La dernière version déjà appliquée par le client, 0 pour une synchronisation complète.
+     * @param limit Le nombre maximum de changements, borné à MAX_LIMIT.
+     * @return Les changements et la version à passer à l'appel suivant.
+     */
+    public Changes since(long since, int limit) {
+        log.info("Invoking since with since={} and limit={}", since, limit);
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        // Une ligne de plus par table suffit à savoir s'il reste des changements après la page
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("since", since)
+                .addValue("limit", boundedLimit + 1)
+                .addValue("expiredBefore", Timestamp.from(Instant.now().minus(inFlightExpiry)));
+        Changes changes = transactionTemplate.execute(status -> page(since, boundedLimit, parameters));
+        pageSize.record(changes.players().size() + changes.tournaments().size()
+                + changes.registrations().size() + changes.deleted().size());
+        return changes;
+    }
+
+    private Changes page(long since, int limit, MapSqlParameterSource parameters) {
+        // Première lecture de la transaction : les écritures déclarées après cet instantané tirent des versions plus grandes
+        Long oldestInFlight = jdbcTemplate.queryForObject(
+                "select min(low_version) from change_in_flight where started_at >= :expiredBefore", parameters, Long.class);
+        parameters.addValue("before", oldestInFlight == null ? Long.MAX_VALUE : oldestInFlight);
+        List<PlayerChange> players = jdbcTemplate.query(
+                "select change_version, identifier, first_name, last_name, birth_date, rank, points from player "
+                        + "where change_version > :since and change_version < :before order by change_version limit :limit",
+                parameters, (resultSet, rowNum) -> new PlayerChange(resultSet.getLong("change_version"), new PlayerDescription(
+                        resultSet.getObject("identifier", UUID.class),
+                        resultSet.getString("first_name"),
+                        resultSet.getString("last_name"),
+                        resultSet.getDate("birth_date").toLocalDate(),
+                        new Rank(resultSet.getInt("rank"), resultSet.getInt("points")))));
+        List<TournamentChange> tournaments = jdbcTemplate.query(
+                "select change_version, identifier, name, start_date, end_date, prize_money, capacity from tournament "
+                        + "where change_version > :since and change_version < :before order by change_version limit :limit",
+                parameters, (resultSet, rowNum) -> new TournamentChange(resultSet.getLong("change_version"), new TournamentDescription(
+                        resultSet.getObject("identifier", UUID.class),
+                        resultSet.getString("name"),
+                        resultSet.getDate("start_date").toLocalDate(),
+                        resultSet.getDate("end_date").toLocalDate(),
+                        resultSet.getObject("prize_money", Integer.class),
+                        resultSet.getInt("capacity"))));
+        List<RegistrationChange> registrations = jdbcTemplate.query(
+                "select pt.change_version, t.identifier as tournament_identifier, p.identifier as player_identifier "
+                        + "from player_tournament pt "
+                        + "join tournament t on t.id = pt.tournament_id "
+                        + "join player p on p.id = pt.player_id "
+                        + "where pt.change_version > :since and pt.change_version < :before order by pt.change_version limit :limit",
+                parameters, (resultSet, rowNum) -> new RegistrationChange(resultSet.getLong("change_version"), new Registration(
+                        resultSet.getObject("tournament_identifier", UUID.class),
+                        resultSet.getObject("player_identifier", UUID.class))));
+        List<Deletion> deleted = jdbcTemplate.query(
+                "select change_version, entity_type, identifier, related_identifier from tombstone "
+                        + "where change_version > :since and change_version < :before order by change_version limit :limit",
+                parameters, (resultSet, rowNum) -> new Deletion(
+                        resultSet.getLong("change_version"),
+                        resultSet.getString("entity_type"),
+                        resultSet.getObject("identifier", UUID.class),
+                        resultSet.getObject("related_identifier", UUID.class)));
+
+        // Les limit plus petites versions, toutes tables confondues
+        List<Long> versions = new ArrayList<>();
+        players.forEach(change -> versions.add(change.version()));
+        tournaments.forEach(change -> versions.add(change.version()));
+        registrations.forEach(change -> versions.add(change.version()));
+        deleted.forEach(deletion -> versions.add(deletion.version()));
+        versions.sort(null);
+        if (versions.isEmpty()) {
+            return new Changes(since, since, false, List.of(), List.of(), List.of(), List.of());
+        }
+        boolean hasMore = versions.size() > limit;
+        long highWaterMark = versions.get(Math.min(limit, versions.size()) - 1);
+        return new Changes(since, highWaterMark, hasMore,
+                players.stream().filter(change -> change.version() <= highWaterMark).toList(),
+                tournaments.stream().filter(change -> change.version() <= highWaterMark).toList(),
+                registrations.stream().filter(change -> change.version() <= highWaterMark).toList(),
+                deleted.stream().filter(deletion -> deletion.version() <= highWaterMark).toList());
+    }
+}
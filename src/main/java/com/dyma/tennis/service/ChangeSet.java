@@ -0,0 +1,92 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.model.Registration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Effets d'une écriture, déclarés par le service et enregistrés par ChangeTracker dans la même transaction :
+ * lignes créées ou modifiées (nouvelle version), suppressions (pierres tombales) et joueurs dont la vue est à réécrire.
+ */
+public class ChangeSet {
+
+    private final Set<UUID> players = new LinkedHashSet<>();
+    private final Set<UUID> tournaments = new LinkedHashSet<>();
+    private final List<Registration> registrations = new ArrayList<>();
+    private final Set<UUID> deletedPlayers = new LinkedHashSet<>();
+    private final Set<UUID> deletedTournaments = new LinkedHashSet<>();
+    private final List<Registration> deletedRegistrations = new ArrayList<>();
+    private final Set<UUID> viewPlayers = new LinkedHashSet<>();
+
+    public ChangeSet player(UUID identifier) {
+        players.add(identifier);
+        viewPlayers.add(identifier);
+        return this;
+    }
+
+    public ChangeSet playerDeleted(UUID identifier) {
+        deletedPlayers.add(identifier);
+        viewPlayers.add(identifier);
+        return this;
+    }
+
+    /**
+     * @param registeredPlayers Les joueurs inscrits, dont la vue recopie le tournoi.
+     */
+    public ChangeSet tournament(UUID identifier, Collection<UUID> registeredPlayers) {
+        tournaments.add(identifier);
+        viewPlayers.addAll(registeredPlayers);
+        return this;
+    }
+
+    public ChangeSet tournamentDeleted(UUID identifier, Collection<UUID> registeredPlayers) {
+        deletedTournaments.add(identifier);
+        viewPlayers.addAll(registeredPlayers);
+        return this;
+    }
+
+    public ChangeSet registration(UUID tournamentIdentifier, UUID playerIdentifier) {
+        registrations.add(new Registration(tournamentIdentifier, playerIdentifier));
+        viewPlayers.add(playerIdentifier);
+        return this;
+    }
+
+    public ChangeSet registrationDeleted(UUID tournamentIdentifier, UUID playerIdentifier) {
+        deletedRegistrations.add(new Registration(tournamentIdentifier, playerIdentifier));
+        viewPlayers.add(playerIdentifier);
+        return this;
+    }
+
+    Set<UUID> players() {
+        return players;
+    }
+
+    Set<UUID> tournaments() {
+        return tournaments;
+    }
+
+    List<Registration> registrations() {
+        return registrations;
+    }
+
+    Set<UUID> deletedPlayers() {
+        return deletedPlayers;
+    }
+
+    Set<UUID> deletedTournaments() {
+        return deletedTournaments;
+    }
+
+    List<Registration> deletedRegistrations() {
+        return deletedRegistrations;
+    }
+
+    Set<UUID> viewPlayers() {
+        return viewPlayers;
+    }
+}
@@ -0,0 +1,178 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.data.PlayerRepository;
+import com.dyma.tennis.model.Registration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Exécute les écritures des services dans une transaction qui enregistre aussi leurs effets :
+ * nouvelle version de changement (change_version_seq) sur chaque ligne écrite, pierre tombale pour chaque suppression,
+ * et réécriture des lignes de la vue des joueurs touchées.
+ * Les transactions d'écriture s'exécutent en parallèle et peuvent donc être validées dans le désordre de leurs versions.
+ * Chacune se déclare d'abord dans change_in_flight, dans une transaction courte validée à part, avec une version
+ * tirée avant toutes les siennes, et s'en retire une fois terminée. ChangeFeed ne sert que les versions inférieures
+ * à la plus ancienne déclaration : un client qui a lu jusqu'à une version ne voit jamais apparaître plus tard
+ * une ligne de version inférieure. Une déclaration plus vieille que change-feed.in-flight-expiry (instance arrêtée
+ * en pleine écriture) est ignorée.
+ */
+@Component
+public class ChangeTracker {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(ChangeTracker.class);
+
+    private final PlayerRepository playerRepository;
+    private final PlayerViewTable playerViewTable;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // Déclarations validées à part, même appelées depuis une transaction en cours
+    private final TransactionTemplate inFlightTemplate;
+    private final Duration inFlightExpiry;
+    private final Timer inFlightOpen;
+
+    public ChangeTracker(PlayerRepository playerRepository, PlayerViewTable playerViewTable, DataSource dataSource,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                         @Value("${change-feed.in-flight-expiry}") Duration inFlightExpiry) {
+        this.playerRepository = playerRepository;
+        this.playerViewTable = playerViewTable;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inFlightTemplate = new TransactionTemplate(transactionManager);
+        this.inFlightTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.inFlightExpiry = inFlightExpiry;
+        this.inFlightOpen = Timer.builder("tennis.changes.in-flight.open")
+                .description("Time spent declaring a write transaction in flight before writing")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Exécute une écriture JPA et enregistre ses effets, dans une même transaction.
+     *
+     * @param write   L'écriture.
+     * @param changes Déclare les effets de l'écriture, d'après son résultat.
+     * @return Le résultat de l'écriture.
+     */
+    public <T> T write(Supplier<T> write, BiConsumer<T, ChangeSet> changes) {
+        // Déclarée avant la transaction : pas de seconde connexion tenue pendant l'écriture
+        long lowVersion = openInFlight();
+        try {
+            return transactionTemplate.execute(status -> {
+                T result = write.get();
+                // Les versions et la vue sont écrites en SQL : les modifications encore en mémoire doivent être écrites avant
+                playerRepository.flush();
+                ChangeSet changeSet = new ChangeSet();
+                changes.accept(result, changeSet);
+                record(changeSet);
+                if (playerViewTable.isEnabled()) {
+                    playerViewTable.refresh(changeSet.viewPlayers());
+                }
+                return result;
+            });
+        } finally {
+            closeInFlight(lowVersion);
+        }
+    }
+
+    /**
+     * Déclare la transaction en cours comme écrivain de versions jusqu'à sa fin.
+     * À appeler dans une transaction qui tire des versions hors de write(), comme le recalcul du classement,
+     * avant de tirer la première : la déclaration prend brièvement une seconde connexion.
+     */
+    public void declareInFlight() {
+        long lowVersion = openInFlight();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                closeInFlight(lowVersion);
+            }
+        });
+    }
+
+    private long openInFlight() {
+        return inFlightOpen.record(() -> inFlightTemplate.execute(status -> {
+            // Version tirée et déclarée en une seule requête, relue par les clés générées
+            GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.getJdbcTemplate().update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "insert into change_in_flight(low_version, started_at) values (nextval('change_version_seq'), ?)",
+                        new String[]{"low_version"});
+                statement.setTimestamp(1, Timestamp.from(Instant.now()));
+                return statement;
+            }, keyHolder);
+            return keyHolder.getKeyAs(Long.class);
+        }));
+    }
+
+    private void closeInFlight(long lowVersion) {
+        try {
+            // Purge au passage les déclarations expirées d'une instance arrêtée en pleine écriture
+            inFlightTemplate.executeWithoutResult(status -> jdbcTemplate.getJdbcTemplate().update(
+                    "delete from change_in_flight where low_version = ? or started_at < ?",
+                    lowVersion, Timestamp.from(Instant.now().minus(inFlightExpiry))));
+        } catch (DataAccessException e) {
+            // La déclaration expirera : le flux des changements reste bloqué à cette version jusque-là
+            log.warn("Couldn't remove in-flight declaration {}, change feed held back until it expires", lowVersion, e);
+        }
+    }
+
+    private void record(ChangeSet changeSet) {
+        stamp("update player set change_version = nextval('change_version_seq') where identifier in (:identifiers)",
+                changeSet.players());
+        stamp("update tournament set change_version = nextval('change_version_seq') where identifier in (:identifiers)",
+                changeSet.tournaments());
+        jdbcTemplate.getJdbcTemplate().batchUpdate("update player_tournament set change_version = nextval('change_version_seq') "
+                        + "where tournament_id = (select id from tournament where identifier = ?) "
+                        + "and player_id = (select id from player where identifier = ?)",
+                changeSet.registrations(), BATCH_SIZE, (statement, registration) -> {
+                    statement.setObject(1, registration.tournamentIdentifier());
+                    statement.setObject(2, registration.playerIdentifier());
+                });
+
+        // Les inscriptions disparaissent avant le joueur ou le tournoi qui les portait
+        List<Object[]> tombstones = new ArrayList<>();
+        for (Registration registration : changeSet.deletedRegistrations()) {
+            tombstones.add(new Object[]{"registration", registration.tournamentIdentifier(), registration.playerIdentifier()});
+        }
+        changeSet.deletedPlayers().forEach(identifier -> tombstones.add(new Object[]{"player", identifier, null}));
+        changeSet.deletedTournaments().forEach(identifier -> tombstones.add(new Object[]{"tournament", identifier, null}));
+        if (!tombstones.isEmpty()) {
+            jdbcTemplate.getJdbcTemplate().batchUpdate("insert into tombstone(change_version, entity_type, identifier, related_identifier) "
+                    + "values (nextval('change_version_seq'), ?, ?, ?)", tombstones);
+        }
+    }
+
+    private void stamp(String sql, Collection<UUID> identifiers) {
+        List<UUID> all = List.copyOf(identifiers);
+        for (int from = 0; from < all.size(); from += BATCH_SIZE) {
+            jdbcTemplate.update(sql, new MapSqlParameterSource("identifiers", all.subList(from, Math.min(from + BATCH_SIZE, all.size()))));
+        }
+    }
+}
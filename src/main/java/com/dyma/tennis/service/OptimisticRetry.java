@@ -0,0 +1,70 @@
+package com.dyma.tennis.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Rejoue une lecture-modification-écriture quand l'entité a été modifiée entre-temps par un autre écrivain
+ * (conflit de version détecté par le verrouillage optimiste).
+ * L'opération est relue depuis la base à chaque tentative, après une courte attente aléatoire croissante ;
+ * au-delà de maxAttempts, le conflit est propagé.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final long BASE_BACKOFF_MILLIS = 5;
+
+    private final Logger log = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private final int maxAttempts;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> conflicts = new ConcurrentHashMap<>();
+
+    public OptimisticRetry(@Value("${optimistic-retry.max-attempts}") int maxAttempts, MeterRegistry meterRegistry) {
+        this.maxAttempts = maxAttempts;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T run(String operation, Supplier<T> readModifyWrite) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return readModifyWrite.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up {} after {} conflicting attempts", operation, attempt);
+                    conflicts(operation, "exhausted").increment();
+                    throw e;
+                }
+                log.debug("Conflicting write on {}, retrying (attempt {})", operation, attempt);
+                conflicts(operation, "retried").increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS << attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Counter conflicts(String operation, String outcome) {
+        return conflicts.computeIfAbsent(operation + '|' + outcome, key -> Counter.builder("tennis.optimistic-lock.conflicts")
+                .description("Writes that hit a concurrent modification")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
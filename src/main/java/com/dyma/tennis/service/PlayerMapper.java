@@ -5,6 +5,7 @@ import com.dyma.tennis.model.Player;
 import com.dyma.tennis.model.PlayerDescription;
 import com.dyma.tennis.model.Rank;
 import com.dyma.tennis.model.TournamentDescription;
+import com.dyma.tennis.timing.ServerTiming;
 import org.springframework.stereotype.Component;
 
 import java.util.Set;
@@ -13,7 +14,11 @@ import java.util.stream.Collectors;
 @Component
 public class PlayerMapper {
 
-    public Player playerEntityToPlayer(PlayerEntity playerEntity){
+    public Player playerEntityToPlayer(PlayerEntity playerEntity) {
+        return ServerTiming.time(ServerTiming.Phase.MAP, () -> map(playerEntity));
+    }
+
+    private Player map(PlayerEntity playerEntity){
         PlayerDescription description = new PlayerDescription(
                 playerEntity.getIdentifier(),
                 playerEntity.getFirstName(),
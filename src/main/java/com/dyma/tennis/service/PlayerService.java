@@ -4,6 +4,10 @@ import com.dyma.tennis.model.Player;
 import com.dyma.tennis.model.PlayerToCreate;
 import com.dyma.tennis.model.PlayerToUpdate;
 import com.dyma.tennis.model.Rank;
+import com.dyma.tennis.model.RankedPlayer;
+import com.dyma.tennis.data.ChangeNotification;
+import com.dyma.tennis.data.ChangeNotifier;
+import com.dyma.tennis.data.IdentifierGenerator;
 import com.dyma.tennis.data.PlayerEntity;
 import com.dyma.tennis.data.PlayerRepository;
 import org.slf4j.Logger;
@@ -27,6 +31,9 @@ import java.util.stream.Collectors;
 @Service
 public class PlayerService {
 
+    // Nombre maximum de joueurs renvoyés par une requête par rangs.
+    static final int MAX_RANK_RANGE = 1000;
+
     // Logger pour capturer les événements et erreurs dans le service.
     private final Logger log = LoggerFactory.getLogger(PlayerService.class);
 
@@ -37,11 +44,51 @@ public class PlayerService {
     @Autowired
     private final PlayerMapper playerMapper;
 
-    // Constructeur pour injecter le PlayerRepository, PlayerMapper.
-    public PlayerService(PlayerRepository playerRepository, PlayerMapper playerMapper) {
+    @Autowired
+    private final ServiceMetrics serviceMetrics;
+
+    @Autowired
+    private final ReadModel readModel;
+
+    @Autowired
+    private final RankingTable rankingTable;
+
+    @Autowired
+    private final ChangeNotifier changeNotifier;
+
+    @Autowired
+    private final RankingRecompute rankingRecompute;
+
+    @Autowired
+    private final OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private final IdentifierGenerator identifierGenerator;
+
+    @Autowired
+    private final PlayerView playerView;
+
+    @Autowired
+    private final ChangeTracker changeTracker;
+
+    // Constructeur pour injecter le PlayerRepository, PlayerMapper, ServiceMetrics, ReadModel, RankingTable, ChangeNotifier,
+    // RankingRecompute, OptimisticRetry, IdentifierGenerator, PlayerView, ChangeTracker.
+    public PlayerService(PlayerRepository playerRepository, PlayerMapper playerMapper, ServiceMetrics serviceMetrics,
+                         ReadModel readModel, RankingTable rankingTable, ChangeNotifier changeNotifier,
+                         RankingRecompute rankingRecompute, OptimisticRetry optimisticRetry, IdentifierGenerator identifierGenerator,
+                         PlayerView playerView, ChangeTracker changeTracker) {
 
         this.playerRepository = playerRepository;
         this.playerMapper = playerMapper;
+        this.serviceMetrics = serviceMetrics;
+        this.readModel = readModel;
+        this.rankingTable = rankingTable;
+        this.changeNotifier = changeNotifier;
+        this.rankingRecompute = rankingRecompute;
+        this.optimisticRetry = optimisticRetry;
+        this.identifierGenerator = identifierGenerator;
+        this.playerView = playerView;
+        this.changeTracker = changeTracker;
     }
 
     /**
@@ -50,18 +97,61 @@ public class PlayerService {
      * @return Une liste de joueurs triés.
      */
     public List<Player> getAllPlayers() {
-        log.info("Invoking getAllPlayers()");
-        try {
-            // Conversion des entités PlayerEntity en objets Player, triés par position.
-            return playerRepository.findAll().stream()
-                    .map(playerMapper::playerEntityToPlayer)
-                    .sorted(Comparator.comparing(player -> player.info().rank().position()))
-                    .collect(Collectors.toList());
-        } catch (DataAccessException e) {
-            log.error("Couldn't retrieve players", e);
-            throw new PlayerDataRetrievalException(e);
-        }
+        return serviceMetrics.time("player.getAll", () -> {
+            log.info("Invoking getAllPlayers()");
+            ReadModel.Snapshot snapshot = readModel.snapshot();
+            if (snapshot != null) {
+                return snapshot.playersByRank();
+            }
+            try {
+                if (playerView.isEnabled()) {
+                    // Un seul parcours de player_view, déjà triée par rang
+                    return playerView.findAll();
+                }
+                // Conversion des entités PlayerEntity en objets Player, triés par position.
+                return playerRepository.findAll().stream()
+                        .map(playerMapper::playerEntityToPlayer)
+                        .sorted(Comparator.comparing(player -> player.info().rank().position()))
+                        .collect(Collectors.toList());
+            } catch (DataAccessException e) {
+                log.error("Couldn't retrieve players", e);
+                throw new PlayerDataRetrievalException(e);
+            }
+        });
+    }
 
+    /**
+     * Récupère les joueurs classés entre deux rangs inclus, depuis la table de classement en mémoire.
+     * Au plus MAX_RANK_RANGE joueurs sont renvoyés.
+     *
+     * @param rankFrom Le premier rang.
+     * @param rankTo   Le dernier rang.
+     * @return Les identifiants, rangs et points des joueurs, par rang croissant.
+     */
+    public List<RankedPlayer> getByRankRange(int rankFrom, int rankTo) {
+        return serviceMetrics.time("player.getByRankRange", () -> {
+            log.info("Invoking getByRankRange with rankFrom={} and rankTo={}", rankFrom, rankTo);
+            int boundedRankTo = (int) Math.min(rankTo, (long) rankFrom + MAX_RANK_RANGE - 1);
+            return rankingTable.range(rankFrom, boundedRankTo);
+        });
+    }
+
+    /**
+     * Récupère le rang d'un joueur depuis la table de classement en mémoire.
+     *
+     * @param identifier L'identifiant unique du joueur.
+     * @return Le rang et les points du joueur.
+     */
+    public Rank getRank(UUID identifier) {
+        return serviceMetrics.time("player.getRank", () -> {
+            log.info("Invoking getRank with identifier={}", identifier);
+            Rank rank = rankingTable.rankOf(identifier);
+            if (rank == null) {
+                log.warn("Couldn't find rank of player with identifier={}", identifier);
+                throw new PlayerNotFoundException(identifier);
+            }
+            return rank;
+        });
     }
 
     /**
@@ -71,20 +161,37 @@ public class PlayerService {
      * @return Le joueur correspondant.
      */
     public Player getByIdentifier(UUID identifier) {
-        log.info("Invoking getByIdentifier with identifier={}", identifier);
-        try {
-            // Recherche du joueur dans la base de données.
-            Optional<PlayerEntity> player = playerRepository.findOneByIdentifier(identifier);
-            if (player.isEmpty()) {
-                log.warn("Couldn't find player with identifier={}", identifier);
-                throw new PlayerNotFoundException(identifier);
+        return serviceMetrics.time("player.getByIdentifier", () -> {
+            log.info("Invoking getByIdentifier with identifier={}", identifier);
+            ReadModel.Snapshot snapshot = readModel.snapshot();
+            if (snapshot != null) {
+                Player player = snapshot.playersByIdentifier().get(identifier);
+                if (player == null) {
+                    log.warn("Couldn't find player with identifier={}", identifier);
+                    throw new PlayerNotFoundException(identifier);
+                }
+                return player;
+            }
+            try {
+                if (playerView.isEnabled()) {
+                    return playerView.findOne(identifier).orElseThrow(() -> {
+                        log.warn("Couldn't find player with identifier={}", identifier);
+                        return new PlayerNotFoundException(identifier);
+                    });
+                }
+                // Recherche du joueur dans la base de données.
+                Optional<PlayerEntity> player = playerRepository.findOneByIdentifier(identifier);
+                if (player.isEmpty()) {
+                    log.warn("Couldn't find player with identifier={}", identifier);
+                    throw new PlayerNotFoundException(identifier);
+                }
+                // Conversion de PlayerEntity en Player.
+                return playerMapper.playerEntityToPlayer(player.get());
+            } catch (DataAccessException e) {
+                log.error("Couldn't find player with identifer={}", identifier, e);
+                throw new PlayerDataRetrievalException(e);
             }
-            // Conversion de PlayerEntity en Player.
-            return playerMapper.playerEntityToPlayer(player.get());
-        } catch (DataAccessException e) {
-            log.error("Couldn't find player with identifer={}", identifier, e);
-            throw new PlayerDataRetrievalException(e);
-        }
+        });
     }
 
     /**
@@ -95,48 +202,52 @@ public class PlayerService {
      * @return Le joueur nouvellement créé.
      */
     public Player create(PlayerToCreate playerToCreate) {
-        log.info("Invoking create with playerToCreate={}", playerToCreate);
-        //Vérifier que le joueur n'existe pas
-        try {
-            // Vérification de l'existence du joueur dans la base de données.
-            Optional<PlayerEntity> player = playerRepository.findOneByFirstNameIgnoreCaseAndLastNameIgnoreCaseAndBirthDate(
-                    playerToCreate.firstName(), playerToCreate.lastName(), playerToCreate.birthDate());
-            if (player.isPresent()) {
-                log.warn("Player to create with firstName={} and lastName={} and birthDate={} exist already",
+        return serviceMetrics.time("player.create", () -> {
+            log.info("Invoking create with playerToCreate={}", playerToCreate);
+            //Vérifier que le joueur n'existe pas
+            try {
+                // Vérification de l'existence du joueur dans la base de données.
+                Optional<PlayerEntity> player = playerRepository.findOneByFirstNameIgnoreCaseAndLastNameIgnoreCaseAndBirthDate(
                         playerToCreate.firstName(), playerToCreate.lastName(), playerToCreate.birthDate());
-                throw new PlayerAlreadyExistsException(playerToCreate.firstName(), playerToCreate.lastName(), playerToCreate.birthDate());
+                if (player.isPresent()) {
+                    log.warn("Player to create with firstName={} and lastName={} and birthDate={} exist already",
+                            playerToCreate.firstName(), playerToCreate.lastName(), playerToCreate.birthDate());
+                    serviceMetrics.countDuplicateRejection("player.create");
+                    throw new PlayerAlreadyExistsException(playerToCreate.firstName(), playerToCreate.lastName(), playerToCreate.birthDate());
+                }
+
+                // Création d'une nouvelle entité PlayerEntity.
+                PlayerEntity playerToRegister= new PlayerEntity(
+                        identifierGenerator.next(),
+                        playerToCreate.lastName(),
+                        playerToCreate.firstName(),
+                        playerToCreate.birthDate(),
+                        playerToCreate.points(),
+                        999999999);
+
+                /**
+                 *      Le service enregistre le nouveau joueur
+                 *      RankingCalculator : recalculer le classement
+                 *      PlayerRepository : Mettre à jour les joueurs
+                 *      GetByLastName retourne le joueur créé
+                 */
+
+                // Enregistrement du joueur dans la base de données, avec sa version de changement et sa ligne de vue.
+                PlayerEntity registeredPlayer = changeTracker.write(() -> playerRepository.save(playerToRegister),
+                        (savedPlayer, changes) -> changes.player(savedPlayer.getIdentifier()));
+
+                // Recalcule le classement des joueurs après l'ajout.
+                updateRanking("player.create");
+                readModel.refresh();
+                changeNotifier.publish(ChangeNotification.PLAYER, registeredPlayer.getIdentifier());
+
+                // Retourne le joueur nouvellement créé.
+                return this.getByIdentifier(registeredPlayer.getIdentifier());
+            } catch (DataAccessException e) {
+                log.error("Could not create player={}", playerToCreate, e);
+                throw new PlayerDataRetrievalException(e);
             }
-
-            // Création d'une nouvelle entité PlayerEntity.
-            PlayerEntity playerToRegister= new PlayerEntity(
-                    UUID.randomUUID(),
-                    playerToCreate.lastName(),
-                    playerToCreate.firstName(),
-                    playerToCreate.birthDate(),
-                    playerToCreate.points(),
-                    999999999);
-
-            /**
-             *      Le service enregistre le nouveau joueur
-             *      RankingCalculator : recalculer le classement
-             *      PlayerRepository : Mettre à jour les joueurs
-             *      GetByLastName retourne le joueur créé
-             */
-
-            // Enregistrement du joueur dans la base de données.
-            PlayerEntity registeredPlayer = playerRepository.save(playerToRegister);
-
-            // Recalcule le classement des joueurs après l'ajout.
-            RankingCalculator rankingCalculator = new RankingCalculator(playerRepository.findAll());
-            List<PlayerEntity> newRanking = rankingCalculator.getNewPlayersRanking();
-            playerRepository.saveAll(newRanking);
-
-            // Retourne le joueur nouvellement créé.
-            return this.getByIdentifier(registeredPlayer.getIdentifier());
-        } catch (DataAccessException e) {
-            log.error("Could not create player={}", playerToCreate, e);
-            throw new PlayerDataRetrievalException(e);
-        }
+        });
     }
 
 
@@ -147,41 +258,46 @@ public class PlayerService {
      * @return Le joueur mis à jour.
      */
     public Player update(PlayerToUpdate playerToUpdate) {
-        log.info("Invoking update with playerToUpdate={}", playerToUpdate);
-        try {
-            // Recherche du joueur existant.
-            Optional<PlayerEntity> existingPlayer= playerRepository.findOneByIdentifier(playerToUpdate.identifier());
-            if (existingPlayer.isEmpty()) {
-                log.warn("Couldn't find player to update with identifier={}", playerToUpdate.identifier());
-                throw new PlayerNotFoundException(playerToUpdate.identifier());
+        return serviceMetrics.time("player.update", () -> {
+            log.info("Invoking update with playerToUpdate={}", playerToUpdate);
+            try {
+                // Lecture, vérifications et écriture rejouées si le joueur a été modifié entre-temps.
+                PlayerEntity updatedPlayer = optimisticRetry.run("player.update", () -> changeTracker.write(() -> {
+                    // Recherche du joueur existant.
+                    Optional<PlayerEntity> existingPlayer= playerRepository.findOneByIdentifier(playerToUpdate.identifier());
+                    if (existingPlayer.isEmpty()) {
+                        log.warn("Couldn't find player to update with identifier={}", playerToUpdate.identifier());
+                        throw new PlayerNotFoundException(playerToUpdate.identifier());
+                    }
+
+                    //Vérification des doublons potentiels avec d'autres joueurs.
+                    Optional<PlayerEntity> potentiallyDuplicatedPlayer = playerRepository.findOneByFirstNameIgnoreCaseAndLastNameIgnoreCaseAndBirthDate(playerToUpdate.firstName(), playerToUpdate.lastName(), playerToUpdate.birthDate());
+                    if(potentiallyDuplicatedPlayer.isPresent() && !potentiallyDuplicatedPlayer.get().getIdentifier().equals(playerToUpdate.identifier())){
+                        log.warn("Player to update with firstName={} lastName={} and birthDate={} already exists ", playerToUpdate.firstName(), playerToUpdate.lastName(), playerToUpdate.birthDate());
+                        serviceMetrics.countDuplicateRejection("player.update");
+                        throw new PlayerAlreadyExistsException(playerToUpdate.firstName(), playerToUpdate.lastName(), playerToUpdate.birthDate());
+                    }
+
+                    // Mise à jour des informations du joueur.
+                    existingPlayer.get().setFirstName(playerToUpdate.firstName());
+                    existingPlayer.get().setLastName(playerToUpdate.lastName());
+                    existingPlayer.get().setBirthDate(playerToUpdate.birthDate());
+                    existingPlayer.get().setPoints(playerToUpdate.points());
+                    return playerRepository.save(existingPlayer.get());
+                }, (savedPlayer, changes) -> changes.player(savedPlayer.getIdentifier())));
+
+                // Recalcule et met à jour les classements.
+                updateRanking("player.update");
+                readModel.refresh();
+                changeNotifier.publish(ChangeNotification.PLAYER, updatedPlayer.getIdentifier());
+
+                // Retourne le joueur mis à jour.
+                return getByIdentifier(updatedPlayer.getIdentifier());
+            } catch (DataAccessException e) {
+                log.error("Couldn't update player {}", playerToUpdate, e);
+                throw new PlayerDataRetrievalException(e);
             }
-
-            //Vérification des doublons potentiels avec d'autres joueurs.
-            Optional<PlayerEntity> potentiallyDuplicatedPlayer = playerRepository.findOneByFirstNameIgnoreCaseAndLastNameIgnoreCaseAndBirthDate(playerToUpdate.firstName(), playerToUpdate.lastName(), playerToUpdate.birthDate());
-            if(potentiallyDuplicatedPlayer.isPresent() && !potentiallyDuplicatedPlayer.get().getIdentifier().equals(playerToUpdate.identifier())){
-                log.warn("Player to update with firstName={} lastName={} and birthDate={} already exists ", playerToUpdate.firstName(), playerToUpdate.lastName(), playerToUpdate.birthDate());
-                throw new PlayerAlreadyExistsException(playerToUpdate.firstName(), playerToUpdate.lastName(), playerToUpdate.birthDate());
-            }
-
-            // Mise à jour des informations du joueur.
-            existingPlayer.get().setFirstName(playerToUpdate.firstName());
-            existingPlayer.get().setLastName(playerToUpdate.lastName());
-            existingPlayer.get().setBirthDate(playerToUpdate.birthDate());
-            existingPlayer.get().setPoints(playerToUpdate.points());
-            PlayerEntity updatedPlayer = playerRepository.save(existingPlayer.get());
-
-            // Recalcule et met à jour les classements.
-            RankingCalculator rankingCalculator = new RankingCalculator(playerRepository.findAll());
-            List<PlayerEntity> newRanking = rankingCalculator.getNewPlayersRanking();
-            playerRepository.saveAll(newRanking);
-
-            // Retourne le joueur mis à jour.
-            return getByIdentifier(updatedPlayer.getIdentifier());
-        } catch (DataAccessException e) {
-            log.error("Couldn't update player {}", playerToUpdate, e);
-            throw new PlayerDataRetrievalException(e);
-        }
-
+        });
     }
 
     /**
@@ -195,25 +311,68 @@ public class PlayerService {
      */
 
     public void delete(UUID identifier) {
-        log.info("Invoking delete with identifier={}", identifier);
-        try {
-            Optional<PlayerEntity> playerDelete = playerRepository.findOneByIdentifier(identifier);
-            if (playerDelete.isEmpty()) {
-                log.warn("Couldn't find player to delete with identifier={}", identifier);
-                throw new PlayerNotFoundException(identifier);
+        serviceMetrics.run("player.delete", () -> {
+            log.info("Invoking delete with identifier={}", identifier);
+            try {
+                optimisticRetry.run("player.delete", () -> changeTracker.write(() -> {
+                    Optional<PlayerEntity> playerDelete = playerRepository.findOneByIdentifier(identifier);
+                    if (playerDelete.isEmpty()) {
+                        log.warn("Couldn't find player to delete with identifier={}", identifier);
+                        throw new PlayerNotFoundException(identifier);
+                    }
+
+                    playerRepository.delete(playerDelete.get());
+                    return playerDelete.get();
+                }, (deletedPlayer, changes) -> {
+                    // Les inscriptions du joueur sont supprimées avec lui
+                    deletedPlayer.getTournaments().forEach(tournament -> changes.registrationDeleted(tournament.getIdentifier(), identifier));
+                    changes.playerDeleted(identifier);
+                }));
+
+                updateRanking("player.delete");
+                readModel.refresh();
+                changeNotifier.publish(ChangeNotification.PLAYER, identifier);
+            } catch (DataAccessException e) {
+                log.error("Couldn't delete player with identifier={}", identifier, e);
+                throw new PlayerDataRetrievalException(e);
             }
-
-            playerRepository.delete(playerDelete.get());
-
-            RankingCalculator rankingCalculator = new RankingCalculator(playerRepository.findAll());
-            List<PlayerEntity> newRanking = rankingCalculator.getNewPlayersRanking();
-            playerRepository.saveAll(newRanking);
-        } catch (DataAccessException e) {
-            log.error("Couldn't delete player with identifier={}", identifier, e);
-            throw new PlayerDataRetrievalException(e);
-        }
-
+        });
     }
 
+    /**
+     * Recalcule le classement de tous les joueurs et l'enregistre, un seul recalcul à la fois dans le cluster
+     * (voir RankingRecompute) : si un recalcul démarré après l'écriture est en cours, il est attendu au lieu d'être relancé.
+     * Seuls les rangs sont écrits : les points, noms et versions modifiés par une mise à jour concurrente sont préservés,
+     * et cette mise à jour déclenche elle-même un nouveau recalcul.
+     * Chaque phase (chargement, tri, écriture) est mesurée séparément et le recalcul complet est émis en événement JFR.
+     *
+     * @param operation L'opération qui a déclenché le recalcul.
+     */
+    private void updateRanking(String operation) {
+        rankingRecompute.run(operation, () -> recomputeRanking(operation));
+    }
 
+    /**
+     * @return Le nouveau classement, publié dans RankingTable par RankingRecompute une fois la transaction validée.
+     */
+    private List<PlayerEntity> recomputeRanking(String operation) {
+        RankingRecomputeEvent event = new RankingRecomputeEvent();
+        event.begin();
+        List<PlayerEntity> players = serviceMetrics.timeRankingPhase(operation, "load", playerRepository::findAllForRanking);
+        List<PlayerEntity> newRanking = serviceMetrics.timeRankingPhase(operation, "sort",
+                () -> new RankingCalculator(players).getNewPlayersRanking());
+        int rowsWritten = serviceMetrics.timeRankingPhase(operation, "persist", () -> {
+            // Les rangs écrits tirent des versions de changement : la transaction se déclare avant, comme les écritures
+            changeTracker.declareInFlight();
+            int updated = playerRepository.updateRanks(newRanking);
+            playerView.updateRanks(newRanking);
+            return updated;
+        });
+        serviceMetrics.recordRankingRowsWritten(operation, rowsWritten);
+        event.operation = operation;
+        event.playerCount = players.size();
+        event.rowsWritten = rowsWritten;
+        event.commit();
+        return newRanking;
+    }
 }
@@ -0,0 +1,45 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.model.Player;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Vue dénormalisée des joueurs (player-view.enabled), lue par PlayerService à la place du graphe JPA.
+ * Elle est tenue à jour dans la transaction des écritures (ChangeTracker) et du recalcul du classement :
+ * une écriture annulée n'atteint pas la vue, une écriture validée y est déjà visible.
+ */
+@Component
+public class PlayerView {
+
+    private final PlayerViewTable playerViewTable;
+
+    public PlayerView(PlayerViewTable playerViewTable) {
+        this.playerViewTable = playerViewTable;
+    }
+
+    public boolean isEnabled() {
+        return playerViewTable.isEnabled();
+    }
+
+    /**
+     * À appeler dans la transaction du recalcul du classement, après l'écriture des rangs.
+     */
+    public void updateRanks(List<PlayerEntity> rankedPlayers) {
+        if (isEnabled()) {
+            playerViewTable.updateRanks(rankedPlayers);
+        }
+    }
+
+    public Optional<Player> findOne(UUID identifier) {
+        return playerViewTable.findOne(identifier);
+    }
+
+    public List<Player> findAll() {
+        return playerViewTable.findAll();
+    }
+}
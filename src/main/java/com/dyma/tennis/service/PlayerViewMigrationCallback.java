@@ -0,0 +1,40 @@
+package com.dyma.tennis.service;
+
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remplit la vue des joueurs à la fin de chaque migration Flyway si elle ne correspond plus à la table player :
+ * au premier déploiement de la table player_view, et après des migrations qui insèrent des joueurs en SQL.
+ */
+@Component
+public class PlayerViewMigrationCallback implements Callback {
+
+    private final PlayerViewTable playerViewTable;
+
+    public PlayerViewMigrationCallback(PlayerViewTable playerViewTable) {
+        this.playerViewTable = playerViewTable;
+    }
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.AFTER_MIGRATE && playerViewTable.isEnabled();
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        playerViewTable.rebuildIfOutOfSync();
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "playerViewRebuild";
+    }
+}
@@ -0,0 +1,266 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.model.Player;
+import com.dyma.tennis.model.PlayerDescription;
+import com.dyma.tennis.model.Rank;
+import com.dyma.tennis.model.TournamentDescription;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.UncheckedIOException;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Accès JDBC à la table player_view : une ligne par joueur avec son rang et un document JSON
+ * (description, points, tournois). Lire un joueur ou la liste des joueurs ne demande qu'une ligne ou un parcours
+ * de la table, sans jointure ni graphe EAGER d'Hibernate.
+ * Les lignes sont recalculées depuis player, player_tournament et tournament, dans la transaction en cours :
+ * appelée depuis ChangeTracker, l'écriture et la vue sont validées ensemble.
+ * Ne dépend que de la source de données pour pouvoir reconstruire la vue à la fin des migrations Flyway.
+ */
+@Component
+public class PlayerViewTable {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(PlayerViewTable.class);
+
+    private final boolean enabled;
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter documentWriter;
+    private final ObjectReader documentReader;
+    private final Timer rebuildTimer;
+    private final Counter refreshedRows;
+    private volatile String jsonParameter;
+
+    public PlayerViewTable(@Value("${player-view.enabled}") boolean enabled, DataSource dataSource, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.documentWriter = objectMapper.writerFor(Document.class);
+        this.documentReader = objectMapper.readerFor(Document.class);
+        this.rebuildTimer = Timer.builder("tennis.player-view.rebuild")
+                .description("Time to rebuild the whole player view from the player, tournament and registration tables")
+                .register(meterRegistry);
+        this.refreshedRows = Counter.builder("tennis.player-view.refreshed")
+                .description("Player view rows rewritten after a write")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<Player> findOne(UUID identifier) {
+        return jdbcTemplate.query("select rank, document from player_view where identifier = :identifier",
+                Map.of("identifier", identifier), playerMapper()).stream().findFirst();
+    }
+
+    public List<Player> findAll() {
+        return jdbcTemplate.query("select rank, document from player_view order by rank", playerMapper());
+    }
+
+    /**
+     * Réécrit les lignes des joueurs donnés depuis les tables sources ; la ligne d'un joueur supprimé disparaît.
+     */
+    public void refresh(Collection<UUID> identifiers) {
+        if (identifiers.isEmpty()) {
+            return;
+        }
+        List<UUID> distinct = List.copyOf(Set.copyOf(identifiers));
+        for (int from = 0; from < distinct.size(); from += BATCH_SIZE) {
+            List<UUID> batch = distinct.subList(from, Math.min(from + BATCH_SIZE, distinct.size()));
+            MapSqlParameterSource parameters = new MapSqlParameterSource("identifiers", batch);
+            jdbcTemplate.update("delete from player_view where identifier in (:identifiers)", parameters);
+            insert(load("where p.identifier in (:identifiers)", parameters));
+        }
+        refreshedRows.increment(distinct.size());
+    }
+
+    /**
+     * Reporte dans la vue les rangs écrits par le recalcul du classement ; seules les lignes modifiées sont réécrites.
+     */
+    public void updateRanks(List<PlayerEntity> rankedPlayers) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate("update player_view set rank = ? where identifier = ? and rank <> ?",
+                rankedPlayers, BATCH_SIZE, (statement, player) -> {
+                    statement.setInt(1, player.getRank());
+                    statement.setObject(2, player.getIdentifier());
+                    statement.setInt(3, player.getRank());
+                });
+    }
+
+    /**
+     * Reconstruit toute la vue en une transaction, pour réparer une vue désynchronisée des tables sources
+     * (écriture SQL directe, import, incident). Les lecteurs voient l'ancienne vue jusqu'à la validation.
+     *
+     * @return Le nombre de joueurs dans la vue reconstruite.
+     */
+    public int rebuild() {
+        return rebuildTimer.record(() -> transactionTemplate.execute(status -> {
+            jdbcTemplate.getJdbcTemplate().update("delete from player_view");
+            List<Row> rows = load("", new MapSqlParameterSource());
+            insert(rows);
+            log.info("Rebuilt player view with {} players", rows.size());
+            return rows.size();
+        }));
+    }
+
+    /**
+     * Reconstruit la vue si elle ne compte pas autant de lignes que la table player.
+     */
+    public void rebuildIfOutOfSync() {
+        Status status = status();
+        if (status.players() != status.viewRows()) {
+            log.info("Player view has {} rows for {} players, rebuilding", status.viewRows(), status.players());
+            rebuild();
+        }
+    }
+
+    public Status status() {
+        Long players = jdbcTemplate.getJdbcTemplate().queryForObject("select count(*) from player", Long.class);
+        Long viewRows = jdbcTemplate.getJdbcTemplate().queryForObject("select count(*) from player_view", Long.class);
+        return new Status(players == null ? 0 : players, viewRows == null ? 0 : viewRows);
+    }
+
+    private List<Row> load(String playerCondition, MapSqlParameterSource parameters) {
+        Map<Long, Row> rows = new LinkedHashMap<>();
+        jdbcTemplate.query("select p.id, p.identifier, p.first_name, p.last_name, p.birth_date, p.points, p.rank from player p "
+                        + playerCondition, parameters,
+                resultSet -> {
+                    UUID identifier = resultSet.getObject("identifier", UUID.class);
+                    rows.put(resultSet.getLong("id"), new Row(identifier, resultSet.getInt("rank"), new Document(
+                            identifier,
+                            resultSet.getString("first_name"),
+                            resultSet.getString("last_name"),
+                            resultSet.getObject("birth_date", LocalDate.class),
+                            resultSet.getInt("points"),
+                            new ArrayList<>())));
+                });
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TournamentDescription> tournaments = new HashMap<>();
+        jdbcTemplate.query("select pt.player_id, t.id, t.identifier, t.name, t.start_date, t.end_date, t.prize_money, t.capacity "
+                        + "from player_tournament pt join tournament t on t.id = pt.tournament_id "
+                        + "join player p on p.id = pt.player_id " + playerCondition, parameters,
+                resultSet -> {
+                    // Un tournoi partagé par plusieurs joueurs n'est construit qu'une fois
+                    long tournamentId = resultSet.getLong("id");
+                    TournamentDescription tournament = tournaments.get(tournamentId);
+                    if (tournament == null) {
+                        tournament = new TournamentDescription(
+                                resultSet.getObject("identifier", UUID.class),
+                                resultSet.getString("name"),
+                                resultSet.getObject("start_date", LocalDate.class),
+                                resultSet.getObject("end_date", LocalDate.class),
+                                resultSet.getObject("prize_money", Integer.class),
+                                resultSet.getInt("capacity"));
+                        tournaments.put(tournamentId, tournament);
+                    }
+                    rows.get(resultSet.getLong("player_id")).document().tournaments().add(tournament);
+                });
+        return List.copyOf(rows.values());
+    }
+
+    private void insert(List<Row> rows) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate("insert into player_view(identifier, rank, document) values (?, ?, " + jsonParameter() + ")",
+                rows, BATCH_SIZE, (statement, row) -> {
+                    statement.setObject(1, row.identifier());
+                    statement.setInt(2, row.rank());
+                    statement.setString(3, write(row.document()));
+                });
+    }
+
+    private RowMapper<Player> playerMapper() {
+        return (resultSet, rowNumber) -> {
+            Document document = read(resultSet.getString("document"));
+            return new Player(
+                    new PlayerDescription(document.identifier(), document.firstName(), document.lastName(), document.birthDate(),
+                            new Rank(resultSet.getInt("rank"), document.points())),
+                    Set.copyOf(document.tournaments()));
+        };
+    }
+
+    private String write(Document document) {
+        try {
+            return documentWriter.writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Document read(String json) {
+        try {
+            return documentReader.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Paramètre texte converti en JSON : PostgreSQL le convertit avec un cast ; H2 en ferait une chaîne JSON
+     * et demande FORMAT JSON pour l'analyser comme un document.
+     */
+    private String jsonParameter() {
+        String current = jsonParameter;
+        if (current == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+                current = "PostgreSQL".equals(product) ? "cast(? as jsonb)" : "? format json";
+            } catch (MetaDataAccessException e) {
+                log.warn("Couldn't detect database product, assuming PostgreSQL for player view documents", e);
+                current = "cast(? as jsonb)";
+            }
+            jsonParameter = current;
+        }
+        return current;
+    }
+
+    /**
+     * Nombre de joueurs dans les tables sources et de lignes dans la vue.
+     */
+    public record Status(long players, long viewRows) {
+    }
+
+    private record Row(UUID identifier, int rank, Document document) {
+    }
+
+    /**
+     * Contenu de la colonne document : le joueur sans son rang, et ses tournois.
+     */
+    record Document(UUID identifier, String firstName, String lastName, LocalDate birthDate, int points,
+                    List<TournamentDescription> tournaments) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.model.RankedPlayer;
+
+import java.util.List;
+
+/**
+ * Événement publié par RankingTable à chaque remplacement du classement : les joueurs dont le rang ou les points
+ * ont changé, par rang croissant. Le classement n'est remplacé qu'après la validation du recalcul : la différence
+ * est calculée et publiée dans cette même étape, contre la table que les lecteurs voyaient jusque-là.
+ */
+public record RankingChanged(List<RankedPlayer> changes) {
+}
@@ -0,0 +1,216 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.data.PlayerEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Exécute le recalcul du classement une seule fois à la fois, dans l'instance comme dans le cluster.
+ * Chaque demande prend un ticket après l'écriture qui la motive ; un recalcul qui démarre après ce ticket
+ * couvre la demande, qui se contente alors d'attendre sa fin au lieu de relancer le calcul.
+ * Dans l'instance, un verrou local sérialise les recalculs. Sur PostgreSQL, un verrou consultatif de transaction
+ * et la table ranking_recompute font de même entre les instances ; le verrou n'est pris que pendant la transaction
+ * du recalcul. Sur les autres bases (H2), seul le verrou local s'applique.
+ * Un recalcul qui échoue (verrou non obtenu dans lock-timeout, erreur de base) ne fait pas échouer l'écriture,
+ * déjà validée : il est journalisé, compté et relancé après retry-delay, jusqu'à ce qu'un recalcul réussisse.
+ * Le nouveau classement n'est publié dans RankingTable qu'une fois sa transaction validée.
+ */
+@Component
+public class RankingRecompute implements DisposableBean {
+
+    // Clé du verrou consultatif PostgreSQL ("tennis" en ASCII)
+    static final long LOCK_KEY = 0x74656E6E6973L;
+
+    private final Logger log = LoggerFactory.getLogger(RankingRecompute.class);
+
+    private final DataSource dataSource;
+    private final RankingTable rankingTable;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lockTimeout;
+    private final Duration retryDelay;
+    private final ScheduledExecutorService retryScheduler;
+    private final AtomicBoolean retryScheduled = new AtomicBoolean();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong requested = new AtomicLong();
+    private long completed;
+    private volatile Boolean postgres;
+
+    private final Timer lockWait;
+    private final Counter localContention;
+    private final Counter clusterContention;
+    private final Counter localCoalesced;
+    private final Counter clusterCoalesced;
+    private final Counter failures;
+
+    public RankingRecompute(DataSource dataSource, RankingTable rankingTable, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${ranking.recompute.lock-timeout}") Duration lockTimeout,
+                            @Value("${ranking.recompute.retry-delay}") Duration retryDelay) {
+        this.dataSource = dataSource;
+        this.rankingTable = rankingTable;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockTimeout = lockTimeout;
+        this.retryDelay = retryDelay;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ranking-recompute-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lockWait = Timer.builder("tennis.ranking.recompute.lock.wait")
+                .description("Time spent waiting for the ranking recompute lock")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.localContention = contention(meterRegistry, "local");
+        this.clusterContention = contention(meterRegistry, "cluster");
+        this.localCoalesced = coalesced(meterRegistry, "local");
+        this.clusterCoalesced = coalesced(meterRegistry, "cluster");
+        this.failures = Counter.builder("tennis.ranking.recompute.failures")
+                .description("Ranking recomputes that failed after the write was committed, and were rescheduled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Recalcule le classement, sauf si un recalcul démarré après l'appel l'a déjà fait.
+     * Au retour, le classement tient compte de toutes les écritures validées avant l'appel, sauf si le recalcul
+     * a échoué : il est alors relancé en arrière-plan et le classement converge au premier recalcul réussi.
+     *
+     * @param operation L'opération qui demande le recalcul.
+     * @param recompute Le recalcul, exécuté dans une transaction ; il renvoie le classement écrit.
+     */
+    public void run(String operation, Supplier<List<PlayerEntity>> recompute) {
+        long ticket = requested.incrementAndGet();
+        long start = System.nanoTime();
+        if (!lock.tryLock()) {
+            localContention.increment();
+            lock.lock();
+        }
+        try {
+            lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (completed >= ticket) {
+                log.debug("Ranking recompute for {} coalesced into a recompute started by another thread", operation);
+                localCoalesced.increment();
+                return;
+            }
+            long covers = requested.get();
+            List<PlayerEntity> newRanking = transactionTemplate.execute(status ->
+                    isPostgres() ? runClusterWide(operation, recompute) : recompute.get());
+            completed = covers;
+            if (newRanking != null) {
+                rankingTable.publish(newRanking);
+            } else {
+                // Le classement a été écrit par une autre instance : la table locale est rechargée
+                rankingTable.reload();
+            }
+        } catch (RuntimeException e) {
+            // Les tickets non couverts restent au-dessus de completed : le prochain recalcul, relancé ou non, les couvre
+            failures.increment();
+            log.warn("Ranking recompute for {} failed, retrying in {}", operation, retryDelay, e);
+            scheduleRetry(recompute);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleRetry(Supplier<List<PlayerEntity>> recompute) {
+        if (!retryScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            retryScheduler.schedule(() -> {
+                retryScheduled.set(false);
+                run("ranking.retry", recompute);
+            }, retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Arrêt en cours : le prochain démarrage recalcule au premier changement
+            retryScheduled.set(false);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        retryScheduler.shutdownNow();
+    }
+
+    /**
+     * @return Le classement écrit, ou null si une autre instance l'a déjà recalculé.
+     */
+    private List<PlayerEntity> runClusterWide(String operation, Supplier<List<PlayerEntity>> recompute) {
+        Long ticket = jdbcTemplate.queryForObject("select nextval('ranking_request_seq')", Long.class);
+        jdbcTemplate.execute("set local lock_timeout = '" + lockTimeout.toMillis() + "ms'");
+        Boolean acquired = jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+        if (!Boolean.TRUE.equals(acquired)) {
+            clusterContention.increment();
+            long start = System.nanoTime();
+            jdbcTemplate.query("select pg_advisory_xact_lock(?)", resultSet -> {
+            }, LOCK_KEY);
+            lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        Long completedRequest = jdbcTemplate.queryForObject("select completed_request from ranking_recompute where id = 1", Long.class);
+        if (completedRequest != null && completedRequest > ticket) {
+            log.debug("Ranking recompute for {} coalesced into a recompute started by another instance", operation);
+            clusterCoalesced.increment();
+            return null;
+        }
+        // Toute demande dont le ticket précède celui-ci est couverte par ce recalcul
+        Long covers = jdbcTemplate.queryForObject("select nextval('ranking_request_seq')", Long.class);
+        List<PlayerEntity> newRanking = recompute.get();
+        jdbcTemplate.update("update ranking_recompute set completed_request = ? where id = 1", covers);
+        return newRanking;
+    }
+
+    private boolean isPostgres() {
+        Boolean current = postgres;
+        if (current == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+                current = "PostgreSQL".equals(product);
+            } catch (MetaDataAccessException e) {
+                log.warn("Couldn't detect database product, ranking recompute is only serialized within this instance", e);
+                current = false;
+            }
+            postgres = current;
+        }
+        return current;
+    }
+
+    private static Counter contention(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("tennis.ranking.recompute.contention")
+                .description("Ranking recomputes that had to wait for another recompute to finish")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    private static Counter coalesced(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("tennis.ranking.recompute.coalesced")
+                .description("Ranking recompute requests served by a recompute started by another caller")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.dyma.tennis.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement JFR émis à chaque recalcul du classement, pour le situer par rapport au CPU et au GC d'un enregistrement.
+ */
+@Name("com.dyma.tennis.RankingRecompute")
+@Label("Ranking Recompute")
+@Category({"Dyma Tennis", "Service"})
+@Description("Full ranking recompute triggered by a player write")
+class RankingRecomputeEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Players")
+    int playerCount;
+
+    @Label("Rows Written")
+    int rowsWritten;
+}
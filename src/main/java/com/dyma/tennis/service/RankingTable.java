@@ -0,0 +1,235 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.data.ChangeNotification;
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.model.Rank;
+import com.dyma.tennis.model.RankedPlayer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Classement des joueurs en tableaux primitifs parallèles, indexés par rang - 1 : moitiés de l'UUID et points.
+ * Un index à adressage ouvert (int[]) donne le rang d'un identifiant sans allouer d'objet.
+ * Environ 30 octets par joueur, contre environ 300 pour un PlayerEntity (voir RankingTableBenchmark).
+ * La table est immuable et remplacée d'un bloc à chaque recalcul du classement ; elle est chargée
+ * depuis la base au premier accès.
+ * Chaque remplacement publie un événement RankingChanged avec les joueurs dont le rang ou les points ont changé ;
+ * les remplacements n'ont lieu qu'après la validation des écritures, jamais depuis une transaction en cours.
+ */
+@Component
+public class RankingTable {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile Table table;
+
+    public RankingTable(DataSource dataSource, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Publie le classement calculé par RankingCalculator (joueurs triés, rangs attribués), une fois écrit et validé.
+     */
+    public void publish(List<PlayerEntity> newRanking) {
+        int size = newRanking.size();
+        long[] mostSignificantBits = new long[size];
+        long[] leastSignificantBits = new long[size];
+        int[] points = new int[size];
+        for (int i = 0; i < size; i++) {
+            PlayerEntity player = newRanking.get(i);
+            mostSignificantBits[i] = player.getIdentifier().getMostSignificantBits();
+            leastSignificantBits[i] = player.getIdentifier().getLeastSignificantBits();
+            points[i] = player.getPoints();
+        }
+        replace(new Table(mostSignificantBits, leastSignificantBits, points));
+    }
+
+    /**
+     * Recharge la table quand une autre instance a modifié les joueurs.
+     */
+    @EventListener
+    public void onChange(ChangeNotification notification) {
+        if (notification.affects(ChangeNotification.PLAYER)) {
+            reload();
+        }
+    }
+
+    /**
+     * Recharge la table depuis la base si elle est déjà chargée, pour publier les rangs modifiés ailleurs ;
+     * sinon elle reste à charger au prochain accès.
+     */
+    public void reload() {
+        if (table != null) {
+            replace(load());
+        }
+    }
+
+    /**
+     * @return Les joueurs classés de rankFrom à rankTo inclus, bornés au classement existant.
+     */
+    public List<RankedPlayer> range(int rankFrom, int rankTo) {
+        Table current = table();
+        int from = Math.max(1, rankFrom);
+        int to = Math.min(current.size(), rankTo);
+        if (to < from) {
+            return List.of();
+        }
+        List<RankedPlayer> players = new ArrayList<>(to - from + 1);
+        for (int rank = from; rank <= to; rank++) {
+            int index = rank - 1;
+            players.add(new RankedPlayer(
+                    new UUID(current.mostSignificantBits[index], current.leastSignificantBits[index]),
+                    new Rank(rank, current.points[index])));
+        }
+        return players;
+    }
+
+    /**
+     * @return Le rang et les points de l'identifiant, ou null s'il n'est pas classé.
+     */
+    public Rank rankOf(UUID identifier) {
+        Table current = table();
+        int index = current.indexOf(identifier.getMostSignificantBits(), identifier.getLeastSignificantBits());
+        return index < 0 ? null : new Rank(index + 1, current.points[index]);
+    }
+
+    public int size() {
+        return table().size();
+    }
+
+    /**
+     * @return La taille en octets des tableaux de la table courante (en-têtes de tableaux compris).
+     */
+    public long footprintBytes() {
+        return table().footprintBytes();
+    }
+
+    private Table table() {
+        Table current = table;
+        if (current == null) {
+            synchronized (this) {
+                current = table;
+                if (current == null) {
+                    current = load();
+                    table = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private synchronized void replace(Table newTable) {
+        Table previous = table;
+        table = newTable;
+        List<RankedPlayer> changes = newTable.changesSince(previous);
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new RankingChanged(changes));
+        }
+    }
+
+    private Table load() {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from player", Integer.class);
+        long[] mostSignificantBits = new long[count];
+        long[] leastSignificantBits = new long[count];
+        int[] points = new int[count];
+        int[] size = {0};
+        jdbcTemplate.query("select identifier, points from player order by rank, id", resultSet -> {
+            int index = size[0];
+            if (index < count) {
+                UUID identifier = resultSet.getObject("identifier", UUID.class);
+                mostSignificantBits[index] = identifier.getMostSignificantBits();
+                leastSignificantBits[index] = identifier.getLeastSignificantBits();
+                points[index] = resultSet.getInt("points");
+                size[0]++;
+            }
+        });
+        if (size[0] < count) {
+            // Des joueurs ont été supprimés entre le comptage et la lecture
+            return new Table(Arrays.copyOf(mostSignificantBits, size[0]), Arrays.copyOf(leastSignificantBits, size[0]),
+                    Arrays.copyOf(points, size[0]));
+        }
+        return new Table(mostSignificantBits, leastSignificantBits, points);
+    }
+
+    private static final class Table {
+
+        private static final int ARRAY_HEADER_BYTES = 16;
+
+        private final long[] mostSignificantBits;
+        private final long[] leastSignificantBits;
+        private final int[] points;
+        // rang - 1 de chaque identifiant, décalé de 1 : 0 marque une case vide
+        private final int[] index;
+        private final int mask;
+
+        Table(long[] mostSignificantBits, long[] leastSignificantBits, int[] points) {
+            this.mostSignificantBits = mostSignificantBits;
+            this.leastSignificantBits = leastSignificantBits;
+            this.points = points;
+            int capacity = Integer.highestOneBit(Math.max(2, points.length * 2 - 1)) << 1;
+            this.index = new int[capacity];
+            this.mask = capacity - 1;
+            for (int i = 0; i < points.length; i++) {
+                int slot = hash(mostSignificantBits[i], leastSignificantBits[i]) & mask;
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = i + 1;
+            }
+        }
+
+        int indexOf(long mostSignificantBits, long leastSignificantBits) {
+            int slot = hash(mostSignificantBits, leastSignificantBits) & mask;
+            int candidate;
+            while ((candidate = index[slot]) != 0) {
+                if (this.mostSignificantBits[candidate - 1] == mostSignificantBits
+                        && this.leastSignificantBits[candidate - 1] == leastSignificantBits) {
+                    return candidate - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        int size() {
+            return points.length;
+        }
+
+        /**
+         * @return Les joueurs dont le rang ou les points diffèrent de la table précédente, par rang croissant ;
+         * tous les joueurs si elle n'était pas chargée.
+         */
+        List<RankedPlayer> changesSince(Table previous) {
+            List<RankedPlayer> changes = new ArrayList<>();
+            for (int i = 0; i < points.length; i++) {
+                int previousIndex = previous == null ? -1 : previous.indexOf(mostSignificantBits[i], leastSignificantBits[i]);
+                if (previousIndex != i || previous.points[previousIndex] != points[i]) {
+                    changes.add(new RankedPlayer(new UUID(mostSignificantBits[i], leastSignificantBits[i]), new Rank(i + 1, points[i])));
+                }
+            }
+            return changes;
+        }
+
+        long footprintBytes() {
+            return 4L * ARRAY_HEADER_BYTES
+                    + 8L * mostSignificantBits.length
+                    + 8L * leastSignificantBits.length
+                    + 4L * points.length
+                    + 4L * index.length;
+        }
+
+        private static int hash(long mostSignificantBits, long leastSignificantBits) {
+            long hash = (mostSignificantBits ^ leastSignificantBits) * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+}
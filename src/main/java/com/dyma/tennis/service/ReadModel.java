@@ -0,0 +1,255 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.data.ChangeNotification;
+import com.dyma.tennis.model.Player;
+import com.dyma.tennis.model.PlayerDescription;
+import com.dyma.tennis.model.Rank;
+import com.dyma.tennis.model.Tournament;
+import com.dyma.tennis.model.TournamentDescription;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modèle de lecture optionnel (read-model.enabled) : un instantané immuable de tous les joueurs, tournois
+ * et inscriptions, servi sans verrou ni requête SQL par les méthodes de lecture des services.
+ * Après chaque écriture réussie, les services demandent un nouvel instantané, chargé en trois requêtes JDBC
+ * (sans le graphe EAGER d'Hibernate) dans une transaction en lecture seule REPEATABLE READ, pour que joueurs,
+ * tournois et inscriptions soient lus au même instant, puis publié d'un seul coup : un lecteur voit l'ancien
+ * ou le nouveau, jamais un mélange.
+ * Les demandes concurrentes sont regroupées : un rechargement commencé après une écriture la prend en compte pour toutes.
+ * Un rechargement en échec ne fait jamais échouer l'écriture déjà validée : le modèle est marqué périmé,
+ * les lectures passent par la base sans recharger, et le rechargement est retenté en arrière-plan après retry-delay
+ * jusqu'à ce qu'il réussisse.
+ */
+@Component
+public class ReadModel implements DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(ReadModel.class);
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retryDelay;
+    private final ScheduledExecutorService retryScheduler;
+    private final AtomicBoolean retryScheduled = new AtomicBoolean();
+    private final Timer refreshTimer;
+    private final Counter refreshFailures;
+
+    private final AtomicLong requestedVersion = new AtomicLong();
+    private final Object refreshLock = new Object();
+    private volatile Snapshot snapshot;
+    // Une écriture validée n'est pas dans l'instantané : il ne doit plus être servi
+    private volatile boolean stale;
+
+    public ReadModel(@Value("${read-model.enabled}") boolean enabled, DataSource dataSource, MeterRegistry meterRegistry,
+                     @Value("${read-model.retry-delay}") Duration retryDelay) {
+        this.enabled = enabled;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate.setReadOnly(true);
+        this.retryDelay = retryDelay;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "read-model-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refreshTimer = Timer.builder("tennis.read-model.refresh")
+                .description("Time to load and publish a new read model snapshot")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("tennis.read-model.refresh.failures")
+                .description("Read model reloads that failed, reads going to the database until the next successful one")
+                .register(meterRegistry);
+        Gauge.builder("tennis.read-model.players", this, readModel -> readModel.snapshot == null ? 0 : readModel.snapshot.playersByRank().size())
+                .description("Players in the current read model snapshot")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return L'instantané courant, chargé au premier appel, ou null si le modèle est désactivé
+     * ou périmé en attendant le rechargement en arrière-plan : l'appelant lit alors la base.
+     */
+    public Snapshot snapshot() {
+        if (!enabled || stale) {
+            return null;
+        }
+        if (snapshot == null) {
+            refresh();
+            if (stale) {
+                return null;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Recharge l'instantané quand une autre instance a modifié les données.
+     */
+    @EventListener
+    public void onChange(ChangeNotification notification) {
+        refresh();
+    }
+
+    /**
+     * Demande un nouvel instantané, à appeler une fois l'écriture validée en base.
+     * Ne fait rien si le modèle de lecture est désactivé, et ne lève pas d'exception : un échec est journalisé,
+     * compté, marque le modèle périmé et programme un nouvel essai.
+     */
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long version = requestedVersion.incrementAndGet();
+        synchronized (refreshLock) {
+            if (snapshot != null && snapshot.version() >= version) {
+                // Un rechargement commencé après notre écriture l'a déjà publiée
+                return;
+            }
+            long target = requestedVersion.get();
+            try {
+                snapshot = refreshTimer.record(() -> transactionTemplate.execute(status -> load(target)));
+                stale = false;
+            } catch (RuntimeException e) {
+                stale = true;
+                refreshFailures.increment();
+                log.warn("Couldn't reload read model, serving reads from the database and retrying in {}", retryDelay, e);
+                scheduleRetry();
+                return;
+            }
+            log.debug("Published read model snapshot {} with {} players and {} tournaments",
+                    target, snapshot.playersByRank().size(), snapshot.tournaments().size());
+        }
+    }
+
+    private void scheduleRetry() {
+        if (!retryScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            retryScheduler.schedule(() -> {
+                retryScheduled.set(false);
+                refresh();
+            }, retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Arrêt en cours : il n'y a plus de lecture à servir
+            retryScheduled.set(false);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        retryScheduler.shutdownNow();
+    }
+
+    private Snapshot load(long version) {
+        Map<Long, PlayerDescription> players = new HashMap<>();
+        List<Long> playerIdsByRank = new ArrayList<>();
+        jdbcTemplate.query("select id, identifier, first_name, last_name, birth_date, points, rank from player order by rank, id",
+                resultSet -> {
+                    long id = resultSet.getLong("id");
+                    playerIdsByRank.add(id);
+                    players.put(id, new PlayerDescription(
+                            resultSet.getObject("identifier", UUID.class),
+                            resultSet.getString("first_name"),
+                            resultSet.getString("last_name"),
+                            resultSet.getObject("birth_date", LocalDate.class),
+                            new Rank(resultSet.getInt("rank"), resultSet.getInt("points"))));
+                });
+
+        Map<Long, TournamentDescription> tournaments = new HashMap<>();
+        List<Long> tournamentIds = new ArrayList<>();
+        jdbcTemplate.query("select id, identifier, name, start_date, end_date, prize_money, capacity from tournament order by id",
+                resultSet -> {
+                    long id = resultSet.getLong("id");
+                    tournamentIds.add(id);
+                    tournaments.put(id, new TournamentDescription(
+                            resultSet.getObject("identifier", UUID.class),
+                            resultSet.getString("name"),
+                            resultSet.getObject("start_date", LocalDate.class),
+                            resultSet.getObject("end_date", LocalDate.class),
+                            resultSet.getObject("prize_money", Integer.class),
+                            resultSet.getInt("capacity")));
+                });
+
+        Map<Long, List<TournamentDescription>> tournamentsByPlayer = new HashMap<>();
+        Map<Long, List<PlayerDescription>> playersByTournament = new HashMap<>();
+        jdbcTemplate.query("select player_id, tournament_id from player_tournament",
+                resultSet -> {
+                    long playerId = resultSet.getLong("player_id");
+                    long tournamentId = resultSet.getLong("tournament_id");
+                    PlayerDescription player = players.get(playerId);
+                    TournamentDescription tournament = tournaments.get(tournamentId);
+                    if (player == null || tournament == null) {
+                        // Impossible dans une même transaction, mais une inscription orpheline ne doit pas bloquer le chargement
+                        return;
+                    }
+                    tournamentsByPlayer.computeIfAbsent(playerId, id -> new ArrayList<>()).add(tournament);
+                    playersByTournament.computeIfAbsent(tournamentId, id -> new ArrayList<>()).add(player);
+                });
+
+        Player[] playersByRank = new Player[playerIdsByRank.size()];
+        Map<UUID, Player> playersByIdentifier = HashMap.newHashMap(playersByRank.length);
+        for (int i = 0; i < playersByRank.length; i++) {
+            long id = playerIdsByRank.get(i);
+            Player player = new Player(players.get(id), Set.copyOf(tournamentsByPlayer.getOrDefault(id, List.of())));
+            playersByRank[i] = player;
+            playersByIdentifier.put(player.info().identifier(), player);
+        }
+
+        Tournament[] tournamentsById = new Tournament[tournamentIds.size()];
+        Map<UUID, Tournament> tournamentsByIdentifier = HashMap.newHashMap(tournamentsById.length);
+        for (int i = 0; i < tournamentsById.length; i++) {
+            long id = tournamentIds.get(i);
+            Tournament tournament = new Tournament(tournaments.get(id), Set.copyOf(playersByTournament.getOrDefault(id, List.of())));
+            tournamentsById[i] = tournament;
+            tournamentsByIdentifier.put(tournament.info().identifier(), tournament);
+        }
+
+        return new Snapshot(version, List.of(playersByRank), Map.copyOf(playersByIdentifier),
+                List.of(tournamentsById), Map.copyOf(tournamentsByIdentifier));
+    }
+
+    /**
+     * Instantané immuable : joueurs triés par classement, tournois dans l'ordre de création,
+     * et index par identifiant. Les joueurs d'un tournoi sont portés par le Tournament lui-même.
+     */
+    public record Snapshot(long version,
+                           List<Player> playersByRank,
+                           Map<UUID, Player> playersByIdentifier,
+                           List<Tournament> tournaments,
+                           Map<UUID, Tournament> tournamentsByIdentifier) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.dyma.tennis.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement JFR émis pour chaque demande d'inscription à un tournoi, réussie ou refusée.
+ */
+@Name("com.dyma.tennis.Registration")
+@Label("Tournament Registration")
+@Category({"Dyma Tennis", "Service"})
+@Description("Registration of a player to a tournament")
+class RegistrationEvent extends Event {
+
+    @Label("Tournament")
+    String tournament;
+
+    @Label("Player")
+    String player;
+
+    @Label("Outcome")
+    @Description("success, or the reason why the registration was refused")
+    String outcome;
+}
@@ -1,12 +1,17 @@
 package com.dyma.tennis.service;
 
+import com.dyma.tennis.data.ChangeNotification;
+import com.dyma.tennis.data.ChangeNotifier;
 import com.dyma.tennis.data.PlayerEntity;
 import com.dyma.tennis.data.PlayerRepository;
 import com.dyma.tennis.data.TournamentEntity;
 import com.dyma.tennis.data.TournamentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.dyma.tennis.model.RegistrationUpdate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import javax.swing.text.html.Option;
@@ -21,37 +26,104 @@ public class RegistrationService {
     private final TournamentRepository tournamentRepository;
     @Autowired
      private final PlayerRepository playerRepository;
+    @Autowired
+    private final ServiceMetrics serviceMetrics;
+    @Autowired
+    private final ReadModel readModel;
+    @Autowired
+    private final ChangeNotifier changeNotifier;
+    @Autowired
+    private final OptimisticRetry optimisticRetry;
+    @Autowired
+    private final ChangeTracker changeTracker;
+    @Autowired
+    private final ApplicationEventPublisher eventPublisher;
 
-    public RegistrationService(TournamentRepository tournamentRepository, PlayerRepository playerRepository) {
+    public RegistrationService(TournamentRepository tournamentRepository, PlayerRepository playerRepository, ServiceMetrics serviceMetrics,
+                               ReadModel readModel, ChangeNotifier changeNotifier, OptimisticRetry optimisticRetry, ChangeTracker changeTracker,
+                               ApplicationEventPublisher eventPublisher) {
         this.tournamentRepository = tournamentRepository;
         this.playerRepository = playerRepository;
+        this.serviceMetrics = serviceMetrics;
+        this.readModel = readModel;
+        this.changeNotifier = changeNotifier;
+        this.optimisticRetry = optimisticRetry;
+        this.changeTracker = changeTracker;
+        this.eventPublisher = eventPublisher;
     }
 
     public void register(UUID tournamentIdentifier, UUID playerToRegister){
-        Optional<TournamentEntity>existingTournament = tournamentRepository.findOneByIdentifier(tournamentIdentifier);
-        if(existingTournament.isEmpty()){
-            log.warn("Couldn't find tournament {} to register player", tournamentIdentifier);
-            throw new TournamentRegistrationException("Tournament with identifier " + tournamentIdentifier + " doesn't exist");
-        }
-        if(existingTournament.get().isFull()){
-            log.warn("Tournament {} is full", tournamentIdentifier);
-            throw new TournamentRegistrationException("Tournament with identifier " + tournamentIdentifier + " is full");
-        }
-        Optional<PlayerEntity> existingPlayer = playerRepository.findOneByIdentifier(playerToRegister);
-        if(existingPlayer.isEmpty()){
-            log.warn("Couldn't find player {} to register", playerToRegister);
-            throw new TournamentRegistrationException("Player with identifier " + playerToRegister + " doesn't exist");
-        }
-        if(existingTournament.get().hasPlayer(existingPlayer.get())){
-            log.warn("Player {} isalready to tournament {}", playerToRegister, tournamentIdentifier);
-            throw new TournamentRegistrationException("Player with identifier " + playerToRegister + " is already registered to tournament " + tournamentIdentifier);
+        RegistrationEvent event = new RegistrationEvent();
+        event.begin();
+        event.tournament = String.valueOf(tournamentIdentifier);
+        event.player = String.valueOf(playerToRegister);
+        event.outcome = "error";
+        try {
+            doRegister(tournamentIdentifier, playerToRegister, event);
+            event.outcome = "success";
+        } finally {
+            event.commit();
         }
+    }
 
-        existingPlayer.get().addTournament(existingTournament.get());
-        playerRepository.save(existingPlayer.get());
+    private void doRegister(UUID tournamentIdentifier, UUID playerToRegister, RegistrationEvent event) {
+        serviceMetrics.run("registration.register", () -> {
+            // Vérifications et écriture rejouées si le joueur a été modifié entre-temps.
+            RegistrationUpdate update = optimisticRetry.run("registration.register", () -> changeTracker.write(() -> {
+                Optional<TournamentEntity>existingTournament = tournamentRepository.findOneByIdentifier(tournamentIdentifier);
+                if(existingTournament.isEmpty()){
+                    log.warn("Couldn't find tournament {} to register player", tournamentIdentifier);
+                    reject(event, "tournament_not_found");
+                    throw new TournamentRegistrationException("Tournament with identifier " + tournamentIdentifier + " doesn't exist");
+                }
+                if(existingTournament.get().isFull()){
+                    log.warn("Tournament {} is full", tournamentIdentifier);
+                    reject(event, "tournament_full");
+                    throw new TournamentRegistrationException("Tournament with identifier " + tournamentIdentifier + " is full");
+                }
+                Optional<PlayerEntity> existingPlayer = playerRepository.findOneByIdentifier(playerToRegister);
+                if(existingPlayer.isEmpty()){
+                    log.warn("Couldn't find player {} to register", playerToRegister);
+                    reject(event, "player_not_found");
+                    throw new TournamentRegistrationException("Player with identifier " + playerToRegister + " doesn't exist");
+                }
+                if(existingTournament.get().hasPlayer(existingPlayer.get())){
+                    log.warn("Player {} isalready to tournament {}", playerToRegister, tournamentIdentifier);
+                    reject(event, "already_registered");
+                    throw new TournamentRegistrationException("Player with identifier " + playerToRegister + " is already registered to tournament " + tournamentIdentifier);
+                }
 
+                existingPlayer.get().addTournament(existingTournament.get());
+                playerRepository.save(existingPlayer.get());
+                // Seul le côté joueur de l'association est modifié : le tournoi ne compte pas encore ce joueur
+                return registrationUpdate(existingTournament.get(), playerToRegister, existingTournament.get().getPlayers().size() + 1);
+            }, (registered, changes) -> changes.registration(tournamentIdentifier, playerToRegister)));
+            readModel.refresh();
+            changeNotifier.publish(ChangeNotification.REGISTRATION, tournamentIdentifier, playerToRegister);
+            eventPublisher.publishEvent(update);
+        });
+    }
 
+    /**
+     * Republie localement, pour les flux SSE, les inscriptions faites par une autre instance.
+     */
+    @EventListener
+    public void onChange(ChangeNotification notification) {
+        if (!ChangeNotification.REGISTRATION.equals(notification.entityType()) || notification.identifiers().size() != 2) {
+            return;
+        }
+        UUID tournamentIdentifier = notification.identifiers().get(0);
+        tournamentRepository.findOneByIdentifier(tournamentIdentifier).ifPresent(tournament -> eventPublisher.publishEvent(
+                registrationUpdate(tournament, notification.identifiers().get(1), tournament.getPlayers().size())));
+    }
 
+    private static RegistrationUpdate registrationUpdate(TournamentEntity tournament, UUID playerIdentifier, int registeredPlayers) {
+        return new RegistrationUpdate(tournament.getIdentifier(), playerIdentifier, registeredPlayers,
+                Math.max(0, tournament.getCapacity() - registeredPlayers));
+    }
 
+    private void reject(RegistrationEvent event, String reason) {
+        event.outcome = reason;
+        serviceMetrics.countRegistrationFailure(reason);
     }
 }
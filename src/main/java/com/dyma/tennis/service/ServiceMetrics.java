@@ -0,0 +1,122 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.timing.ServerTiming;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métriques Micrometer des services : durée de chaque opération, de chaque phase du recalcul du classement,
+ * lignes écrites par recalcul, doublons refusés et échecs d'inscription.
+ * Les compteurs sont gardés en cache pour ne pas reconstruire un meter à chaque appel.
+ */
+@Component
+public class ServiceMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public ServiceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Mesure une opération de service, étiquetée par son résultat : success ou le nom de l'exception levée.
+     * La durée compte aussi dans la phase svc de l'en-tête Server-Timing.
+     */
+    public <T> T time(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        long serverTiming = ServerTiming.start(ServerTiming.Phase.SVC);
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            ServerTiming.stop(ServerTiming.Phase.SVC, serverTiming);
+            operationTimer(operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void run(String operation, Runnable call) {
+        time(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Mesure une phase du recalcul du classement (load, sort, persist).
+     */
+    public <T> T timeRankingPhase(String operation, String phase, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            rankingPhaseTimer(operation, phase, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordRankingRowsWritten(String operation, int rows) {
+        summaries.computeIfAbsent(operation, key -> DistributionSummary.builder("tennis.ranking.rows.written")
+                .description("Players written back by a ranking recompute")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+                .record(rows);
+    }
+
+    public void countDuplicateRejection(String operation) {
+        counter("tennis.duplicates.rejected", "Creations or updates rejected because the entity already exists",
+                "operation", operation).increment();
+    }
+
+    public void countRegistrationFailure(String reason) {
+        counter("tennis.registration.failures", "Tournament registrations refused",
+                "reason", reason).increment();
+    }
+
+    private Timer operationTimer(String operation, String outcome) {
+        return timers.computeIfAbsent("operation|" + operation + "|" + outcome, key -> Timer.builder("tennis.service.operation")
+                .description("Duration of service operations")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry));
+    }
+
+    private Timer rankingPhaseTimer(String operation, String phase, String outcome) {
+        return timers.computeIfAbsent("ranking|" + operation + "|" + phase + "|" + outcome, key -> Timer.builder("tennis.ranking.phase")
+                .description("Duration of each ranking recompute phase")
+                .tag("operation", operation)
+                .tag("phase", phase)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry));
+    }
+
+    private Counter counter(String name, String description, String tagKey, String tagValue) {
+        return counters.computeIfAbsent(name + "|" + tagValue, key -> Counter.builder(name)
+                .description(description)
+                .tag(tagKey, tagValue)
+                .register(meterRegistry));
+    }
+}
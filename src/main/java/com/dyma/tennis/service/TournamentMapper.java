@@ -5,6 +5,7 @@ import com.dyma.tennis.model.PlayerDescription;
 import com.dyma.tennis.model.Rank;
 import com.dyma.tennis.model.Tournament;
 import com.dyma.tennis.model.TournamentDescription;
+import com.dyma.tennis.timing.ServerTiming;
 import org.springframework.stereotype.Component;
 
 import java.util.Set;
@@ -13,7 +14,11 @@ import java.util.stream.Collectors;
 @Component
 public class TournamentMapper {
 
-    public Tournament tournamentEntityToTournament(TournamentEntity tournamentEntity){
+    public Tournament tournamentEntityToTournament(TournamentEntity tournamentEntity) {
+        return ServerTiming.time(ServerTiming.Phase.MAP, () -> map(tournamentEntity));
+    }
+
+    private Tournament map(TournamentEntity tournamentEntity){
         TournamentDescription description = new TournamentDescription(
                 tournamentEntity.getIdentifier(),
                 tournamentEntity.getName(),
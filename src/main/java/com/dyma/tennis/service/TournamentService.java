@@ -1,5 +1,9 @@
 package com.dyma.tennis.service;
 
+import com.dyma.tennis.data.ChangeNotification;
+import com.dyma.tennis.data.ChangeNotifier;
+import com.dyma.tennis.data.IdentifierGenerator;
+import com.dyma.tennis.data.PlayerEntity;
 import com.dyma.tennis.data.TournamentEntity;
 import com.dyma.tennis.data.TournamentRepository;
 import com.dyma.tennis.model.Tournament;
@@ -34,10 +38,36 @@ public class TournamentService {
     @Autowired
     private final TournamentMapper tournamentMapper;
 
+    @Autowired
+    private final ServiceMetrics serviceMetrics;
+
+    @Autowired
+    private final ReadModel readModel;
+
+    @Autowired
+    private final ChangeNotifier changeNotifier;
+
+    @Autowired
+    private final OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private final IdentifierGenerator identifierGenerator;
+
+    @Autowired
+    private final ChangeTracker changeTracker;
+
     //Constructeur pour injecter le TournamentRepository
-    public TournamentService(TournamentRepository tournamentRepository, TournamentMapper tournamentMapper) {
+    public TournamentService(TournamentRepository tournamentRepository, TournamentMapper tournamentMapper, ServiceMetrics serviceMetrics,
+                             ReadModel readModel, ChangeNotifier changeNotifier, OptimisticRetry optimisticRetry,
+                             IdentifierGenerator identifierGenerator, ChangeTracker changeTracker) {
         this.tournamentRepository = tournamentRepository;
         this.tournamentMapper = tournamentMapper;
+        this.serviceMetrics = serviceMetrics;
+        this.readModel = readModel;
+        this.changeNotifier = changeNotifier;
+        this.optimisticRetry = optimisticRetry;
+        this.identifierGenerator = identifierGenerator;
+        this.changeTracker = changeTracker;
     }
 
     /**
@@ -46,16 +76,22 @@ public class TournamentService {
      * @return Une liste de tournois triés.
      */
     public List<Tournament>getAllTournaments(){
-        log.info("Invoking getAllTournaments()");
-        try{
-            //Conversion des entités TournamentEntity en objets Tournament, triés par position.
-            return tournamentRepository.findAll().stream()
-                    .map(tournamentMapper::tournamentEntityToTournament)
-                    .collect(Collectors.toList());
-        } catch (DataAccessException e) {
-            log.error("Couldn't retrieve tournaments", e);
-            throw new TournamentDataRetrievalException(e);
-        }
+        return serviceMetrics.time("tournament.getAll", () -> {
+            log.info("Invoking getAllTournaments()");
+            ReadModel.Snapshot snapshot = readModel.snapshot();
+            if (snapshot != null) {
+                return snapshot.tournaments();
+            }
+            try{
+                //Conversion des entités TournamentEntity en objets Tournament, triés par position.
+                return tournamentRepository.findAll().stream()
+                        .map(tournamentMapper::tournamentEntityToTournament)
+                        .collect(Collectors.toList());
+            } catch (DataAccessException e) {
+                log.error("Couldn't retrieve tournaments", e);
+                throw new TournamentDataRetrievalException(e);
+            }
+        });
     }
     /**
      * Récupère un tournois par son identifiant unique.
@@ -64,18 +100,29 @@ public class TournamentService {
      * @return Le tournois correspondant.
      */
     public Tournament getByIdentifier(UUID identifier){
-        log.info("Invoking getByIdentifier with identifier={}", identifier);
-        try{
-            Optional<TournamentEntity> tournament = tournamentRepository.findOneByIdentifier(identifier);
-            if (tournament.isEmpty()) {
-                log.warn("Couldn't find tournament with identifier={}", identifier);
-                throw new TournamentNotFoundException(identifier);
+        return serviceMetrics.time("tournament.getByIdentifier", () -> {
+            log.info("Invoking getByIdentifier with identifier={}", identifier);
+            ReadModel.Snapshot snapshot = readModel.snapshot();
+            if (snapshot != null) {
+                Tournament tournament = snapshot.tournamentsByIdentifier().get(identifier);
+                if (tournament == null) {
+                    log.warn("Couldn't find tournament with identifier={}", identifier);
+                    throw new TournamentNotFoundException(identifier);
+                }
+                return tournament;
+            }
+            try{
+                Optional<TournamentEntity> tournament = tournamentRepository.findOneByIdentifier(identifier);
+                if (tournament.isEmpty()) {
+                    log.warn("Couldn't find tournament with identifier={}", identifier);
+                    throw new TournamentNotFoundException(identifier);
+                }
+                return tournamentMapper.tournamentEntityToTournament(tournament.get());
+            } catch (DataAccessException e){
+                log.error("Couldn't find tournament with identifier={}", identifier, e);
+                throw new TournamentDataRetrievalException(e);
             }
-            return tournamentMapper.tournamentEntityToTournament(tournament.get());
-        } catch (DataAccessException e){
-            log.error("Couldn't find tournament with identifier={}", identifier, e);
-            throw new TournamentDataRetrievalException(e);
-        }
+        });
     }
 
     /**
@@ -86,90 +133,104 @@ public class TournamentService {
      * @return Le tournoi nouvellement créé.
      */
     public Tournament create(TournamentToCreate tournamentToCreate){
-        log.info("Invoking create with tournamentToCreate={}", tournamentToCreate);
-
-        Optional<TournamentEntity>tournament = tournamentRepository.findOneByNameIgnoreCase(tournamentToCreate.name());
-        if(tournament.isPresent()){
-            log.warn("Tournament to create with name={} already exists", tournamentToCreate.name());
-            throw new TournamentAlreadyExistsException(tournamentToCreate.name());
-        }
-        try{
-            TournamentEntity tournamentToRegister = new TournamentEntity(
-                    UUID.randomUUID(),
-                    tournamentToCreate.name(),
-                    tournamentToCreate.startDate(),
-                    tournamentToCreate.endDateDate(),
-                    tournamentToCreate.prizeMoney(),
-                    tournamentToCreate.capacity());
-
-            TournamentEntity registeredTournament = tournamentRepository.save(tournamentToRegister);
-
-            return this.getByIdentifier(registeredTournament.getIdentifier());
-        } catch (DataAccessException e){
-            log.error("Couldn't create tournament={}", tournamentToCreate, e);
-            throw new TournamentDataRetrievalException(e);
-        }
+        return serviceMetrics.time("tournament.create", () -> {
+            log.info("Invoking create with tournamentToCreate={}", tournamentToCreate);
+
+            Optional<TournamentEntity>tournament = tournamentRepository.findOneByNameIgnoreCase(tournamentToCreate.name());
+            if(tournament.isPresent()){
+                log.warn("Tournament to create with name={} already exists", tournamentToCreate.name());
+                serviceMetrics.countDuplicateRejection("tournament.create");
+                throw new TournamentAlreadyExistsException(tournamentToCreate.name());
+            }
+            try{
+                TournamentEntity tournamentToRegister = new TournamentEntity(
+                        identifierGenerator.next(),
+                        tournamentToCreate.name(),
+                        tournamentToCreate.startDate(),
+                        tournamentToCreate.endDateDate(),
+                        tournamentToCreate.prizeMoney(),
+                        tournamentToCreate.capacity());
+
+                TournamentEntity registeredTournament = changeTracker.write(() -> tournamentRepository.save(tournamentToRegister),
+                        (savedTournament, changes) -> changes.tournament(savedTournament.getIdentifier(), List.of()));
+                readModel.refresh();
+                changeNotifier.publish(ChangeNotification.TOURNAMENT, registeredTournament.getIdentifier());
+
+                return this.getByIdentifier(registeredTournament.getIdentifier());
+            } catch (DataAccessException e){
+                log.error("Couldn't create tournament={}", tournamentToCreate, e);
+                throw new TournamentDataRetrievalException(e);
+            }
+        });
     }
 
     public Tournament update(TournamentToUpdate tournamentToUpdate){
-        log.info("Invoking update with tournamentToUpdate={}", tournamentToUpdate);
-        try{
-            Optional<TournamentEntity> existingTournament = tournamentRepository.findOneByIdentifier(tournamentToUpdate.identifier());
-            if(existingTournament.isEmpty()){
-                log.warn("Couldn't find tournament to update with identifier={}", tournamentToUpdate.identifier());
-                throw new TournamentNotFoundException(tournamentToUpdate.identifier());
+        return serviceMetrics.time("tournament.update", () -> {
+            log.info("Invoking update with tournamentToUpdate={}", tournamentToUpdate);
+            try{
+                // Lecture, vérifications et écriture rejouées si le tournoi a été modifié entre-temps.
+                // Les tournois sont recopiés dans la vue de leurs joueurs : ces lignes sont réécrites dans la même transaction.
+                TournamentEntity updatedTournament = optimisticRetry.run("tournament.update", () -> changeTracker.write(() -> {
+                    Optional<TournamentEntity> existingTournament = tournamentRepository.findOneByIdentifier(tournamentToUpdate.identifier());
+                    if(existingTournament.isEmpty()){
+                        log.warn("Couldn't find tournament to update with identifier={}", tournamentToUpdate.identifier());
+                        throw new TournamentNotFoundException(tournamentToUpdate.identifier());
+                    }
+
+                    Optional<TournamentEntity> potentiallyDuplicatedTournament = tournamentRepository.findOneByNameIgnoreCase(tournamentToUpdate.name());
+                    if(potentiallyDuplicatedTournament.isPresent() && !potentiallyDuplicatedTournament.get().getIdentifier().equals(tournamentToUpdate.identifier())){
+                        log.warn("Tournament to update with name={} already exists", tournamentToUpdate.name());
+                        serviceMetrics.countDuplicateRejection("tournament.update");
+                        throw new TournamentAlreadyExistsException(tournamentToUpdate.name());
+                    }
+
+                    existingTournament.get().setName(tournamentToUpdate.name());
+                    existingTournament.get().setStartDate(tournamentToUpdate.startDate());
+                    existingTournament.get().setEndDate(tournamentToUpdate.endDateDate());
+                    existingTournament.get().setPrizeMoney(tournamentToUpdate.prizeMoney());
+                    existingTournament.get().setCapacity(tournamentToUpdate.capacity());
+
+                    return tournamentRepository.save(existingTournament.get());
+                }, (savedTournament, changes) -> changes.tournament(savedTournament.getIdentifier(), playerIdentifiers(savedTournament))));
+                readModel.refresh();
+                changeNotifier.publish(ChangeNotification.TOURNAMENT, updatedTournament.getIdentifier());
+
+                return this.getByIdentifier(updatedTournament.getIdentifier());
+            } catch (DataAccessException e) {
+                log.error("Couldn't update tournament={}", tournamentToUpdate, e);
+                throw new TournamentDataRetrievalException(e);
             }
-
-            Optional<TournamentEntity> potentiallyDuplicatedTournament = tournamentRepository.findOneByNameIgnoreCase(tournamentToUpdate.name());
-            if(potentiallyDuplicatedTournament.isPresent() && !potentiallyDuplicatedTournament.get().getIdentifier().equals(tournamentToUpdate.identifier())){
-                log.warn("Tournament to update with name={} already exists", tournamentToUpdate.name());
-                throw new TournamentAlreadyExistsException(tournamentToUpdate.name());
-            }
-
-            existingTournament.get().setName(tournamentToUpdate.name());
-            existingTournament.get().setStartDate(tournamentToUpdate.startDate());
-            existingTournament.get().setEndDate(tournamentToUpdate.endDateDate());
-            existingTournament.get().setPrizeMoney(tournamentToUpdate.prizeMoney());
-            existingTournament.get().setCapacity(tournamentToUpdate.capacity());
-
-            TournamentEntity updatedTournament = tournamentRepository.save(existingTournament.get());
-
-            return this.getByIdentifier(updatedTournament.getIdentifier());
-        } catch (DataAccessException e) {
-            log.error("Couldn't update tournament={}", tournamentToUpdate, e);
-            throw new TournamentDataRetrievalException(e);
-        }
+        });
     }
 
     public void delete (UUID identifier){
-        log.info("Invoking delete with identifier={}", identifier);
-        try{
-            Optional<TournamentEntity> tournamentToDelete = tournamentRepository.findOneByIdentifier(identifier);
-            if(tournamentToDelete.isEmpty()){
-                log.warn("Couldn't find tournament to delete with identifier={}", identifier);
-                throw new TournamentNotFoundException(identifier);
+        serviceMetrics.run("tournament.delete", () -> {
+            log.info("Invoking delete with identifier={}", identifier);
+            try{
+                optimisticRetry.run("tournament.delete", () -> changeTracker.write(() -> {
+                    Optional<TournamentEntity> tournamentToDelete = tournamentRepository.findOneByIdentifier(identifier);
+                    if(tournamentToDelete.isEmpty()){
+                        log.warn("Couldn't find tournament to delete with identifier={}", identifier);
+                        throw new TournamentNotFoundException(identifier);
+                    }
+
+                    tournamentRepository.delete(tournamentToDelete.get());
+                    return tournamentToDelete.get();
+                }, (deletedTournament, changes) -> {
+                    List<UUID> players = playerIdentifiers(deletedTournament);
+                    players.forEach(player -> changes.registrationDeleted(identifier, player));
+                    changes.tournamentDeleted(identifier, players);
+                }));
+                readModel.refresh();
+                changeNotifier.publish(ChangeNotification.TOURNAMENT, identifier);
+            } catch (DataAccessException e){
+                log.error("Coudn't delete tournament with identifier={}", identifier, e);
+                throw new TournamentDataRetrievalException(e);
             }
-
-            tournamentRepository.delete(tournamentToDelete.get());
-        } catch (DataAccessException e){
-            log.error("Coudn't delete tournament with identifier={}", identifier, e);
-            throw new TournamentDataRetrievalException(e);
-        }
+        });
     }
 
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
+    private static List<UUID> playerIdentifiers(TournamentEntity tournament) {
+        return tournament.getPlayers().stream().map(PlayerEntity::getIdentifier).toList();
+    }
 }
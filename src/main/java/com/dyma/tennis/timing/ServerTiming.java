@@ -0,0 +1,130 @@
+package com.dyma.tennis.timing;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Durées par phase (service, repositories, mapping, sérialisation) de la requête HTTP en cours,
+ * restituées dans l'en-tête Server-Timing. Comme SqlStatistics, le collecteur est attaché au thread
+ * qui traite la requête entre begin() et end() ; en dehors, les mesures ne coûtent qu'une lecture de ThreadLocal.
+ * Les appels imbriqués d'une même phase (un service qui en appelle un autre) ne sont comptés qu'une fois.
+ */
+public final class ServerTiming {
+
+    public enum Phase {
+        SVC("svc"),
+        REPO("repo"),
+        MAP("map"),
+        SER("ser");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private static final long INACTIVE = Long.MIN_VALUE;
+
+    private final long startNanos = System.nanoTime();
+    private final long[] nanos = new long[Phase.values().length];
+    private final int[] depth = new int[Phase.values().length];
+
+    private ServerTiming() {
+    }
+
+    /**
+     * Commence la collecte pour le thread courant.
+     */
+    public static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Rattache au thread courant un collecteur commencé sur un autre thread de la même requête HTTP
+     * (écriture exécutée par WriteExecutor, dispatch asynchrone). Un seul thread à la fois l'utilise ; à refermer par end().
+     */
+    public static void resume(ServerTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return Le collecteur du thread courant, ou null en dehors d'une requête HTTP.
+     */
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ouvre une phase. La valeur retournée doit être passée à stop(), dans un bloc finally.
+     */
+    public static long start(Phase phase) {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null) {
+            return INACTIVE;
+        }
+        timing.depth[phase.ordinal()]++;
+        return System.nanoTime();
+    }
+
+    public static void stop(Phase phase, long start) {
+        if (start == INACTIVE) {
+            return;
+        }
+        ServerTiming timing = CURRENT.get();
+        if (timing != null && --timing.depth[phase.ordinal()] == 0) {
+            timing.nanos[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Ferme une phase sans compter sa durée, qui ne peut plus figurer dans l'en-tête (réponse déjà partie).
+     */
+    public static void discard(Phase phase, long start) {
+        if (start == INACTIVE) {
+            return;
+        }
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.depth[phase.ordinal()]--;
+        }
+    }
+
+    public static <T> T time(Phase phase, Supplier<T> call) {
+        long start = start(phase);
+        try {
+            return call.get();
+        } finally {
+            stop(phase, start);
+        }
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * @return La valeur de l'en-tête Server-Timing : les phases mesurées puis le temps total écoulé depuis begin().
+     */
+    public String header() {
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : Phase.values()) {
+            if (nanos[phase.ordinal()] > 0) {
+                append(header, phase.metric, nanos[phase.ordinal()]).append(", ");
+            }
+        }
+        return append(header, "total", System.nanoTime() - startNanos).toString();
+    }
+
+    private static StringBuilder append(StringBuilder header, String metric, long nanos) {
+        return header.append(metric).append(";dur=").append(String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0));
+    }
+}
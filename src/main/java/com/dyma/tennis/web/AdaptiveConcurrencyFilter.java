@@ -0,0 +1,124 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.model.Error;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Délestage devant les contrôleurs /players et /tournaments : quand la base ralentit, la limite adaptative
+ * baisse et les requêtes en excès reçoivent 503 immédiatement, au lieu d'attendre une connexion jusqu'au timeout.
+ * La limite est réévaluée à intervalle fixe par un thread dédié, y compris quand aucune requête n'arrive.
+ * Une écriture exécutée par WriteExecutor libère sa place à la fin de la requête asynchrone, pas au retour du filtre.
+ */
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyFilter.class);
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final Duration window;
+    private final ObjectMapper objectMapper;
+
+    private ScheduledExecutorService scheduler;
+
+    AdaptiveConcurrencyFilter(AdaptiveConcurrencyLimit limit, Duration window, ObjectMapper objectMapper) {
+        this.limit = limit;
+        this.window = window;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void initFilterBean() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "adaptive-limit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::evaluateQuietly, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void evaluateQuietly() {
+        try {
+            limit.evaluate();
+        } catch (RuntimeException e) {
+            // Une exception arrêterait les réévaluations suivantes
+            log.error("Adaptive limit evaluation failed", e);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !path.startsWith("/players") && !path.startsWith("/tournaments");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!limit.tryAcquire()) {
+            log.debug("Adaptive limit {} reached, rejecting {} {}", limit.getLimit(), request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new Error("Service is saturated, retry later"));
+            return;
+        }
+
+        boolean releaseOnCompletion = false;
+        try {
+            filterChain.doFilter(request, response);
+            // Une écriture continue sur le pool de WriteExecutor : elle reste comptée jusqu'à sa réponse
+            if (request.isAsyncStarted() && WriteExecutor.isWrite(request)) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+                releaseOnCompletion = true;
+            }
+        } finally {
+            if (!releaseOnCompletion) {
+                limit.release();
+            }
+        }
+    }
+
+    private class ReleaseOnCompletion implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Appelé une fois par requête, après un timeout ou une erreur comme après une réponse normale
+            limit.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.dyma.tennis.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite de concurrence adaptative (AIMD) : le nombre de requêtes en cours est borné par une limite
+ * réévaluée à chaque fenêtre (evaluate()) à partir de l'attente moyenne pour obtenir une connexion du pool.
+ * Si cette attente dépasse le seuil, la base ne suit plus : la limite est multipliée par backoffRatio.
+ * Sinon, si la fenêtre a utilisé au moins la moitié de la limite, elle augmente d'une unité.
+ * Une fenêtre congestionnée ou avec des refus passe l'instance en REFUSING_TRAFFIC ; elle repasse
+ * en ACCEPTING_TRAFFIC après recoveryWindows fenêtres saines consécutives.
+ * L'état de disponibilité n'est modifié qu'une fois l'application prête (ACCEPTING_TRAFFIC publié par Spring Boot,
+ * après le préchauffage) : une saturation pendant le démarrage limite les requêtes mais ne déclare pas l'instance
+ * prête trop tôt. Si elle est encore saturée quand l'application devient prête, elle repasse aussitôt en REFUSING_TRAFFIC.
+ */
+class AdaptiveConcurrencyLimit {
+
+    private final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimit.class);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long poolWaitThresholdNanos;
+    private final int recoveryWindows;
+    private final LongSupplier poolWaitNanos;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder rejectedInWindow = new LongAdder();
+    private final Counter rejections;
+    private final Counter increases;
+    private final Counter decreases;
+    private final Counter holds;
+
+    private volatile int limit;
+    private volatile long lastPoolWaitNanos;
+    private volatile boolean saturated;
+    private boolean applicationReady;
+    private int healthyWindows;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration poolWaitThreshold,
+                             int recoveryWindows, LongSupplier poolWaitNanos, ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.poolWaitThresholdNanos = poolWaitThreshold.toNanos();
+        this.recoveryWindows = recoveryWindows;
+        this.poolWaitNanos = poolWaitNanos;
+        this.eventPublisher = eventPublisher;
+        this.rejections = Counter.builder("tennis.adaptive-limit.rejections")
+                .description("Requests rejected because the adaptive concurrency limit was reached")
+                .register(meterRegistry);
+        this.increases = decisions(meterRegistry, "increase");
+        this.decreases = decisions(meterRegistry, "decrease");
+        this.holds = decisions(meterRegistry, "hold");
+        Gauge.builder("tennis.adaptive-limit.limit", this, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("tennis.adaptive-limit.in-flight", this, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently executing under the adaptive limit")
+                .register(meterRegistry);
+        Gauge.builder("tennis.adaptive-limit.pool-wait", this, limiter -> limiter.lastPoolWaitNanos / 1_000_000.0)
+                .description("Average connection pool wait over the last window, in milliseconds")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("tennis.adaptive-limit.saturated", this, limiter -> limiter.saturated ? 1 : 0)
+                .description("1 while the instance reports itself saturated and refuses traffic")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tente de démarrer une requête. Chaque acquisition réussie doit être suivie d'un appel à release().
+     *
+     * @return true si la requête peut s'exécuter, false si la limite est atteinte.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejectedInWindow.increment();
+                rejections.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Clôt la fenêtre en cours : ajuste la limite et, si besoin, l'état de disponibilité de l'instance.
+     */
+    synchronized void evaluate() {
+        long poolWait = poolWaitNanos.getAsLong();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        long rejected = rejectedInWindow.sumThenReset();
+        lastPoolWaitNanos = poolWait;
+
+        boolean congested = poolWait > poolWaitThresholdNanos;
+        if (congested) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+            decreases.increment();
+        } else if (peak * 2 >= limit && limit < maxLimit) {
+            limit++;
+            increases.increment();
+        } else {
+            holds.increment();
+        }
+
+        if (congested || rejected > 0) {
+            healthyWindows = 0;
+            if (!saturated) {
+                saturated = true;
+                log.warn("Instance saturated (pool wait {} ms, {} rejected), limit now {}, refusing traffic",
+                        poolWait / 1_000_000, rejected, limit);
+                if (applicationReady) {
+                    AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+                }
+            }
+        } else if (saturated && ++healthyWindows >= recoveryWindows) {
+            saturated = false;
+            log.info("Instance recovered, limit now {}, accepting traffic", limit);
+            if (applicationReady) {
+                AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+            }
+        }
+    }
+
+    /**
+     * Note que l'application est prête, à la première publication d'ACCEPTING_TRAFFIC par une autre source.
+     */
+    @EventListener
+    public synchronized void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getSource() == this || event.getState() != ReadinessState.ACCEPTING_TRAFFIC || applicationReady) {
+            return;
+        }
+        applicationReady = true;
+        if (saturated) {
+            log.warn("Application ready while saturated, refusing traffic until the limiter recovers");
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    boolean isSaturated() {
+        return saturated;
+    }
+
+    private static Counter decisions(MeterRegistry meterRegistry, String decision) {
+        return Counter.builder("tennis.adaptive-limit.decisions")
+                .description("Adaptive limit evaluations, by decision taken")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+}
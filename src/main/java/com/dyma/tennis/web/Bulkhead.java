@@ -0,0 +1,89 @@
+package com.dyma.tennis.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cloison isolant une famille de requêtes : au plus maxConcurrent requêtes s'exécutent en même temps
+ * et au plus maxQueue attendent, pendant maxWait au maximum. Au-delà, la requête est refusée immédiatement.
+ * L'attente est bloquante : une requête en file garde son thread Tomcat dans Semaphore.tryAcquire jusqu'à maxWait.
+ * Utilisée pour les lectures, qui partagent le pool de connexions principal avec les autres points d'entrée
+ * (/changes, /accounts, actuator) et les tâches de fond ; les écritures ont leur propre pool (WriteExecutor).
+ */
+class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejections;
+
+    Bulkhead(String name, int maxConcurrent, int maxQueue, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.rejections = Counter.builder("tennis.bulkhead.rejections")
+                .description("Requests rejected because the bulkhead was saturated")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("tennis.bulkhead.active", this, Bulkhead::getActiveCount)
+                .description("Requests currently executing in the bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("tennis.bulkhead.queued", this, Bulkhead::getQueuedCount)
+                .description("Requests waiting to enter the bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tente d'entrer dans la cloison. Chaque entrée réussie doit être suivie d'un appel à release().
+     *
+     * @return true si la requête peut s'exécuter, false si la cloison est saturée.
+     */
+    boolean tryEnter() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejections.increment();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            rejections.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getActiveCount() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    int getQueuedCount() {
+        return queued.get();
+    }
+}
@@ -0,0 +1,73 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.model.Error;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Cloison des lectures sur /players et /tournaments : au plus max-concurrent lectures s'exécutent en même temps,
+ * les suivantes attendent en file (en bloquant leur thread, voir Bulkhead) et, la file pleine, reçoivent 503 immédiatement.
+ * Les écritures (POST, PUT et DELETE, réservées à ROLE_ADMIN) ne passent pas par ce filtre : elles ont leur propre
+ * pool de threads et de connexions (WriteExecutor), des écritures lentes ne peuvent donc pas priver les lectures de threads.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Logger log = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    private final Bulkhead readBulkhead;
+    private final ObjectMapper objectMapper;
+
+    BulkheadFilter(Bulkhead readBulkhead, ObjectMapper objectMapper) {
+        this.readBulkhead = readBulkhead;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return (!path.startsWith("/players") && !path.startsWith("/tournaments")) || isWrite(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean entered;
+        try {
+            entered = readBulkhead.tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+
+        if (!entered) {
+            log.warn("Bulkhead {} is saturated, rejecting {} {}", readBulkhead.getName(), request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new Error("Service is saturated, retry later"));
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            readBulkhead.release();
+        }
+    }
+
+    private boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.POST.matches(method) || HttpMethod.PUT.matches(method) || HttpMethod.DELETE.matches(method);
+    }
+}
@@ -0,0 +1,40 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.model.Changes;
+import com.dyma.tennis.service.ChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Changes API")
+@RestController
+@RequestMapping("/changes")
+public class ChangeController {
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Operation(summary = "Finds changes since a version",
+            description = "Finds players, tournaments and registrations created, updated or deleted after the given version, at most 1000 per page",
+            security = {@SecurityRequirement(name = "bearerAuth")})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes and the version to pass as since on the next call",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Changes.class))}),
+            @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
+    })
+    @GetMapping
+    public Changes list(@RequestParam(name = "since", defaultValue = "0") long since,
+                        @RequestParam(name = "limit", defaultValue = "500") int limit) {
+        return changeFeed.since(since, limit);
+    }
+}
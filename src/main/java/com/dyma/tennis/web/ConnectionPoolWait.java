@@ -0,0 +1,43 @@
+package com.dyma.tennis.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Attente moyenne pour obtenir une connexion du pool depuis l'appel précédent, en nanosecondes.
+ * Lue dans le timer hikaricp.connections.acquire publié par HikariCP pour le pool des lectures ("reads") :
+ * le pool des écritures, réservé à WriteExecutor, n'est pas un signal de saturation des lectures.
+ * 0 si le pool n'est pas encore instrumenté ou si aucune connexion n'a été demandée depuis l'appel précédent.
+ */
+class ConnectionPoolWait implements LongSupplier {
+
+    private static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
+    private static final String POOL = "reads";
+
+    private final MeterRegistry meterRegistry;
+
+    private long lastCount;
+    private double lastTotalNanos;
+
+    ConnectionPoolWait(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public synchronized long getAsLong() {
+        Timer timer = meterRegistry.find(ACQUIRE_TIMER).tag("pool", POOL).timer();
+        if (timer == null) {
+            return 0;
+        }
+        long count = timer.count();
+        double totalNanos = timer.totalTime(TimeUnit.NANOSECONDS);
+        long acquisitions = count - lastCount;
+        double waitNanos = totalNanos - lastTotalNanos;
+        lastCount = count;
+        lastTotalNanos = totalNanos;
+        return acquisitions <= 0 ? 0 : (long) (waitNanos / acquisitions);
+    }
+}
@@ -0,0 +1,312 @@
+package com.dyma.tennis.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Flux Server-Sent Events diffusé aux abonnés d'un sujet (tout le classement, un tournoi).
+ * Les connexions sont des requêtes asynchrones : aucune ne garde de thread, et un événement publié est seulement
+ * déposé dans la file de chaque abonné du sujet. Un exécuteur partagé (sender) vide ces files.
+ * La file d'un abonné ne garde que le dernier état de chaque clé : un abonné lent reçoit moins d'événements,
+ * mais toujours l'état le plus récent. Au-delà de maxPending clés en attente, la file est vidée et l'abonné reçoit
+ * un événement resync : il doit recharger l'état complet par l'API.
+ * Un envoi bloque sur la socket du client : un abonné dont la file n'est pas vidée en sendTimeout
+ * (client bloqué, réseau saturé) est déconnecté au battement de cœur suivant.
+ */
+class EventStream {
+
+    static final String RESYNC = "resync";
+
+    private final Logger log = LoggerFactory.getLogger(EventStream.class);
+
+    private final String name;
+    private final int maxPending;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Executor sender;
+    private final LongSupplier nanoClock;
+    private final Map<String, Set<Subscriber>> subscribersByTopic = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter published;
+    private final Counter sent;
+    private final Counter coalesced;
+    private final Counter overflowed;
+    private final Counter evicted;
+
+    EventStream(String name, int maxPending, Duration timeout, Duration sendTimeout, Executor sender, LongSupplier nanoClock,
+                MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxPending = maxPending;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.sender = sender;
+        this.nanoClock = nanoClock;
+        Gauge.builder("tennis.live-stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Connected Server-Sent Events subscribers")
+                .tag("stream", name)
+                .register(meterRegistry);
+        this.published = Counter.builder("tennis.live-stream.published")
+                .description("Events published to a stream, before fan-out")
+                .tag("stream", name)
+                .register(meterRegistry);
+        this.sent = Counter.builder("tennis.live-stream.sent")
+                .description("Events written to subscribers")
+                .tag("stream", name)
+                .register(meterRegistry);
+        this.coalesced = dropped(meterRegistry, "coalesced");
+        this.overflowed = dropped(meterRegistry, "overflow");
+        this.evicted = Counter.builder("tennis.live-stream.evicted")
+                .description("Subscribers disconnected because their pending events were not sent within the send timeout")
+                .tag("stream", name)
+                .register(meterRegistry);
+    }
+
+    private Counter dropped(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("tennis.live-stream.dropped")
+                .description("Events never written to a subscriber: replaced by a newer state, or discarded before a resync")
+                .tag("stream", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abonne un client au sujet ; il reçoit les événements publiés à partir de maintenant.
+     */
+    SseEmitter subscribe(String topic) {
+        return subscribe(topic, null, null, null);
+    }
+
+    /**
+     * Abonne un client au sujet en lui envoyant d'abord un état initial, remplacé si un état plus récent
+     * de même clé est publié avant son envoi.
+     */
+    SseEmitter subscribe(String topic, String eventName, String key, Object initialState) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(topic, emitter);
+        if (initialState != null) {
+            // En file avant l'enregistrement : un état publié entre-temps le remplace, jamais l'inverse
+            subscriber.enqueue(eventName + ':' + key, new Event(eventName, initialState));
+        }
+        subscriberCount.incrementAndGet();
+        subscribersByTopic.compute(topic, (existingTopic, subscribers) -> {
+            Set<Subscriber> topicSubscribers = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            topicSubscribers.add(subscriber);
+            return topicSubscribers;
+        });
+        // Câblés une fois l'abonné enregistré : une fin, même précoce, le retire toujours du sujet
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscriber.close());
+        subscriber.start();
+        log.debug("New {} subscriber on {}", name, topic);
+        return emitter;
+    }
+
+    /**
+     * Dépose un événement dans la file de chaque abonné du sujet, sans attendre son envoi.
+     *
+     * @param key La clé de l'état décrit : un événement de même clé encore en attente est remplacé.
+     */
+    void publish(String topic, String eventName, String key, Object data) {
+        published.increment();
+        Set<Subscriber> subscribers = subscribersByTopic.get(topic);
+        if (subscribers != null) {
+            Event event = new Event(eventName, data);
+            subscribers.forEach(subscriber -> subscriber.offer(eventName + ':' + key, event));
+        }
+    }
+
+    /**
+     * Envoie un commentaire SSE à tous les abonnés : garde les connexions ouvertes à travers les proxys
+     * et détecte les clients partis. Déconnecte les abonnés dont la file attend depuis plus de sendTimeout.
+     */
+    void heartbeat() {
+        long now = nanoClock.getAsLong();
+        subscribersByTopic.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            if (subscriber.isStalled(now)) {
+                subscriber.evict();
+            } else {
+                subscriber.offer(null, null);
+            }
+        }));
+    }
+
+    boolean hasSubscribers(String topic) {
+        return subscribersByTopic.containsKey(topic);
+    }
+
+    private record Event(String name, Object data) {
+    }
+
+    private final class Subscriber {
+
+        private final String topic;
+        private final SseEmitter emitter;
+        // Dernier événement de chaque clé en attente d'envoi, dans l'ordre de première publication
+        private final LinkedHashMap<String, Event> pending = new LinkedHashMap<>();
+        private boolean resync;
+        private boolean heartbeat;
+        private boolean draining;
+        private boolean closed;
+        // Début de l'envoi en cours ou de l'attente d'un thread d'envoi, 0 au repos
+        private long busySince;
+
+        Subscriber(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Met un événement en file sans lancer d'envoi, pour l'état initial d'un abonné pas encore enregistré.
+         */
+        synchronized void enqueue(String key, Event event) {
+            pending.put(key, event);
+        }
+
+        /**
+         * @param key Null pour un battement de cœur.
+         */
+        void offer(String key, Event event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (key == null) {
+                    heartbeat = true;
+                } else if (pending.put(key, event) != null) {
+                    coalesced.increment();
+                }
+                if (pending.size() > maxPending) {
+                    overflowed.increment(pending.size());
+                    pending.clear();
+                    resync = true;
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+                busySince = nanoClock.getAsLong();
+            }
+            schedule();
+        }
+
+        /**
+         * Envoie l'état initial mis en file avant l'enregistrement.
+         */
+        void start() {
+            synchronized (this) {
+                if (closed || draining || pending.isEmpty()) {
+                    return;
+                }
+                draining = true;
+                busySince = nanoClock.getAsLong();
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Arrêt en cours
+                close();
+            }
+        }
+
+        /**
+         * Envoie les événements en attente ; un seul drain à la fois par abonné, les événements publiés pendant
+         * l'envoi sont pris au tour suivant.
+         */
+        private void drain() {
+            while (true) {
+                List<Event> events;
+                boolean sendResync;
+                boolean sendHeartbeat;
+                synchronized (this) {
+                    if (closed || (pending.isEmpty() && !resync && !heartbeat)) {
+                        draining = false;
+                        busySince = 0;
+                        return;
+                    }
+                    busySince = nanoClock.getAsLong();
+                    events = new ArrayList<>(pending.values());
+                    pending.clear();
+                    sendResync = resync;
+                    sendHeartbeat = heartbeat;
+                    resync = false;
+                    heartbeat = false;
+                }
+                try {
+                    if (sendHeartbeat) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    if (sendResync) {
+                        emitter.send(SseEmitter.event().name(RESYNC).data(topic));
+                    }
+                    for (Event event : events) {
+                        emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+                    }
+                    sent.increment(events.size());
+                } catch (IOException | IllegalStateException e) {
+                    // Client parti ou flux terminé : le conteneur termine la requête asynchrone
+                    log.debug("Dropping {} subscriber on {}: {}", name, topic, e.getMessage());
+                    close();
+                }
+            }
+        }
+
+        synchronized boolean isStalled(long now) {
+            return draining && !closed && now - busySince > sendTimeoutNanos;
+        }
+
+        /**
+         * Déconnecte un abonné bloqué. L'envoi en cours ne rend son thread qu'au délai d'écriture du conteneur,
+         * mais l'abonné ne reçoit plus rien et la requête asynchrone est terminée dès qu'elle peut l'être.
+         */
+        void evict() {
+            log.debug("Evicting stalled {} subscriber on {}", name, topic);
+            evicted.increment();
+            close();
+            try {
+                // complete() attend la fin de l'envoi bloqué : hors du thread des battements de cœur
+                sender.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // Arrêt en cours
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            // Le sujet disparaît avec son dernier abonné, atomiquement avec un abonnement concurrent
+            subscribersByTopic.computeIfPresent(topic, (existingTopic, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            subscriberCount.decrementAndGet();
+        }
+    }
+}
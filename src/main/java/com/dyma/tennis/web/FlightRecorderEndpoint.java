@@ -0,0 +1,156 @@
+package com.dyma.tennis.web;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Endpoint actuator /actuator/jfr (réservé aux administrateurs) pour piloter Java Flight Recorder en production :
+ * GET liste les enregistrements, POST en démarre un, POST /{id} l'arrête, GET /{id} télécharge le fichier .jfr
+ * et DELETE /{id} le supprime. Chaque enregistrement est borné en durée et en taille.
+ */
+@Component
+@Lazy
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private final Logger log = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+
+    private final Path directory;
+    private final String defaultSettings;
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+
+    public FlightRecorderEndpoint(@Value("${jfr.directory}") Path directory,
+                                  @Value("${jfr.default-settings}") String defaultSettings,
+                                  @Value("${jfr.max-duration}") Duration maxDuration,
+                                  @Value("${jfr.max-size}") DataSize maxSize) {
+        this.directory = directory;
+        this.defaultSettings = defaultSettings;
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+    }
+
+    @ReadOperation
+    public List<RecordingDescription> recordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .map(RecordingDescription::of)
+                .toList();
+    }
+
+    /**
+     * Démarre un enregistrement.
+     *
+     * @param name     Nom libre de l'enregistrement.
+     * @param settings Configuration JFR ("default" ou "profile").
+     * @param duration Durée avant arrêt automatique, plafonnée par jfr.max-duration.
+     */
+    @WriteOperation
+    public RecordingDescription start(@Nullable String name, @Nullable String settings, @Nullable Duration duration) {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings == null ? defaultSettings : settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings " + settings, e);
+        }
+        recording.setName(name == null ? "dyma-tennis" : name);
+        recording.setDuration(duration == null || duration.compareTo(maxDuration) > 0 ? maxDuration : duration);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.setToDisk(true);
+        recording.start();
+        log.info("Started JFR recording {} ({})", recording.getId(), recording.getName());
+        return RecordingDescription.of(recording);
+    }
+
+    @WriteOperation
+    public RecordingDescription stop(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording {}", id);
+        }
+        return RecordingDescription.of(recording);
+    }
+
+    /**
+     * Télécharge l'enregistrement : un instantané s'il est encore en cours, le fichier complet sinon.
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource download(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return null;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path file = dumpFile(id);
+            recording.dump(file);
+            return new FileSystemResource(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DeleteOperation
+    public RecordingDescription delete(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return null;
+        }
+        RecordingDescription description = RecordingDescription.of(recording);
+        recording.close();
+        try {
+            Files.deleteIfExists(dumpFile(id));
+        } catch (IOException e) {
+            log.warn("Couldn't delete dump of JFR recording {}", id, e);
+        }
+        log.info("Closed JFR recording {}", id);
+        return description;
+    }
+
+    private Path dumpFile(long id) {
+        return directory.resolve("recording-" + id + ".jfr");
+    }
+
+    private Recording find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst()
+                .orElse(null);
+    }
+
+    public record RecordingDescription(long id, String name, String state, Instant startTime, Duration duration,
+                                       long size) {
+        static RecordingDescription of(Recording recording) {
+            return new RecordingDescription(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getDuration(), recording.getSize());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.model.RankedPlayer;
+import com.dyma.tennis.model.RegistrationUpdate;
+import com.dyma.tennis.model.Tournament;
+import com.dyma.tennis.service.RankingChanged;
+import com.dyma.tennis.service.RankingTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flux SSE des changements de classement (/players/stream) et des inscriptions à un tournoi (/tournaments/{id}/stream).
+ * Les rangs sont publiés une fois le recalcul validé, un événement rank par joueur dont le rang ou les points ont changé ;
+ * les inscriptions, un événement registration avec le nombre d'inscrits et les places restantes.
+ * Les changements faits par les autres instances arrivent par les notifications de changement (ChangeListener).
+ */
+@Component
+public class LiveStreams implements DisposableBean {
+
+    static final String RANKING_TOPIC = "ranking";
+
+    private final RankingTable rankingTable;
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat;
+    private final EventStream rankings;
+    private final EventStream registrations;
+
+    public LiveStreams(@Value("${live-stream.max-pending}") int maxPending,
+                       @Value("${live-stream.timeout}") Duration timeout,
+                       @Value("${live-stream.send-timeout}") Duration sendTimeout,
+                       @Value("${live-stream.heartbeat}") Duration heartbeatInterval,
+                       RankingTable rankingTable,
+                       MeterRegistry meterRegistry) {
+        this.rankingTable = rankingTable;
+        // Un envoi bloque sur la socket du client : un thread virtuel par envoi, un client bloqué ne retient que le sien
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("live-stream-", 1).factory());
+        this.rankings = new EventStream("ranking", maxPending, timeout, sendTimeout, sender, System::nanoTime, meterRegistry);
+        this.registrations = new EventStream("registration", maxPending, timeout, sendTimeout, sender, System::nanoTime, meterRegistry);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(() -> {
+            rankings.heartbeat();
+            registrations.heartbeat();
+        }, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribeRankings() {
+        // Les écarts de rang sont calculés par rapport à la table chargée : elle doit l'être
+        rankingTable.size();
+        return rankings.subscribe(RANKING_TOPIC);
+    }
+
+    /**
+     * @param tournament Le tournoi, dont l'état courant est envoyé en premier.
+     */
+    public SseEmitter subscribeRegistrations(Tournament tournament) {
+        int registeredPlayers = tournament.players().size();
+        RegistrationUpdate current = new RegistrationUpdate(tournament.info().identifier(), null, registeredPlayers,
+                Math.max(0, tournament.info().capacity() - registeredPlayers));
+        return registrations.subscribe(tournament.info().identifier().toString(), "registration", "state", current);
+    }
+
+    @EventListener
+    public void onRankingChanged(RankingChanged event) {
+        if (!rankings.hasSubscribers(RANKING_TOPIC)) {
+            return;
+        }
+        for (RankedPlayer player : event.changes()) {
+            rankings.publish(RANKING_TOPIC, "rank", player.identifier().toString(), player);
+        }
+    }
+
+    @EventListener
+    public void onRegistration(RegistrationUpdate update) {
+        registrations.publish(update.tournamentIdentifier().toString(), "registration", "state", update);
+    }
+
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+    }
+}
@@ -3,6 +3,8 @@ package com.dyma.tennis.web;
 import com.dyma.tennis.model.Player;
 import com.dyma.tennis.model.PlayerToCreate;
 import com.dyma.tennis.model.PlayerToUpdate;
+import com.dyma.tennis.model.Rank;
+import com.dyma.tennis.model.RankedPlayer;
 import com.dyma.tennis.service.PlayerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
@@ -16,7 +18,10 @@ import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -30,6 +35,13 @@ public class PlayerController {
 
     @Autowired
     private PlayerService playerService;
+
+    @Autowired
+    private LiveStreams liveStreams;
+
+    @Autowired
+    private WriteExecutor writeExecutor;
+
     @Operation(summary = "Finds players", description = "Finds players", security = {@SecurityRequirement(name = "bearerAuth")})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Players list",
@@ -43,6 +55,48 @@ public class PlayerController {
         return playerService.getAllPlayers();
     }
 
+    @Operation(summary = "Streams rank changes",
+            description = "Server-Sent Events: a rank event per player whose rank or points changed after each ranking recompute, "
+                    + "a resync event when changes were dropped and players must be reloaded",
+            security = {@SecurityRequirement(name = "bearerAuth")})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rank changes",
+                    content = {@Content(mediaType = "text/event-stream",
+                            schema = @Schema(implementation = RankedPlayer.class))}),
+            @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(){
+        return liveStreams.subscribeRankings();
+    }
+
+    @Operation(summary = "Finds players by rank", description = "Finds players ranked between rankFrom and rankTo, at most 1000", security = {@SecurityRequirement(name = "bearerAuth")})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranked players",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema (schema = @Schema(implementation = RankedPlayer.class)))}),
+            @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
+    })
+    @GetMapping(params = {"rankFrom", "rankTo"})
+    public List<RankedPlayer> listByRank(@RequestParam("rankFrom") int rankFrom, @RequestParam("rankTo") int rankTo){
+        return playerService.getByRankRange(rankFrom, rankTo);
+    }
+
+    @Operation(summary = "Finds the rank of a player", description = "Finds the rank of a player", security = {@SecurityRequirement(name = "bearerAuth")})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rank",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Rank.class))}),
+            @ApiResponse(responseCode = "404", description = "Player with identifier wasn't found",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Error.class))}),
+            @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
+    })
+    @GetMapping("{identifier}/rank")
+    public Rank getRank(@PathVariable("identifier") UUID identifier){
+        return playerService.getRank(identifier);
+    }
+
     @Operation(summary = "Finds a player with lastName", description = "Finds a player", security = {@SecurityRequirement(name = "bearerAuth")})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Player",
@@ -72,8 +126,8 @@ public class PlayerController {
             @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
     })
     @PostMapping
-    public Player createPlayer(@RequestBody @Valid PlayerToCreate playerToCreate){
-        return playerService.create(playerToCreate);
+    public WebAsyncTask<Player> createPlayer(@RequestBody @Valid PlayerToCreate playerToCreate){
+        return writeExecutor.submit(() -> playerService.create(playerToCreate));
     }
 
     @Operation(summary = "Updates a player", description = "Updates a player", security = {@SecurityRequirement(name = "bearerAuth")})
@@ -87,8 +141,8 @@ public class PlayerController {
             @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
     })
     @PutMapping
-    public Player updatePlayer(@RequestBody @Valid PlayerToUpdate playerToUpdate){
-        return playerService.update(playerToUpdate);
+    public WebAsyncTask<Player> updatePlayer(@RequestBody @Valid PlayerToUpdate playerToUpdate){
+        return writeExecutor.submit(() -> playerService.update(playerToUpdate));
     }
 
     @Operation(summary = "Deletes a player", description = "Deletes a player", security = {@SecurityRequirement(name = "bearerAuth")})
@@ -100,7 +154,10 @@ public class PlayerController {
             @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
     })
     @DeleteMapping("{identifier}")
-    public void DeletePlayerByLastName(@PathVariable("identifier") UUID identifier){
-        playerService.delete(identifier);
+    public WebAsyncTask<Void> DeletePlayerByLastName(@PathVariable("identifier") UUID identifier){
+        return writeExecutor.submit(() -> {
+            playerService.delete(identifier);
+            return null;
+        });
     }
 }
@@ -0,0 +1,36 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.service.PlayerViewTable;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Endpoint actuator /actuator/playerview (réservé aux administrateurs) pour contrôler la vue des joueurs :
+ * GET compare le nombre de joueurs et de lignes de la vue, POST reconstruit la vue depuis les tables sources
+ * pour réparer une incohérence.
+ */
+@Component
+@Lazy
+@Endpoint(id = "playerview")
+public class PlayerViewEndpoint {
+
+    private final PlayerViewTable playerViewTable;
+
+    public PlayerViewEndpoint(PlayerViewTable playerViewTable) {
+        this.playerViewTable = playerViewTable;
+    }
+
+    @ReadOperation
+    public PlayerViewTable.Status status() {
+        return playerViewTable.status();
+    }
+
+    @WriteOperation
+    public PlayerViewTable.Status rebuild() {
+        playerViewTable.rebuild();
+        return playerViewTable.status();
+    }
+}
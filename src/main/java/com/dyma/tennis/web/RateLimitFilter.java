@@ -0,0 +1,163 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.model.Error;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite le débit de chaque client pour protéger la base de données.
+ * Les utilisateurs authentifiés sont identifiés par leur nom (claim jwt.auth.principal-attribute),
+ * les demandes de token par l'adresse IP. Lectures, écritures et demandes de token ont chacune leur budget.
+ * Le filtre est placé après la chaîne Spring Security pour connaître l'utilisateur authentifié.
+ * Les seaux pleins sont supprimés toutes les 30 secondes par un thread dédié, jamais par un thread de requête.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String TOKEN_PATH = "/accounts/token";
+    private static final long SWEEP_INTERVAL_SECONDS = 30;
+
+    private final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final String principalAttribute;
+    private final RateLimiter readLimiter;
+    private final RateLimiter writeLimiter;
+    private final RateLimiter tokenLimiter;
+    private final ObjectMapper objectMapper;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+    private final Counter tokenRejections;
+
+    private ScheduledExecutorService sweeper;
+
+    RateLimitFilter(String principalAttribute, RateLimiter readLimiter, RateLimiter writeLimiter,
+                    RateLimiter tokenLimiter, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.principalAttribute = principalAttribute;
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.tokenLimiter = tokenLimiter;
+        this.objectMapper = objectMapper;
+        this.readRejections = rejectionCounter(meterRegistry, "read");
+        this.writeRejections = rejectionCounter(meterRegistry, "write");
+        this.tokenRejections = rejectionCounter(meterRegistry, "token");
+        bucketGauge(meterRegistry, "read", readLimiter);
+        bucketGauge(meterRegistry, "write", writeLimiter);
+        bucketGauge(meterRegistry, "token", tokenLimiter);
+    }
+
+    @Override
+    protected void initFilterBean() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::sweepQuietly, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    void sweep() {
+        readLimiter.sweep();
+        writeLimiter.sweep();
+        tokenLimiter.sweep();
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            // Une exception arrêterait les ménages suivants
+            log.error("Rate limiter sweep failed", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos;
+        Counter rejections;
+        if (TOKEN_PATH.equals(request.getServletPath())) {
+            waitNanos = tokenLimiter.tryAcquire(request.getRemoteAddr());
+            rejections = tokenRejections;
+        } else if (isRead(request)) {
+            waitNanos = readLimiter.tryAcquire(clientKey(request));
+            rejections = readRejections;
+        } else {
+            waitNanos = writeLimiter.tryAcquire(clientKey(request));
+            rejections = writeRejections;
+        }
+
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejections.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.debug("Rejecting {} {} for client {}, retry after {}s", request.getMethod(), request.getRequestURI(), clientKey(request), retryAfterSeconds);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new Error("Too many requests, retry after " + retryAfterSeconds + " seconds"));
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            String principal = jwtAuthentication.getToken().getClaimAsString(principalAttribute);
+            if (principal != null) {
+                return "user:" + principal;
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String budget) {
+        return Counter.builder("tennis.rate-limit.rejections")
+                .description("Requests rejected because the client exceeded its budget")
+                .tag("budget", budget)
+                .register(meterRegistry);
+    }
+
+    private static void bucketGauge(MeterRegistry meterRegistry, String budget, RateLimiter rateLimiter) {
+        Gauge.builder("tennis.rate-limit.buckets", rateLimiter, RateLimiter::size)
+                .description("Clients currently tracked by the rate limiter")
+                .tag("budget", budget)
+                .register(meterRegistry);
+        FunctionCounter.builder("tennis.rate-limit.evictions", rateLimiter, RateLimiter::evictions)
+                .description("Least recently seen clients forgotten because too many clients are tracked")
+                .tag("budget", budget)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,108 @@
+package com.dyma.tennis.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Budget de requêtes par client : un seau à jetons par clé (utilisateur ou adresse IP).
+ * Les seaux sont répartis sur plusieurs segments LRU (LinkedHashMap en ordre d'accès), chacun protégé par son propre verrou.
+ * Au-delà de maxBuckets clients suivis, le client le moins récemment vu de son segment est oublié :
+ * la mémoire reste bornée et chaque nouveau client garde son propre seau, même face à un client qui change de clé à chaque requête.
+ * Le ménage des seaux pleins est fait par {@link #sweep()}, appelé hors du chemin des requêtes.
+ */
+class RateLimiter {
+
+    private static final int MAX_SEGMENTS = 64;
+
+    private final int capacity;
+    private final double refillPerSecond;
+    private final LongSupplier nanoClock;
+
+    private final Segment[] segments;
+    private final LongAdder evictions = new LongAdder();
+
+    RateLimiter(int capacity, double refillPerSecond, int maxBuckets, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.nanoClock = nanoClock;
+        int segmentCount = Math.max(1, Math.min(MAX_SEGMENTS, maxBuckets));
+        int segmentCapacity = Math.max(1, maxBuckets / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * @param key Le client à limiter.
+     * @return 0 si la requête est admise, sinon le délai en nanosecondes avant de pouvoir réessayer.
+     */
+    long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        Segment segment = segmentFor(key);
+        TokenBucket bucket;
+        synchronized (segment) {
+            bucket = segment.get(key);
+            if (bucket == null) {
+                bucket = new TokenBucket(capacity, refillPerSecond, now);
+                segment.put(key, bucket);
+            }
+        }
+        return bucket.tryConsume(now);
+    }
+
+    /**
+     * Supprime les seaux pleins, identiques à des seaux neufs. Les segments sont verrouillés l'un après l'autre.
+     */
+    void sweep() {
+        long now = nanoClock.getAsLong();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.values().removeIf(bucket -> bucket.isFull(now));
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return Le nombre de clients oubliés parce que trop de clients étaient suivis.
+     */
+    long evictions() {
+        return evictions.sum();
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    private final class Segment extends LinkedHashMap<String, TokenBucket> {
+
+        private final int maxSize;
+
+        Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.model.Error;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Répond 503 aux écritures refusées par WriteExecutor, comme les filtres de délestage le font pour les lectures.
+ */
+@RestControllerAdvice
+public class SaturationErrorHandler {
+
+    private final Logger log = LoggerFactory.getLogger(SaturationErrorHandler.class);
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Error> handleTaskRejectedException(TaskRejectedException ex, HttpServletRequest request) {
+        log.warn("Bulkhead write is saturated, rejecting {} {}", request.getMethod(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new Error("Service is saturated, retry later"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.timing.ServerTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Ouvre un collecteur ServerTiming pour chaque requête HTTP et renvoie ses phases dans l'en-tête Server-Timing
+ * (svc;dur=..., repo;dur=..., map;dur=..., ser;dur=..., total;dur=...), à côté de l'entrée db de SqlStatisticsFilter.
+ * Les phases se recouvrent : svc inclut repo et map, repo inclut le temps JDBC.
+ * Une écriture (WriteExecutor) se termine dans un dispatch asynchrone : le collecteur, gardé en attribut de requête,
+ * y est rattaché et l'en-tête n'est écrit qu'à ce moment.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final String TIMING_ATTRIBUTE = ServerTimingFilter.class.getName() + ".timing";
+    private static final String WRAPPER_ATTRIBUTE = ServerTimingFilter.class.getName() + ".wrapper";
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        ServerTiming timing;
+        ServerTimingResponseWrapper wrappedResponse;
+        if (isAsyncDispatch(request)) {
+            // La réponse reçue est celle du premier dispatch, qui contient déjà l'enveloppe
+            timing = (ServerTiming) request.getAttribute(TIMING_ATTRIBUTE);
+            wrappedResponse = (ServerTimingResponseWrapper) request.getAttribute(WRAPPER_ATTRIBUTE);
+            ServerTiming.resume(timing);
+        } else {
+            timing = ServerTiming.begin();
+            wrappedResponse = new ServerTimingResponseWrapper(response, timing::header);
+            request.setAttribute(TIMING_ATTRIBUTE, timing);
+            request.setAttribute(WRAPPER_ATTRIBUTE, wrappedResponse);
+        }
+        try {
+            filterChain.doFilter(request, isAsyncDispatch(request) ? response : wrappedResponse);
+            if (!request.isAsyncStarted()) {
+                wrappedResponse.writeServerTiming();
+            }
+        } finally {
+            ServerTiming.end();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.timing.ServerTiming;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Convertisseur JSON de l'application, qui remplace celui de Spring Boot.
+ * Pendant une requête mesurée, le JSON est d'abord écrit en mémoire : la durée de sérialisation (ser)
+ * est ainsi connue avant que la réponse ne parte et figure dans l'en-tête Server-Timing.
+ * Le tampon est borné à maxBuffered octets : au-delà, le JSON part directement au client et ser est omis,
+ * une grosse réponse ne coûte donc jamais plus que ce tampon en mémoire.
+ */
+@Component
+public class ServerTimingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final int maxBuffered;
+
+    public ServerTimingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                    @Value("${server-timing.ser.max-buffered}") DataSize maxBuffered) {
+        super(objectMapper);
+        this.maxBuffered = Math.toIntExact(maxBuffered.toBytes());
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        if (ServerTiming.current() == null || maxBuffered == 0) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        BoundedBuffer buffer = new BoundedBuffer(outputMessage);
+        long start = ServerTiming.start(ServerTiming.Phase.SER);
+        try {
+            super.writeInternal(object, type, new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return buffer;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return outputMessage.getHeaders();
+                }
+            });
+        } finally {
+            if (buffer.streaming()) {
+                ServerTiming.discard(ServerTiming.Phase.SER, start);
+            } else {
+                ServerTiming.stop(ServerTiming.Phase.SER, start);
+            }
+        }
+        buffer.flushBuffered();
+    }
+
+    /**
+     * Garde le JSON en mémoire jusqu'à maxBuffered octets, puis bascule sur le corps de la réponse.
+     */
+    private final class BoundedBuffer extends OutputStream {
+
+        private final HttpOutputMessage outputMessage;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(8192, maxBuffered));
+        private OutputStream body;
+
+        BoundedBuffer(HttpOutputMessage outputMessage) {
+            this.outputMessage = outputMessage;
+        }
+
+        boolean streaming() {
+            return body != null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (body == null && buffer.size() + length > maxBuffered) {
+                body = outputMessage.getBody();
+                buffer.writeTo(body);
+                buffer.reset();
+            }
+            if (body != null) {
+                body.write(bytes, offset, length);
+            } else {
+                buffer.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Le convertisseur vide le générateur à la fin de l'écriture : rien à pousser tant que le JSON tient en mémoire
+            if (body != null) {
+                body.flush();
+            }
+        }
+
+        void flushBuffered() throws IOException {
+            if (body == null) {
+                buffer.writeTo(outputMessage.getBody());
+            }
+        }
+    }
+}
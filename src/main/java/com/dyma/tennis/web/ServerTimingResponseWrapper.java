@@ -0,0 +1,42 @@
+package com.dyma.tennis.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+
+import java.util.function.Supplier;
+
+/**
+ * Ajoute l'en-tête Server-Timing juste avant l'envoi des en-têtes au client,
+ * c'est-à-dire au premier octet du corps ou à la fin de la requête si le corps est vide.
+ */
+class ServerTimingResponseWrapper extends OnCommittedResponseWrapper {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final Supplier<String> serverTiming;
+    private boolean written;
+
+    ServerTimingResponseWrapper(HttpServletResponse response, Supplier<String> serverTiming) {
+        super(response);
+        this.serverTiming = serverTiming;
+    }
+
+    @Override
+    protected void onResponseCommitted() {
+        writeServerTiming();
+    }
+
+    /**
+     * Écrit l'en-tête si ce n'est pas déjà fait et si la réponse n'est pas encore envoyée.
+     */
+    void writeServerTiming() {
+        if (written || isCommitted()) {
+            return;
+        }
+        written = true;
+        String value = serverTiming.get();
+        if (value != null && !value.isEmpty()) {
+            addHeader(SERVER_TIMING, value);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.data.SqlStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compte les requêtes SQL, les lignes et le temps JDBC de chaque requête HTTP.
+ * Le total est renvoyé dans l'en-tête Server-Timing (db;dur=...) et publié par endpoint dans Micrometer.
+ * Une requête HTTP qui dépasse le budget de requêtes SQL, typiquement un N+1 causé par les associations EAGER,
+ * est journalisée et comptée.
+ * Une écriture (WriteExecutor) se termine dans un dispatch asynchrone : les compteurs, gardés en attribut de requête,
+ * ne sont publiés qu'à ce moment, requêtes SQL du thread d'écriture comprises.
+ */
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    private static final String STATISTICS_ATTRIBUTE = SqlStatisticsFilter.class.getName() + ".statistics";
+    private static final String WRAPPER_ATTRIBUTE = SqlStatisticsFilter.class.getName() + ".wrapper";
+
+    private final Logger log = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+
+    private final int queryBudget;
+    private final MeterRegistry meterRegistry;
+    // Compteurs mis en cache par endpoint, comme ServiceMetrics : pas d'enregistrement à chaque requête
+    private final Map<String, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> budgetExceeded = new ConcurrentHashMap<>();
+
+    SqlStatisticsFilter(int queryBudget, MeterRegistry meterRegistry) {
+        this.queryBudget = queryBudget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        SqlStatistics statistics;
+        ServerTimingResponseWrapper wrappedResponse;
+        if (isAsyncDispatch(request)) {
+            // La réponse reçue est celle du premier dispatch, qui contient déjà l'enveloppe
+            statistics = (SqlStatistics) request.getAttribute(STATISTICS_ATTRIBUTE);
+            wrappedResponse = (ServerTimingResponseWrapper) request.getAttribute(WRAPPER_ATTRIBUTE);
+            SqlStatistics.resume(statistics);
+        } else {
+            statistics = SqlStatistics.begin();
+            wrappedResponse = new ServerTimingResponseWrapper(response, () -> serverTiming(statistics));
+            request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+            request.setAttribute(WRAPPER_ATTRIBUTE, wrappedResponse);
+        }
+        try {
+            filterChain.doFilter(request, isAsyncDispatch(request) ? response : wrappedResponse);
+            if (!request.isAsyncStarted()) {
+                wrappedResponse.writeServerTiming();
+            }
+        } finally {
+            SqlStatistics.end();
+            if (!request.isAsyncStarted()) {
+                record(request, statistics);
+            }
+        }
+    }
+
+    private String serverTiming(SqlStatistics statistics) {
+        if (statistics.getStatements() == 0) {
+            return null;
+        }
+        return String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d queries, %d rows\"",
+                statistics.getElapsedNanos() / 1_000_000.0, statistics.getStatements(), statistics.getRows());
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        String method = request.getMethod();
+        String endpoint = method + ' ' + uri;
+
+        EndpointMeters meters = endpointMeters.computeIfAbsent(endpoint, key -> new EndpointMeters(
+                DistributionSummary.builder("tennis.http.sql.statements")
+                        .description("SQL statements executed per HTTP request")
+                        .tags("method", method, "uri", uri)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                DistributionSummary.builder("tennis.http.sql.rows")
+                        .description("Rows read or written per HTTP request")
+                        .tags("method", method, "uri", uri)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                Timer.builder("tennis.http.sql.time")
+                        .description("Time spent in JDBC per HTTP request")
+                        .tags("method", method, "uri", uri)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+        meters.statements().record(statistics.getStatements());
+        meters.rows().record(statistics.getRows());
+        meters.time().record(statistics.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+        if (statistics.getStatements() > queryBudget) {
+            log.warn("{} {} executed {} SQL statements, over the budget of {}: check for N+1 queries",
+                    method, request.getRequestURI(), statistics.getStatements(), queryBudget);
+            budgetExceeded.computeIfAbsent(endpoint, key -> Counter.builder("tennis.http.sql.budget.exceeded")
+                            .description("HTTP requests that executed more SQL statements than the query budget")
+                            .tags("method", method, "uri", uri)
+                            .register(meterRegistry))
+                    .increment();
+        }
+    }
+
+    private record EndpointMeters(DistributionSummary statements, DistributionSummary rows, Timer time) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.dyma.tennis.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seau à jetons sans verrou.
+ * L'état tient dans un seul long : l'instant théorique auquel le seau sera de nouveau plein
+ * (algorithme GCRA, équivalent à un seau à jetons). Une consommation est un simple compareAndSet.
+ */
+class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+
+    // Instant (en nanosecondes) auquel le seau sera de nouveau plein
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.nanosPerToken = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = nanosPerToken * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Tente de consommer un jeton.
+     *
+     * @param nowNanos L'instant courant.
+     * @return 0 si le jeton a été consommé, sinon le délai en nanosecondes avant qu'un jeton soit disponible.
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + nanosPerToken;
+            long waitNanos = next - nowNanos - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Un seau plein est identique à un seau neuf : il peut être supprimé sans changer le comportement.
+     */
+    boolean isFull(long nowNanos) {
+        return fullAt.get() <= nowNanos;
+    }
+}
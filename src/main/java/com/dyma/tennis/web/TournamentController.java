@@ -15,7 +15,10 @@ import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.lang.Error;
 import java.util.List;
@@ -32,6 +35,12 @@ public class TournamentController {
     @Autowired
     private RegistrationService registrationService;
 
+    @Autowired
+    private LiveStreams liveStreams;
+
+    @Autowired
+    private WriteExecutor writeExecutor;
+
     @Operation(summary = "Finds tournaments", description = "Finds tournaments", security = {@SecurityRequirement(name = "bearerAuth")})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Tournaments list",
@@ -60,6 +69,24 @@ public class TournamentController {
         return tournamentService.getByIdentifier(identifier);
     }
 
+    @Operation(summary = "Streams registrations to a tournament",
+            description = "Server-Sent Events: the current registrations first, then a registration event with the registered players "
+                    + "and remaining capacity after each registration",
+            security = {@SecurityRequirement(name = "bearerAuth")})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Registrations",
+                    content = {@Content(mediaType = "text/event-stream",
+                            schema = @Schema(implementation = RegistrationUpdate.class))}),
+            @ApiResponse(responseCode = "404", description = "Tournament with specificed identifier wasn't found",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Error.class))}),
+            @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
+    })
+    @GetMapping(value = "{identifier}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable("identifier") UUID identifier){
+        return liveStreams.subscribeRegistrations(tournamentService.getByIdentifier(identifier));
+    }
+
     @Operation(summary = "Creates a tournament", description = "Creates a tournament", security = {@SecurityRequirement(name = "bearerAuth")})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Created a tournament",
@@ -71,8 +98,8 @@ public class TournamentController {
             @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
     })
     @PostMapping
-    public Tournament createTournament(@RequestBody @Valid TournamentToCreate tournamentToCreate){
-        return tournamentService.create(tournamentToCreate);
+    public WebAsyncTask<Tournament> createTournament(@RequestBody @Valid TournamentToCreate tournamentToCreate){
+        return writeExecutor.submit(() -> tournamentService.create(tournamentToCreate));
     }
 
     @Operation(summary = "Updates a tournament", description = "Updates a tournament", security = {@SecurityRequirement(name = "bearerAuth")})
@@ -86,8 +113,8 @@ public class TournamentController {
             @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
     })
     @PutMapping
-    public Tournament updateTournament(@RequestBody @Valid TournamentToUpdate tournamentToUpdate){
-        return tournamentService.update(tournamentToUpdate);
+    public WebAsyncTask<Tournament> updateTournament(@RequestBody @Valid TournamentToUpdate tournamentToUpdate){
+        return writeExecutor.submit(() -> tournamentService.update(tournamentToUpdate));
     }
 
     @Operation(summary = "Deletes a tournament", description = "Deletes a tournament", security = {@SecurityRequirement(name = "bearerAuth")})
@@ -99,8 +126,11 @@ public class TournamentController {
             @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
     })
     @DeleteMapping("{identifier}")
-    public void DeleteTournament(@PathVariable("identifier") UUID identifier){
-        tournamentService.delete(identifier);
+    public WebAsyncTask<Void> DeleteTournament(@PathVariable("identifier") UUID identifier){
+        return writeExecutor.submit(() -> {
+            tournamentService.delete(identifier);
+            return null;
+        });
     }
 
     @Operation(summary = "Register a player to a tournament", description = "Register a player to a tournament", security = {@SecurityRequirement(name = "bearerAuth")})
@@ -113,8 +143,10 @@ public class TournamentController {
                             schema = @Schema(implementation = Error.class))}),
             @ApiResponse(responseCode = "403", description = "This user isn't authorized to perform this action.")
 })
-    public void register(@PathVariable("tournamentIdentifier") UUID tournamentIdentifier, @PathVariable("playerIdentifier") UUID playerToRegister){
-        registrationService.register(tournamentIdentifier, playerToRegister);
-
+    public WebAsyncTask<Void> register(@PathVariable("tournamentIdentifier") UUID tournamentIdentifier, @PathVariable("playerIdentifier") UUID playerToRegister){
+        return writeExecutor.submit(() -> {
+            registrationService.register(tournamentIdentifier, playerToRegister);
+            return null;
+        });
     }
 }
@@ -0,0 +1,136 @@
+package com.dyma.tennis.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écrit les requêtes capturées dans un fichier NDJSON en ajout seul, depuis un thread dédié :
+ * le thread de la requête ne fait que déposer l'enregistrement dans une file bornée.
+ * Quand la file est pleine, l'enregistrement est abandonné plutôt que de ralentir la requête ;
+ * au-delà de maxBytes, le fichier n'est plus complété. Le thread démarre à la première requête capturée.
+ */
+class TrafficCapture implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long FLUSH_INTERVAL_MILLIS = 200;
+
+    private final Logger log = LoggerFactory.getLogger(TrafficCapture.class);
+
+    private final Path file;
+    private final long maxBytes;
+    private final ObjectWriter writer;
+    private final BlockingQueue<TrafficRecord> queue;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter overMaxSize;
+
+    private Thread thread;
+    private volatile boolean closed;
+
+    TrafficCapture(Path file, long maxBytes, int queueSize, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.writer = objectMapper.writerFor(TrafficRecord.class);
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.written = records(meterRegistry, "written");
+        this.dropped = records(meterRegistry, "dropped");
+        this.overMaxSize = records(meterRegistry, "over-max-size");
+    }
+
+    void record(TrafficRecord record) {
+        if (closed) {
+            return;
+        }
+        startIfNeeded();
+        if (!queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    private synchronized void startIfNeeded() {
+        if (thread == null) {
+            thread = Thread.ofPlatform().name("traffic-capture").daemon().start(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream output = new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), BUFFER_SIZE)) {
+                log.info("Capturing traffic to {}", file);
+                long size = Files.size(file);
+                List<TrafficRecord> batch = new ArrayList<>();
+                while (!closed || !queue.isEmpty()) {
+                    TrafficRecord first = queue.poll(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        output.flush();
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch);
+                    for (TrafficRecord record : batch) {
+                        byte[] line = writer.writeValueAsBytes(record);
+                        if (size + line.length + 1 > maxBytes) {
+                            overMaxSize.increment();
+                            continue;
+                        }
+                        output.write(line);
+                        output.write('\n');
+                        size += line.length + 1;
+                        written.increment();
+                    }
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Traffic capture to {} stopped", file, e);
+            closed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Écrit les enregistrements encore en file puis ferme le fichier.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread current;
+        synchronized (this) {
+            current = thread;
+        }
+        if (current != null) {
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Counter records(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("tennis.traffic-capture.records")
+                .description("Captured requests, by what happened to their record")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
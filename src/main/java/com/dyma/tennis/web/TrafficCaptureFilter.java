@@ -0,0 +1,156 @@
+package com.dyma.tennis.web;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capture le trafic des contrôleurs de l'API (joueurs, tournois, comptes) pour le rejouer ensuite (TrafficReplay).
+ * Placé avant la chaîne de sécurité, il mesure la durée complète de la requête ; le modèle de chemin et le contrôleur
+ * sont relus dans les attributs posés par Spring MVC, l'appelant dans le contexte de sécurité conservé en attribut
+ * de requête. Les requêtes refusées avant d'atteindre un contrôleur (401, 403, 429) ne sont pas capturées.
+ * Seules des métadonnées sont gardées : ni corps, ni en-têtes, ni identité de l'appelant, seulement sa catégorie.
+ */
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private static final Set<Class<?>> CAPTURED_CONTROLLERS = Set.of(PlayerController.class, TournamentController.class, AccountController.class,
+            ChangeController.class);
+
+    private final TrafficCapture trafficCapture;
+
+    TrafficCaptureFilter(TrafficCapture trafficCapture) {
+        this.trafficCapture = trafficCapture;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        ByteCountingResponseWrapper countingResponse = new ByteCountingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                record(request, countingResponse, timestamp, start);
+            } else if (WriteExecutor.isWrite(request)) {
+                // Une écriture répond dans un dispatch asynchrone, qui écrit lui aussi à travers countingResponse
+                request.getAsyncContext().addListener(new RecordOnCompletion(request, countingResponse, timestamp, start));
+            }
+            // Les flux SSE restent ouverts après ce filtre : ils ne se rejouent pas comme une requête
+        }
+    }
+
+    private void record(HttpServletRequest request, ByteCountingResponseWrapper countingResponse, long timestamp, long start) {
+        long durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod
+                && CAPTURED_CONTROLLERS.contains(handlerMethod.getBeanType())) {
+            trafficCapture.record(new TrafficRecord(
+                    timestamp,
+                    request.getMethod(),
+                    (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+                    uriVariables(request),
+                    parameters(request),
+                    principalClass(request),
+                    countingResponse.getStatus(),
+                    durationMicros,
+                    request.getContentLengthLong(),
+                    countingResponse.getCount()));
+        }
+    }
+
+    private class RecordOnCompletion implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final ByteCountingResponseWrapper countingResponse;
+        private final long timestamp;
+        private final long start;
+
+        RecordOnCompletion(HttpServletRequest request, ByteCountingResponseWrapper countingResponse, long timestamp, long start) {
+            this.request = request;
+            this.countingResponse = countingResponse;
+            this.timestamp = timestamp;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, countingResponse, timestamp, start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> uriVariables(HttpServletRequest request) {
+        Object uriVariables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return uriVariables == null ? Map.of() : (Map<String, String>) uriVariables;
+    }
+
+    /**
+     * Paramètres de la query string uniquement : un formulaire posté fait partie du corps, qui n'est jamais capturé.
+     */
+    private static Map<String, List<String>> parameters(HttpServletRequest request) {
+        String queryString = request.getQueryString();
+        if (queryString == null) {
+            return Map.of();
+        }
+        Set<String> queryNames = UriComponentsBuilder.newInstance().query(queryString).build().getQueryParams().keySet();
+        Map<String, List<String>> parameters = new LinkedHashMap<>();
+        request.getParameterMap().forEach((name, values) -> {
+            if (queryNames.contains(UriUtils.encodeQueryParam(name, StandardCharsets.UTF_8)) || queryNames.contains(name)) {
+                parameters.put(name, Arrays.asList(values));
+            }
+        });
+        return parameters;
+    }
+
+    private static String principalClass(HttpServletRequest request) {
+        Object securityContext = request.getAttribute(RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME);
+        Authentication authentication = securityContext instanceof SecurityContext context ? context.getAuthentication() : null;
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken || !authentication.isAuthenticated()) {
+            return "anonymous";
+        }
+        List<String> authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        if (authorities.contains("ROLE_ADMIN")) {
+            return "admin";
+        }
+        return authorities.contains("ROLE_USER") ? "user" : "authenticated";
+    }
+
+    @Override
+    public void destroy() {
+        trafficCapture.close();
+    }
+}
@@ -0,0 +1,35 @@
+package com.dyma.tennis.web;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requête capturée par TrafficCaptureFilter, une ligne NDJSON par requête.
+ * Ni corps, ni en-têtes, ni identité : seulement de quoi rejouer la forme du trafic.
+ *
+ * @param timestamp      Instant de réception, en millisecondes depuis l'epoch.
+ * @param method         Méthode HTTP.
+ * @param template       Modèle de chemin du contrôleur, par exemple /players/{identifier}.
+ * @param uriVariables   Valeurs des variables du modèle.
+ * @param parameters     Paramètres de la requête (query string).
+ * @param principalClass Catégorie de l'appelant : anonymous, user, admin ou authenticated.
+ * @param status         Statut de la réponse.
+ * @param durationMicros Durée de traitement côté serveur, sécurité comprise.
+ * @param requestBytes   Taille du corps de la requête, -1 si inconnue. Une requête avec corps n'est pas rejouable.
+ * @param responseBytes  Taille du corps de la réponse.
+ */
+public record TrafficRecord(long timestamp,
+                            String method,
+                            String template,
+                            Map<String, String> uriVariables,
+                            Map<String, List<String>> parameters,
+                            String principalClass,
+                            int status,
+                            long durationMicros,
+                            long requestBytes,
+                            long responseBytes) {
+
+    public String endpoint() {
+        return method + " " + template;
+    }
+}
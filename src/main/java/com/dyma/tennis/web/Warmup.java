@@ -0,0 +1,256 @@
+package com.dyma.tennis.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phase de chauffe exécutée avant que l'application ne se déclare prête.
+ * Les requêtes GET du fichier warmup.requests (une par ligne : "GET /players/{identifier}", # pour un commentaire)
+ * sont rejouées warmup.iterations fois, sur warmup.concurrency threads, directement sur les méthodes des contrôleurs
+ * puis sérialisées en JSON : le JIT compile le chemin des requêtes, Hibernate met en cache ses plans de requête,
+ * plusieurs connexions du pool préparent leurs requêtes et les caches (RankingTable, ReadModel) se chargent.
+ * Les filtres et la sécurité ne sont pas traversés. Une requête en erreur (joueur inconnu) chauffe aussi son chemin.
+ * Spring Boot ne passe l'état de disponibilité (readiness) à ACCEPTING_TRAFFIC qu'après les ApplicationRunner :
+ * la sonde /actuator/health/readiness répond OUT_OF_SERVICE jusqu'à la fin de la chauffe ou jusqu'à warmup.timeout.
+ */
+@Component
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true")
+public class Warmup implements ApplicationRunner {
+
+    private final Logger log = LoggerFactory.getLogger(Warmup.class);
+
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final ConversionService conversionService;
+    private final ObjectMapper objectMapper;
+    private final Resource requests;
+    private final int iterations;
+    private final int concurrency;
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+
+    public Warmup(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                  @Qualifier("mvcConversionService") ConversionService conversionService,
+                  ObjectMapper objectMapper,
+                  @Value("${warmup.requests}") Resource requests,
+                  @Value("${warmup.iterations}") int iterations,
+                  @Value("${warmup.concurrency}") int concurrency,
+                  @Value("${warmup.timeout}") Duration timeout,
+                  MeterRegistry meterRegistry) {
+        this.handlerMapping = handlerMapping;
+        this.conversionService = conversionService;
+        this.objectMapper = objectMapper;
+        this.requests = requests;
+        this.iterations = iterations;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException, InterruptedException {
+        List<ReplayedRequest> replayedRequests = load();
+        if (replayedRequests.isEmpty()) {
+            log.warn("No request to replay from {}, skipping warmup", requests);
+            return;
+        }
+        log.info("Warming up with {} requests from {}, {} iterations on {} threads", replayedRequests.size(), requests, iterations, concurrency);
+        Counter succeeded = replayed("success");
+        Counter failed = replayed("error");
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int worker = 0; worker < concurrency; worker++) {
+            int offset = worker;
+            workers.add(() -> {
+                for (int i = 0; i < iterations && !Thread.currentThread().isInterrupted(); i++) {
+                    for (int r = 0; r < replayedRequests.size(); r++) {
+                        // Chaque thread parcourt la liste depuis une position différente
+                        if (replay(replayedRequests.get((r + offset) % replayedRequests.size()))) {
+                            succeeded.increment();
+                        } else {
+                            failed.increment();
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        boolean completed;
+        try {
+            completed = executor.invokeAll(workers, timeout.toMillis(), TimeUnit.MILLISECONDS).stream().noneMatch(Future::isCancelled);
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("tennis.warmup")
+                .description("Duration of the warmup phase before readiness")
+                .tag("outcome", completed ? "completed" : "timed-out")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        if (completed) {
+            log.info("Warmup completed in {} ms ({} replayed, {} in error)", TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    (long) succeeded.count(), (long) failed.count());
+        } else {
+            log.warn("Warmup timed out after {}, accepting traffic anyway", timeout);
+        }
+    }
+
+    private List<ReplayedRequest> load() throws IOException {
+        List<ReplayedRequest> loaded = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(requests.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] methodAndUri = line.split("\\s+", 2);
+                if (methodAndUri.length != 2 || !"GET".equals(methodAndUri[0])) {
+                    log.warn("Ignoring warmup request '{}': only GET requests are replayed", line);
+                    continue;
+                }
+                ReplayedRequest replayedRequest = resolve(methodAndUri[1]);
+                if (replayedRequest == null) {
+                    log.warn("Ignoring warmup request '{}': no matching handler", line);
+                } else {
+                    loaded.add(replayedRequest);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Trouve la méthode de contrôleur qui traiterait la requête et prépare ses arguments.
+     * Parmi les correspondances, celle qui exige le plus de paramètres de requête l'emporte (comme params dans @GetMapping).
+     */
+    private ReplayedRequest resolve(String uri) {
+        UriComponents components = UriComponentsBuilder.fromUriString(uri).build();
+        PathContainer path = PathContainer.parsePath(components.getPath() == null ? "/" : components.getPath());
+        Map<String, String> query = components.getQueryParams().toSingleValueMap();
+        return handlerMapping.getHandlerMethods().entrySet().stream()
+                .filter(entry -> isGet(entry.getKey()) && matchesParams(entry.getKey(), query))
+                .map(entry -> match(entry.getKey(), entry.getValue(), path, query))
+                .filter(replayedRequest -> replayedRequest != null)
+                .max(Comparator.comparingInt(ReplayedRequest::specificity))
+                .orElse(null);
+    }
+
+    private ReplayedRequest match(RequestMappingInfo mapping, HandlerMethod handlerMethod, PathContainer path, Map<String, String> query) {
+        if (mapping.getPathPatternsCondition() == null) {
+            return null;
+        }
+        for (PathPattern pattern : mapping.getPathPatternsCondition().getPatterns()) {
+            PathPattern.PathMatchInfo matchInfo = pattern.matchAndExtract(path);
+            if (matchInfo != null) {
+                Object[] arguments = arguments(handlerMethod, matchInfo.getUriVariables(), query);
+                return arguments == null ? null
+                        : new ReplayedRequest(handlerMethod.createWithResolvedBean(), arguments, mapping.getParamsCondition().getExpressions().size());
+            }
+        }
+        return null;
+    }
+
+    private Object[] arguments(HandlerMethod handlerMethod, Map<String, String> uriVariables, Map<String, String> query) {
+        MethodParameter[] parameters = handlerMethod.getMethodParameters();
+        Object[] arguments = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            String value;
+            if (parameters[i].hasParameterAnnotation(PathVariable.class)) {
+                value = uriVariables.get(parameters[i].getParameterAnnotation(PathVariable.class).value());
+            } else if (parameters[i].hasParameterAnnotation(RequestParam.class)) {
+                value = query.get(parameters[i].getParameterAnnotation(RequestParam.class).value());
+            } else {
+                // Corps de requête, en-têtes... : hors du périmètre de la chauffe
+                return null;
+            }
+            if (value == null) {
+                return null;
+            }
+            arguments[i] = conversionService.convert(value, TypeDescriptor.valueOf(String.class), new TypeDescriptor(parameters[i]));
+        }
+        return arguments;
+    }
+
+    private static boolean isGet(RequestMappingInfo mapping) {
+        return mapping.getMethodsCondition().getMethods().isEmpty()
+                || mapping.getMethodsCondition().getMethods().contains(RequestMethod.GET);
+    }
+
+    private static boolean matchesParams(RequestMappingInfo mapping, Map<String, String> query) {
+        for (NameValueExpression<String> expression : mapping.getParamsCondition().getExpressions()) {
+            boolean matches = expression.getValue() == null
+                    ? query.containsKey(expression.getName())
+                    : expression.getValue().equals(query.get(expression.getName()));
+            if (matches == expression.isNegated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Counter replayed(String outcome) {
+        return Counter.builder("tennis.warmup.requests")
+                .description("Requests replayed during warmup")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private boolean replay(ReplayedRequest replayedRequest) {
+        HandlerMethod handlerMethod = replayedRequest.handlerMethod();
+        try {
+            Object result = handlerMethod.getMethod().invoke(handlerMethod.getBean(), replayedRequest.arguments());
+            objectMapper.writeValueAsBytes(result);
+            return true;
+        } catch (InvocationTargetException e) {
+            return false;
+        } catch (ReflectiveOperationException | IOException e) {
+            throw new IllegalStateException("Couldn't replay " + handlerMethod, e);
+        }
+    }
+
+    private record ReplayedRequest(HandlerMethod handlerMethod, Object[] arguments, int specificity) {
+    }
+}
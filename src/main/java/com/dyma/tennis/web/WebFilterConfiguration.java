@@ -0,0 +1,132 @@
+package com.dyma.tennis.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Déclare les filtres HTTP placés devant les contrôleurs.
+ * Les ordres sont relatifs à la chaîne Spring Security (SecurityProperties.DEFAULT_FILTER_ORDER) :
+ * un filtre placé après elle connaît l'utilisateur authentifié.
+ */
+@Configuration
+public class WebFilterConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            @Value("${rate-limit.enabled}") boolean enabled,
+            @Value("${jwt.auth.principal-attribute}") String principalAttribute,
+            @Value("${rate-limit.read.capacity}") int readCapacity,
+            @Value("${rate-limit.read.refill-per-second}") double readRefillPerSecond,
+            @Value("${rate-limit.write.capacity}") int writeCapacity,
+            @Value("${rate-limit.write.refill-per-second}") double writeRefillPerSecond,
+            @Value("${rate-limit.token.capacity}") int tokenCapacity,
+            @Value("${rate-limit.token.refill-per-second}") double tokenRefillPerSecond,
+            @Value("${rate-limit.max-buckets}") int maxBuckets,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        RateLimitFilter filter = new RateLimitFilter(
+                principalAttribute,
+                new RateLimiter(readCapacity, readRefillPerSecond, maxBuckets, System::nanoTime),
+                new RateLimiter(writeCapacity, writeRefillPerSecond, maxBuckets, System::nanoTime),
+                new RateLimiter(tokenCapacity, tokenRefillPerSecond, maxBuckets, System::nanoTime),
+                objectMapper,
+                meterRegistry);
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimit adaptiveConcurrencyLimit(
+            @Value("${adaptive-limit.initial}") int initialLimit,
+            @Value("${adaptive-limit.min}") int minLimit,
+            @Value("${adaptive-limit.max}") int maxLimit,
+            @Value("${adaptive-limit.backoff-ratio}") double backoffRatio,
+            @Value("${adaptive-limit.pool-wait-threshold}") Duration poolWaitThreshold,
+            @Value("${adaptive-limit.recovery-windows}") int recoveryWindows,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        // Un bean, pour recevoir l'état de disponibilité de l'application
+        return new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, backoffRatio,
+                poolWaitThreshold, recoveryWindows, new ConnectionPoolWait(meterRegistry), eventPublisher, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdaptiveConcurrencyFilter> adaptiveConcurrencyFilter(
+            @Value("${adaptive-limit.enabled}") boolean enabled,
+            @Value("${adaptive-limit.window}") Duration window,
+            AdaptiveConcurrencyLimit limit,
+            ObjectMapper objectMapper) {
+        FilterRegistrationBean<AdaptiveConcurrencyFilter> registration =
+                new FilterRegistrationBean<>(new AdaptiveConcurrencyFilter(limit, window, objectMapper));
+        // Avant les cloisons : quand la base sature, on refuse sans même occuper une place en file d'attente
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 2);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(
+            @Value("${bulkhead.enabled}") boolean enabled,
+            @Value("${bulkhead.read.max-concurrent}") int readMaxConcurrent,
+            @Value("${bulkhead.read.max-queue}") int readMaxQueue,
+            @Value("${bulkhead.read.max-wait}") Duration readMaxWait,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        BulkheadFilter filter = new BulkheadFilter(
+                new Bulkhead("read", readMaxConcurrent, readMaxQueue, readMaxWait, meterRegistry),
+                objectMapper);
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(filter);
+        // Après la limitation de débit : une requête refusée par le limiteur ne prend pas de place dans la cloison
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 3);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(
+            @Value("${sql-statistics.enabled}") boolean enabled,
+            @Value("${sql-statistics.query-budget}") int queryBudget,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(new SqlStatisticsFilter(queryBudget, meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 4);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(@Value("${server-timing.enabled}") boolean enabled) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter());
+        // Avant la sécurité : total inclut la validation du jeton, et l'entrée db (filtre interne) reste la première
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<TrafficCaptureFilter> trafficCaptureFilter(
+            @Value("${traffic-capture.enabled}") boolean enabled,
+            @Value("${traffic-capture.file}") Path file,
+            @Value("${traffic-capture.max-size}") DataSize maxSize,
+            @Value("${traffic-capture.queue-size}") int queueSize,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        TrafficCapture trafficCapture = new TrafficCapture(file, maxSize.toBytes(), queueSize, objectMapper, meterRegistry);
+        FilterRegistrationBean<TrafficCaptureFilter> registration = new FilterRegistrationBean<>(new TrafficCaptureFilter(trafficCapture));
+        // Le plus à l'extérieur : la durée capturée est celle que voit le client, validation du jeton comprise
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+}
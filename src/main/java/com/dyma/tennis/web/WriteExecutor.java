@@ -0,0 +1,134 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.data.SqlStatistics;
+import com.dyma.tennis.data.WriteRoutingDataSource;
+import com.dyma.tennis.timing.ServerTiming;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cloison des écritures d'administration (POST, PUT et DELETE sur /players et /tournaments) : les contrôleurs
+ * renvoient une WebAsyncTask exécutée par un pool borné de max-concurrent threads, et le thread Tomcat est libéré
+ * aussitôt. Les écritures prennent leurs connexions dans leur propre pool (WriteRoutingDataSource) :
+ * des écritures lentes, qui recalculent le classement, n'occupent ni les threads ni les connexions des lectures.
+ * Par défaut (max-queue=0), une écriture qui ne trouve pas de thread libre est refusée immédiatement (503) ;
+ * avec une file, une écriture qui y a attendu plus de max-wait est refusée au moment de démarrer.
+ * Les compteurs ServerTiming et SqlStatistics de la requête suivent l'écriture sur le thread du pool,
+ * le contexte de sécurité y est propagé par Spring Security.
+ */
+@Component
+public class WriteExecutor implements DisposableBean {
+
+    private static final String WRITE_ATTRIBUTE = WriteExecutor.class.getName() + ".write";
+
+    private final ThreadPoolExecutor executor;
+    private final AsyncTaskExecutor taskExecutor;
+    // Sans file, le pool transmet l'écriture directement à un thread libre : il n'y a pas d'attente à borner
+    private final boolean queueing;
+    private final long maxWaitNanos;
+    private final Long timeoutMillis;
+    private final Counter rejections;
+
+    public WriteExecutor(@Value("${bulkhead.enabled}") boolean enabled,
+                         @Value("${bulkhead.write.max-concurrent}") int maxConcurrent,
+                         @Value("${bulkhead.write.max-queue}") int maxQueue,
+                         @Value("${bulkhead.write.max-wait}") Duration maxWait,
+                         @Value("${bulkhead.write.timeout}") Duration timeout,
+                         MeterRegistry meterRegistry) {
+        this.queueing = enabled && maxQueue > 0;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.timeoutMillis = timeout.toMillis();
+        this.rejections = Counter.builder("tennis.bulkhead.rejections")
+                .description("Requests rejected because the bulkhead was saturated")
+                .tag("bulkhead", "write")
+                .register(meterRegistry);
+        if (!enabled) {
+            // Sans cloison, l'écriture s'exécute sur le thread Tomcat, toujours avec le pool de connexions des écritures
+            this.executor = null;
+            this.taskExecutor = new TaskExecutorAdapter(Runnable::run);
+            return;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        BlockingQueue<Runnable> queue = maxQueue == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(maxQueue);
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0, TimeUnit.MILLISECONDS, queue,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "admin-write-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    rejections.increment();
+                    throw new RejectedExecutionException("Write bulkhead is saturated");
+                });
+        this.taskExecutor = new TaskExecutorAdapter(executor);
+        Gauge.builder("tennis.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Requests currently executing in the bulkhead")
+                .tag("bulkhead", "write")
+                .register(meterRegistry);
+        Gauge.builder("tennis.bulkhead.queued", executor, pool -> pool.getQueue().size())
+                .description("Requests waiting to enter the bulkhead")
+                .tag("bulkhead", "write")
+                .register(meterRegistry);
+    }
+
+    /**
+     * À appeler sur le thread de la requête, depuis le contrôleur.
+     * Un refus (cloison saturée) est remonté comme une TaskRejectedException, traduite en 503 par SaturationErrorHandler.
+     */
+    public <T> WebAsyncTask<T> submit(Callable<T> write) {
+        RequestContextHolder.currentRequestAttributes().setAttribute(WRITE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        ServerTiming timing = ServerTiming.current();
+        SqlStatistics statistics = SqlStatistics.current();
+        long submitted = System.nanoTime();
+        return new WebAsyncTask<>(timeoutMillis, taskExecutor, () -> {
+            if (queueing && System.nanoTime() - submitted > maxWaitNanos) {
+                rejections.increment();
+                throw new TaskRejectedException("Write waited too long in the bulkhead queue");
+            }
+            ServerTiming.resume(timing);
+            SqlStatistics.resume(statistics);
+            try {
+                return WriteRoutingDataSource.writing(write);
+            } finally {
+                ServerTiming.end();
+                SqlStatistics.end();
+            }
+        });
+    }
+
+    /**
+     * @return true si la requête est une écriture confiée à ce pool : elle se termine après le retour des filtres.
+     */
+    static boolean isWrite(HttpServletRequest request) {
+        return request.getAttribute(WRITE_ATTRIBUTE) != null;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
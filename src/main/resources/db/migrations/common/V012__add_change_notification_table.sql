@@ -0,0 +1,12 @@
+CREATE SEQUENCE change_version_seq;
+
+-- Notifications de changement relues par les instances sans LISTEN/NOTIFY (H2)
+CREATE TABLE change_notification
+(
+    version bigint NOT NULL,
+    entity_type character varying(20) NOT NULL,
+    identifiers character varying(4000) NOT NULL,
+    origin character varying(36) NOT NULL,
+    created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT change_notification_pkey PRIMARY KEY (version)
+);
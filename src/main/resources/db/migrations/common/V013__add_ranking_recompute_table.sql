@@ -0,0 +1,11 @@
+CREATE SEQUENCE ranking_request_seq;
+
+-- Dernière demande de recalcul du classement couverte par un recalcul terminé, partagée entre les instances
+CREATE TABLE ranking_recompute
+(
+    id integer NOT NULL,
+    completed_request bigint NOT NULL,
+    CONSTRAINT ranking_recompute_pkey PRIMARY KEY (id)
+);
+
+INSERT INTO ranking_recompute(id, completed_request) VALUES (1, 0);
@@ -0,0 +1,4 @@
+-- Versions pour le verrouillage optimiste des joueurs et des tournois
+ALTER TABLE player ADD COLUMN version bigint NOT NULL DEFAULT 0;
+
+ALTER TABLE tournament ADD COLUMN version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- Vue dénormalisée des joueurs, maintenue par les services dans la transaction de chaque écriture.
+-- Le document JSON porte la description du joueur, ses points et ses tournois ; le rang, réécrit à chaque
+-- recalcul du classement, reste une colonne. Remplie par PlayerViewMigrationCallback après la migration.
+CREATE TABLE player_view
+(
+    identifier uuid NOT NULL,
+    rank integer NOT NULL,
+    document jsonb NOT NULL,
+    CONSTRAINT player_view_pkey PRIMARY KEY (identifier)
+);
+
+CREATE INDEX player_view_rank_idx ON player_view (rank);
@@ -0,0 +1,34 @@
+-- Versions de changement pour la synchronisation différentielle (GET /changes), tirées de change_version_seq.
+-- Les lignes existantes et celles insérées directement en SQL reçoivent une version par défaut ;
+-- les services tamponnent ensuite chaque ligne qu'ils écrivent avec une nouvelle version.
+ALTER TABLE player ADD COLUMN change_version bigint DEFAULT nextval('change_version_seq') NOT NULL;
+
+ALTER TABLE tournament ADD COLUMN change_version bigint DEFAULT nextval('change_version_seq') NOT NULL;
+
+ALTER TABLE player_tournament ADD COLUMN change_version bigint DEFAULT nextval('change_version_seq') NOT NULL;
+
+CREATE INDEX player_change_version_idx ON player (change_version);
+
+CREATE INDEX tournament_change_version_idx ON tournament (change_version);
+
+CREATE INDEX player_tournament_change_version_idx ON player_tournament (change_version);
+
+-- Suppressions de joueurs, de tournois et d'inscriptions (identifier = tournoi, related_identifier = joueur)
+CREATE TABLE tombstone
+(
+    change_version bigint NOT NULL,
+    entity_type character varying(20) NOT NULL,
+    identifier uuid NOT NULL,
+    related_identifier uuid,
+    deleted_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT tombstone_pkey PRIMARY KEY (change_version)
+);
+
+-- Transactions d'écriture en cours, chacune déclarée avec une version tirée avant toutes les siennes :
+-- GET /changes ne sert que les versions inférieures à la plus ancienne déclarée
+CREATE TABLE change_in_flight
+(
+    low_version bigint NOT NULL,
+    started_at timestamp NOT NULL,
+    CONSTRAINT change_in_flight_pkey PRIMARY KEY (low_version)
+);
@@ -0,0 +1,53 @@
+package com.dyma.tennis;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class StartupConfigurationIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    public void shouldCreateOpenApiBeansOnFirstUse() {
+        // Given
+        String[] openApiBeans = Arrays.stream(beanFactory.getBeanDefinitionNames())
+                .filter(beanName -> beanName.startsWith("org.springdoc") || "openApiResource".equals(beanName))
+                .toArray(String[]::new);
+        Assertions.assertThat(openApiBeans).isNotEmpty()
+                .allSatisfy(beanName -> Assertions.assertThat(beanFactory.getBeanDefinition(beanName).isLazyInit()).isTrue());
+        Assertions.assertThat(beanFactory.containsSingleton("openApiResource")).isFalse();
+
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("http://localhost:" + port + "/v3/api-docs", String.class);
+
+        // Then
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(response.getBody()).contains("/players");
+        Assertions.assertThat(beanFactory.containsSingleton("openApiResource")).isTrue();
+    }
+
+    @Test
+    public void shouldKeepRequestPathEager() {
+        Assertions.assertThat(beanFactory.getBeanDefinition("playerService").isLazyInit()).isFalse();
+        Assertions.assertThat(beanFactory.getBeanDefinition("datasetGenerator").isLazyInit()).isTrue();
+    }
+}
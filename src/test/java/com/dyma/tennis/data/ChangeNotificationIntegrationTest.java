@@ -0,0 +1,137 @@
+package com.dyma.tennis.data;
+
+import com.dyma.tennis.TennisApplication;
+import com.dyma.tennis.model.Player;
+import com.dyma.tennis.model.PlayerToCreate;
+import com.dyma.tennis.model.Rank;
+import com.dyma.tennis.service.PlayerService;
+import com.dyma.tennis.service.RegistrationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Deux instances de l'application sur la même base H2 : les écritures de l'une doivent
+ * se retrouver dans le modèle de lecture de l'autre, via la table change_notification.
+ */
+public class ChangeNotificationIntegrationTest {
+
+    private static final String[] PROPERTIES = {
+            "spring.datasource.url=jdbc:h2:mem:changes;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+            "read-model.enabled=true",
+            "change-notification.poll-interval=50ms"
+    };
+
+    private static ConfigurableApplicationContext firstNode;
+
+    private static ConfigurableApplicationContext secondNode;
+
+    @BeforeAll
+    static void startNodes() {
+        firstNode = start();
+        secondNode = start();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        secondNode.close();
+        firstNode.close();
+    }
+
+    @Test
+    public void shouldRefreshOtherNode_WhenPlayerIsCreated() {
+        // Given
+        PlayerService secondNodePlayers = secondNode.getBean(PlayerService.class);
+        int playersBefore = secondNodePlayers.getAllPlayers().size();
+
+        // When
+        Player created = firstNode.getBean(PlayerService.class)
+                .create(new PlayerToCreate("Jannik", "Sinner", LocalDate.of(2001, 8, 16), 11000));
+
+        // Then
+        Rank firstNodeRank = firstNode.getBean(PlayerService.class).getRank(created.info().identifier());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            Assertions.assertThat(secondNodePlayers.getAllPlayers()).hasSize(playersBefore + 1);
+            Assertions.assertThat(secondNodePlayers.getRank(created.info().identifier())).isEqualTo(firstNodeRank);
+        });
+    }
+
+    @Test
+    public void shouldRefreshOtherNode_WhenPlayerIsRegistered() {
+        // Given
+        RegistrationService firstNodeRegistrations = firstNode.getBean(RegistrationService.class);
+        PlayerService secondNodePlayers = secondNode.getBean(PlayerService.class);
+        Player player = secondNodePlayers.getAllPlayers().get(0);
+        UUID tournament = firstNode.getBean(TournamentRepository.class).findAll().get(0).getIdentifier();
+
+        // When
+        firstNodeRegistrations.register(tournament, player.info().identifier());
+
+        // Then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                Assertions.assertThat(secondNodePlayers.getByIdentifier(player.info().identifier()).tournaments())
+                        .extracting("identifier").contains(tournament));
+    }
+
+    @Test
+    public void shouldReceiveNotification_WhenCommittedAfterHigherVersion() {
+        // Given
+        JdbcTemplate jdbcTemplate = firstNode.getBean(JdbcTemplate.class);
+        long earlierVersion = jdbcTemplate.queryForObject("select nextval('change_version_seq')", Long.class);
+        long laterVersion = jdbcTemplate.queryForObject("select nextval('change_version_seq')", Long.class);
+        double receivedBefore = received();
+
+        // When
+        insertNotification(jdbcTemplate, laterVersion);
+        await().atMost(Duration.ofSeconds(5)).until(() -> received() == receivedBefore + 1);
+        insertNotification(jdbcTemplate, earlierVersion);
+
+        // Then
+        await().atMost(Duration.ofSeconds(5)).until(() -> received() == receivedBefore + 2);
+        Assertions.assertThat(secondNode.getBean(MeterRegistry.class).get("tennis.change-notifications.reordered").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void shouldIdentifyEachNodeInNotifications() {
+        // Given
+        ChangeNotifier notifier = firstNode.getBean(ChangeNotifier.class);
+
+        // When / Then
+        Assertions.assertThat(notifier.getOrigin()).isNotEqualTo(secondNode.getBean(ChangeNotifier.class).getOrigin());
+        ChangeNotification notification = new ChangeNotification(ChangeNotification.REGISTRATION, 42, notifier.getOrigin(),
+                List.of(UUID.fromString("b466c6f7-52c6-4f25-b00d-c562be41311e")));
+        Assertions.assertThat(ChangeNotification.fromPayload(notification.toPayload())).isEqualTo(notification);
+    }
+
+    private static void insertNotification(JdbcTemplate jdbcTemplate, long version) {
+        jdbcTemplate.update("insert into change_notification(version, entity_type, identifiers, origin) values (?, ?, ?, ?)",
+                version, ChangeNotification.ALL, "", "another-node");
+    }
+
+    private static double received() {
+        return secondNode.getBean(MeterRegistry.class).find("tennis.change-notifications.received")
+                .tag("entity", ChangeNotification.ALL).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TennisApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(PROPERTIES)
+                .run();
+    }
+}
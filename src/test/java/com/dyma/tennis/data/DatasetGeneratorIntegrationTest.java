@@ -0,0 +1,105 @@
+package com.dyma.tennis.data;
+
+import com.dyma.tennis.service.RankingTable;
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+public class DatasetGeneratorIntegrationTest {
+
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    @BeforeEach
+    void clearDatabase() {
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @Test
+    public void shouldGeneratePlayersTournamentsAndRegistrations() {
+        // Given
+        long existingPlayers = count("player");
+        long existingTournaments = count("tournament");
+
+        // When
+        DatasetGenerator.GeneratedDataset dataset = datasetGenerator.generate(new DatasetSpecification(42, 500, 20, 0.5, 64));
+
+        // Then
+        Assertions.assertThat(dataset.players()).isEqualTo(500);
+        Assertions.assertThat(dataset.tournaments()).isEqualTo(20);
+        Assertions.assertThat(count("player")).isEqualTo(existingPlayers + 500);
+        Assertions.assertThat(count("tournament")).isEqualTo(existingTournaments + 20);
+        Assertions.assertThat(count("player_tournament")).isEqualTo(dataset.registrations()).isPositive();
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM player_tournament pt JOIN tournament t ON t.id = pt.tournament_id " +
+                        "GROUP BY t.id ORDER BY COUNT(*) DESC LIMIT 1", Long.class)).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    public void shouldReloadLoadedRanking_AfterGeneration(@Autowired RankingTable rankingTable) {
+        // Given
+        rankingTable.reload();
+        int rankedBefore = rankingTable.size();
+
+        // When
+        datasetGenerator.generate(new DatasetSpecification(11, 200, 0, 0, 50));
+
+        // Then
+        Assertions.assertThat(rankingTable.size()).isEqualTo(rankedBefore + 200).isEqualTo(count("player"));
+        Assertions.assertThat(count("change_in_flight")).isZero();
+    }
+
+    @Test
+    public void shouldRankAllPlayersByPoints() {
+        // Given
+        DatasetSpecification specification = new DatasetSpecification(7, 300, 0, 0, 100);
+
+        // When
+        datasetGenerator.generate(specification);
+
+        // Then
+        List<Integer> ranks = jdbcTemplate.queryForList("SELECT rank FROM player ORDER BY points DESC, id", Integer.class);
+        Assertions.assertThat(ranks).hasSize((int) count("player"));
+        for (int i = 0; i < ranks.size(); i++) {
+            Assertions.assertThat(ranks.get(i)).isEqualTo(i + 1);
+        }
+    }
+
+    @Test
+    public void shouldGenerateSameDataset_ForSameSeed() {
+        // Given
+        DatasetSpecification specification = new DatasetSpecification(42, 100, 5, 0.2, 30);
+        datasetGenerator.generate(specification);
+        List<UUID> firstRun = identifiers();
+        clearDatabase();
+
+        // When
+        datasetGenerator.generate(specification);
+
+        // Then
+        Assertions.assertThat(identifiers()).isEqualTo(firstRun);
+    }
+
+    private List<UUID> identifiers() {
+        return jdbcTemplate.queryForList("SELECT identifier FROM player ORDER BY id", UUID.class);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
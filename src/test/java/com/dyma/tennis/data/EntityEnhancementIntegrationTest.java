@@ -0,0 +1,83 @@
+package com.dyma.tennis.data;
+
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+/**
+ * Les entités sont améliorées à la compilation (hibernate-enhance-maven-plugin) : le suivi des modifications
+ * dans l'entité doit écrire exactement ce qu'écrivait la comparaison d'instantanés.
+ */
+@SpringBootTest
+public class EntityEnhancementIntegrationTest {
+
+    private static final UUID RAFAEL_NADAL = UUID.fromString("b466c6f7-52c6-4f25-b00d-c562be41311e");
+    private static final UUID FRENCH_OPEN = UUID.fromString("d4a9f8e2-9051-4739-90bc-1cb7e4c7ad42");
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clearDatabase(@Autowired Flyway flyway) {
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @Test
+    public void shouldEnhanceEntities() {
+        // When / Then
+        Assertions.assertThat(SelfDirtinessTracker.class).isAssignableFrom(PlayerEntity.class);
+        Assertions.assertThat(SelfDirtinessTracker.class).isAssignableFrom(TournamentEntity.class);
+    }
+
+    @Test
+    public void shouldWriteOnlyModifiedEntities() {
+        // Given
+        PlayerEntity before = playerRepository.findOneByIdentifier(RAFAEL_NADAL).orElseThrow();
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> playerRepository.findOneByIdentifier(RAFAEL_NADAL).orElseThrow().getLastName());
+        long versionAfterRead = playerRepository.findOneByIdentifier(RAFAEL_NADAL).orElseThrow().getVersion();
+        transactionTemplate.executeWithoutResult(status -> {
+            PlayerEntity player = playerRepository.findOneByIdentifier(RAFAEL_NADAL).orElseThrow();
+            Assertions.assertThat(((SelfDirtinessTracker) player).$$_hibernate_getDirtyAttributes()).doesNotContain("points");
+            player.setPoints(player.getPoints() + 100);
+            Assertions.assertThat(((SelfDirtinessTracker) player).$$_hibernate_getDirtyAttributes()).contains("points");
+        });
+
+        // Then
+        PlayerEntity after = playerRepository.findOneByIdentifier(RAFAEL_NADAL).orElseThrow();
+        Assertions.assertThat(versionAfterRead).isEqualTo(before.getVersion());
+        Assertions.assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+        Assertions.assertThat(after.getPoints()).isEqualTo(before.getPoints() + 100);
+        Assertions.assertThat(after.getLastName()).isEqualTo(before.getLastName());
+    }
+
+    @Test
+    public void shouldPersistRegistration_FromOwningSide() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            PlayerEntity player = playerRepository.findOneByIdentifier(RAFAEL_NADAL).orElseThrow();
+            player.addTournament(tournamentRepository.findOneByIdentifier(FRENCH_OPEN).orElseThrow());
+        });
+
+        // Then
+        Assertions.assertThat(tournamentRepository.findOneByIdentifier(FRENCH_OPEN).orElseThrow().getPlayers())
+                .extracting(PlayerEntity::getIdentifier).contains(RAFAEL_NADAL);
+        Assertions.assertThat(playerRepository.findOneByIdentifier(RAFAEL_NADAL).orElseThrow().getTournaments())
+                .extracting(TournamentEntity::getIdentifier).containsExactly(FRENCH_OPEN);
+    }
+}
@@ -0,0 +1,67 @@
+package com.dyma.tennis.data;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public class TimeOrderedIdentifierGeneratorTest {
+
+    private final TimeOrderedIdentifierGenerator generator = new TimeOrderedIdentifierGenerator();
+
+    @Test
+    public void shouldGenerateVersion7Identifiers_StampedWithCurrentTime() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID identifier = generator.next();
+
+        // Then
+        Assertions.assertThat(identifier.version()).isEqualTo(7);
+        Assertions.assertThat(identifier.variant()).isEqualTo(2);
+        Assertions.assertThat(TimeOrderedIdentifierGenerator.timestamp(identifier)).isBetween(before, System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    public void shouldGenerateIncreasingIdentifiers_WithinSameMillisecond() {
+        // When
+        List<UUID> identifiers = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            identifiers.add(generator.next());
+        }
+
+        // Then
+        Assertions.assertThat(identifiers).isSortedAccordingTo(UUID::compareTo).doesNotHaveDuplicates();
+        Assertions.assertThat(identifiers).extracting(UUID::toString).isSorted();
+    }
+
+    @Test
+    public void shouldGenerateUniqueIdentifiers_FromConcurrentThreads() {
+        // When
+        List<CompletableFuture<List<UUID>>> threads = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            threads.add(CompletableFuture.supplyAsync(() -> {
+                List<UUID> identifiers = new ArrayList<>();
+                for (int i = 0; i < 20_000; i++) {
+                    identifiers.add(generator.next());
+                }
+                return identifiers;
+            }));
+        }
+
+        // Then
+        Set<UUID> all = new HashSet<>();
+        for (CompletableFuture<List<UUID>> thread : threads) {
+            List<UUID> identifiers = thread.join();
+            Assertions.assertThat(identifiers).isSortedAccordingTo(UUID::compareTo);
+            all.addAll(identifiers);
+        }
+        Assertions.assertThat(all).hasSize(8 * 20_000);
+    }
+}
@@ -0,0 +1,49 @@
+package com.dyma.tennis.data;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+public class WriteRoutingDataSourceTest {
+
+    private final DataSource readDataSource = Mockito.mock(DataSource.class);
+
+    private final DataSource writeDataSource = Mockito.mock(DataSource.class);
+
+    private final Connection readConnection = Mockito.mock(Connection.class);
+
+    private final Connection writeConnection = Mockito.mock(Connection.class);
+
+    private WriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Mockito.when(readDataSource.getConnection()).thenReturn(readConnection);
+        Mockito.when(writeDataSource.getConnection()).thenReturn(writeConnection);
+        dataSource = new WriteRoutingDataSource(readDataSource, writeDataSource);
+        dataSource.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldUseReadPool_OutsideWrites() throws Exception {
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        Assertions.assertThat(connection).isSameAs(readConnection);
+    }
+
+    @Test
+    public void shouldUseWritePool_DuringWrite_ThenGoBackToReadPool() throws Exception {
+        // When
+        Connection connection = WriteRoutingDataSource.writing(dataSource::getConnection);
+
+        // Then
+        Assertions.assertThat(connection).isSameAs(writeConnection);
+        Assertions.assertThat(dataSource.getConnection()).isSameAs(readConnection);
+    }
+}
@@ -0,0 +1,126 @@
+package com.dyma.tennis.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MeteredAsyncAppenderTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private final CountDownLatch releaseSink = new CountDownLatch(1);
+
+    private final List<ILoggingEvent> written = new CopyOnWriteArrayList<>();
+
+    private MeteredAsyncAppender asyncAppender;
+
+    private Logger logger;
+
+    @BeforeEach
+    public void setUp() {
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+        BlockedSink sink = new BlockedSink();
+        sink.setContext(loggerContext);
+        sink.start();
+
+        asyncAppender = new MeteredAsyncAppender();
+        asyncAppender.setContext(loggerContext);
+        asyncAppender.setName("ASYNC_TEST");
+        asyncAppender.setQueueSize(4);
+        asyncAppender.setDiscardingThreshold(2);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(sink);
+        asyncAppender.start();
+
+        logger = loggerContext.getLogger("com.dyma.tennis.test");
+        logger.setLevel(Level.DEBUG);
+        logger.addAppender(asyncAppender);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseSink.countDown();
+        loggerContext.stop();
+    }
+
+    @Test
+    public void shouldDiscardInfoEvents_WhenQueueIsUnderPressure() throws Exception {
+        // Given
+        logger.info("first event, blocks the sink");
+        Thread.sleep(100);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            logger.info("event {}", i);
+        }
+        releaseSink.countDown();
+
+        // Then
+        Assertions.assertThat(asyncAppender.getDiscarded()).isEqualTo(7);
+        Assertions.assertThat(asyncAppender.getOverflowed()).isZero();
+    }
+
+    @Test
+    public void shouldKeepWarnEvents_UntilQueueIsFull() throws Exception {
+        // Given
+        logger.info("first event, blocks the sink");
+        Thread.sleep(100);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            logger.warn("event {}", i);
+        }
+        releaseSink.countDown();
+
+        // Then
+        Assertions.assertThat(asyncAppender.getDiscarded()).isZero();
+        Assertions.assertThat(asyncAppender.getOverflowed()).isEqualTo(6);
+        asyncAppender.stop();
+        Assertions.assertThat(written).hasSize(5);
+    }
+
+    @Test
+    public void shouldExposeDroppedEventsAsMetrics() throws Exception {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        logger.info("first event, blocks the sink");
+        Thread.sleep(100);
+        for (int i = 0; i < 10; i++) {
+            logger.debug("event {}", i);
+        }
+
+        // When
+        new LoggingMetrics(loggerContext).bindTo(meterRegistry);
+
+        // Then
+        Assertions.assertThat(meterRegistry.get("tennis.logging.events.dropped")
+                .tags("appender", "ASYNC_TEST", "reason", "discarded").functionCounter().count()).isEqualTo(7);
+        Assertions.assertThat(meterRegistry.get("tennis.logging.queue.remaining")
+                .tag("appender", "ASYNC_TEST").gauge().value()).isEqualTo(1);
+    }
+
+    private class BlockedSink extends AppenderBase<ILoggingEvent> {
+        @Override
+        protected void append(ILoggingEvent event) {
+            try {
+                releaseSink.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(event);
+        }
+    }
+}
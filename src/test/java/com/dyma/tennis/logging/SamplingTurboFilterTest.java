@@ -0,0 +1,67 @@
+package com.dyma.tennis.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SamplingTurboFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private SamplingTurboFilter samplingFilter;
+
+    @BeforeEach
+    public void setUp() {
+        samplingFilter = new SamplingTurboFilter();
+        samplingFilter.setContext(loggerContext);
+        samplingFilter.setLoggerName("com.dyma.tennis.service");
+        samplingFilter.setLevel(Level.INFO);
+        samplingFilter.setSampleEvery(10);
+        samplingFilter.start();
+    }
+
+    @Test
+    public void shouldKeepOneEventOutOfSampleEvery() {
+        // Given
+        Logger logger = loggerContext.getLogger("com.dyma.tennis.service.PlayerService");
+
+        // When
+        long kept = 0;
+        for (int i = 0; i < 100; i++) {
+            if (decide(logger, Level.INFO) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        // Then
+        Assertions.assertThat(kept).isEqualTo(10);
+        Assertions.assertThat(samplingFilter.getSampledOut()).isEqualTo(90);
+    }
+
+    @Test
+    public void shouldNotSampleWarnings_NorOtherLoggers() {
+        // Given
+        Logger serviceLogger = loggerContext.getLogger("com.dyma.tennis.service.PlayerService");
+        Logger otherLogger = loggerContext.getLogger("com.dyma.tennis.servicemesh.Client");
+
+        // When
+        FilterReply warning = decide(serviceLogger, Level.WARN);
+        decide(serviceLogger, Level.INFO);
+        FilterReply otherLoggerInfo = decide(otherLogger, Level.INFO);
+        FilterReply enabledCheck = samplingFilter.decide(null, serviceLogger, Level.INFO, null, null, null);
+
+        // Then
+        Assertions.assertThat(warning).isEqualTo(FilterReply.NEUTRAL);
+        Assertions.assertThat(otherLoggerInfo).isEqualTo(FilterReply.NEUTRAL);
+        Assertions.assertThat(enabledCheck).isEqualTo(FilterReply.NEUTRAL);
+        Assertions.assertThat(samplingFilter.getSampledOut()).isZero();
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return samplingFilter.decide(null, logger, level, "Invoking getAllPlayers()", null, null);
+    }
+}
@@ -0,0 +1,155 @@
+package com.dyma.tennis.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CachingJwkSourceTest {
+
+    private static final String ISSUER = "http://localhost:8090/realms/dyma";
+
+    @TempDir
+    private Path temporaryDirectory;
+
+    private Path cacheFile;
+
+    private RSAKey signingKey;
+
+    @BeforeEach
+    public void setUp() throws JOSEException {
+        cacheFile = temporaryDirectory.resolve("jwks.json");
+        signingKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+    }
+
+    @Test
+    public void shouldValidateToken_WithKeysLoadedFromKeycloak() throws Exception {
+        // Given
+        CachingJwkSource jwkSource = new CachingJwkSource(() -> new JWKSet(signingKey.toPublicJWK()), cacheFile, Duration.ofMinutes(5), Duration.ZERO);
+        jwkSource.refresh();
+        JwtDecoder jwtDecoder = new SecurityConfiguration().jwtDecoder(jwkSource, ISSUER);
+
+        // When
+        Jwt jwt = jwtDecoder.decode(sign(signingKey));
+
+        // Then
+        Assertions.assertThat(jwt.getClaimAsString("preferred_username")).isEqualTo("admin");
+        Assertions.assertThat(JWKSet.load(cacheFile.toFile()).getKeyByKeyId("key-1")).isNotNull();
+    }
+
+    @Test
+    public void shouldValidateToken_WhenKeycloakIsDownAndKeysAreCachedOnDisk() throws Exception {
+        // Given
+        Files.writeString(cacheFile, new JWKSet(signingKey.toPublicJWK()).toString());
+        CachingJwkSource jwkSource = new CachingJwkSource(() -> {
+            throw new IOException("Keycloak is down");
+        }, cacheFile, Duration.ofMinutes(5), Duration.ZERO);
+        JwtDecoder jwtDecoder = new SecurityConfiguration().jwtDecoder(jwkSource, ISSUER);
+
+        // When
+        Jwt jwt = jwtDecoder.decode(sign(signingKey));
+
+        // Then
+        Assertions.assertThat(jwt.getIssuer().toString()).isEqualTo(ISSUER);
+    }
+
+    @Test
+    public void shouldKeepServingCachedKeys_WhenRefreshFails() throws Exception {
+        // Given
+        AtomicReference<JWKSet> keycloakKeys = new AtomicReference<>(new JWKSet(signingKey.toPublicJWK()));
+        CachingJwkSource jwkSource = new CachingJwkSource(() -> {
+            JWKSet keys = keycloakKeys.get();
+            if (keys == null) {
+                throw new IOException("Keycloak is down");
+            }
+            return keys;
+        }, cacheFile, Duration.ofMinutes(5), Duration.ZERO);
+        jwkSource.refresh();
+        keycloakKeys.set(null);
+
+        // When
+        assertThrows(IOException.class, jwkSource::refresh);
+        Jwt jwt = new SecurityConfiguration().jwtDecoder(jwkSource, ISSUER).decode(sign(signingKey));
+
+        // Then
+        Assertions.assertThat(jwt.getSubject()).isEqualTo("admin-id");
+    }
+
+    @Test
+    public void shouldReloadKeys_WhenTokenIsSignedWithRotatedKey() throws Exception {
+        // Given
+        RSAKey rotatedKey = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        AtomicReference<JWKSet> keycloakKeys = new AtomicReference<>(new JWKSet(signingKey.toPublicJWK()));
+        AtomicInteger loads = new AtomicInteger();
+        CachingJwkSource jwkSource = new CachingJwkSource(() -> {
+            loads.incrementAndGet();
+            return keycloakKeys.get();
+        }, cacheFile, Duration.ofMinutes(5), Duration.ZERO);
+        jwkSource.refresh();
+        keycloakKeys.set(new JWKSet(rotatedKey.toPublicJWK()));
+
+        // When
+        Jwt jwt = new SecurityConfiguration().jwtDecoder(jwkSource, ISSUER).decode(sign(rotatedKey));
+
+        // Then
+        Assertions.assertThat(jwt.getSubject()).isEqualTo("admin-id");
+        Assertions.assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotReloadKeysOnEveryRequest_WhenKeyIsUnknown() throws Exception {
+        // Given
+        RSAKey unknownKey = new RSAKeyGenerator(2048).keyID("unknown").generate();
+        AtomicInteger loads = new AtomicInteger();
+        CachingJwkSource jwkSource = new CachingJwkSource(() -> {
+            loads.incrementAndGet();
+            return new JWKSet(signingKey.toPublicJWK());
+        }, cacheFile, Duration.ofMinutes(5), Duration.ofMinutes(1));
+        jwkSource.refresh();
+        JwtDecoder jwtDecoder = new SecurityConfiguration().jwtDecoder(jwkSource, ISSUER);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertThrows(JwtException.class, () -> jwtDecoder.decode(sign(unknownKey)));
+        }
+
+        // Then
+        Assertions.assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private String sign(RSAKey key) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject("admin-id")
+                .claim("preferred_username", "admin")
+                .issueTime(Date.from(Instant.now()))
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,162 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.model.Changes;
+import com.dyma.tennis.model.Deletion;
+import com.dyma.tennis.model.PlayerChange;
+import com.dyma.tennis.model.PlayerToUpdate;
+import com.dyma.tennis.model.Registration;
+import com.dyma.tennis.model.RegistrationChange;
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+public class ChangeFeedIntegrationTest {
+
+    private static final UUID FRENCH_OPEN = UUID.fromString("d4a9f8e2-9051-4739-90bc-1cb7e4c7ad42");
+    private static final UUID RAFAEL_NADAL = UUID.fromString("b466c6f7-52c6-4f25-b00d-c562be41311e");
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearDatabase(@Autowired Flyway flyway) {
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @Test
+    public void shouldReturnEverything_WhenSyncingFromZero() {
+        // When
+        Changes changes = changeFeed.since(0, ChangeFeed.MAX_LIMIT);
+
+        // Then
+        Assertions.assertThat(changes.hasMore()).isFalse();
+        Assertions.assertThat(changes.players()).extracting(change -> change.player().identifier())
+                .containsExactlyInAnyOrderElementsOf(playerService.getAllPlayers().stream().map(player -> player.info().identifier()).toList());
+        Assertions.assertThat(changes.tournaments()).isNotEmpty();
+        Assertions.assertThat(changes.deleted()).isEmpty();
+        Assertions.assertThat(changeFeed.since(changes.highWaterMark(), ChangeFeed.MAX_LIMIT).players()).isEmpty();
+    }
+
+    @Test
+    public void shouldReturnOnlyNewChanges_AfterWrites() {
+        // Given
+        long since = changeFeed.since(0, ChangeFeed.MAX_LIMIT).highWaterMark();
+        playerService.update(new PlayerToUpdate(RAFAEL_NADAL, "Rafael", "Nadal", LocalDate.of(1986, 6, 3), 6000));
+        registrationService.register(FRENCH_OPEN, RAFAEL_NADAL);
+
+        // When
+        Changes changes = changeFeed.since(since, ChangeFeed.MAX_LIMIT);
+
+        // Then
+        Assertions.assertThat(changes.highWaterMark()).isGreaterThan(since);
+        Assertions.assertThat(changes.players()).extracting(change -> change.player().identifier()).contains(RAFAEL_NADAL);
+        Assertions.assertThat(changes.registrations()).extracting(RegistrationChange::registration)
+                .containsExactly(new Registration(FRENCH_OPEN, RAFAEL_NADAL));
+        Assertions.assertThat(changes.tournaments()).isEmpty();
+    }
+
+    @Test
+    public void shouldReturnTombstones_WhenPlayerIsDeleted() {
+        // Given
+        registrationService.register(FRENCH_OPEN, RAFAEL_NADAL);
+        long since = changeFeed.since(0, ChangeFeed.MAX_LIMIT).highWaterMark();
+
+        // When
+        playerService.delete(RAFAEL_NADAL);
+        Changes changes = changeFeed.since(since, ChangeFeed.MAX_LIMIT);
+
+        // Then
+        Assertions.assertThat(changes.deleted()).containsExactly(
+                new Deletion(changes.deleted().get(0).version(), "registration", FRENCH_OPEN, RAFAEL_NADAL),
+                new Deletion(changes.deleted().get(1).version(), "player", RAFAEL_NADAL, null));
+        Assertions.assertThat(changes.players()).extracting(change -> change.player().identifier()).doesNotContain(RAFAEL_NADAL);
+    }
+
+    @Test
+    public void shouldPageThroughChanges_WithoutGapsOrDuplicates() {
+        // Given
+        Changes all = changeFeed.since(0, ChangeFeed.MAX_LIMIT);
+
+        // When
+        List<PlayerChange> paged = new ArrayList<>();
+        long since = 0;
+        Changes page;
+        do {
+            page = changeFeed.since(since, 2);
+            Assertions.assertThat(page.players().size() + page.tournaments().size()
+                    + page.registrations().size() + page.deleted().size()).isLessThanOrEqualTo(2);
+            paged.addAll(page.players());
+            since = page.highWaterMark();
+        } while (page.hasMore());
+
+        // Then
+        Assertions.assertThat(since).isEqualTo(all.highWaterMark());
+        Assertions.assertThat(paged).extracting(PlayerChange::version).isSorted().doesNotHaveDuplicates();
+        Assertions.assertThat(paged).containsExactlyElementsOf(all.players());
+    }
+
+    @Test
+    public void shouldHoldBackLaterVersions_WhileOlderWriteIsInFlight() {
+        // Given
+        long since = changeFeed.since(0, ChangeFeed.MAX_LIMIT).highWaterMark();
+        long inFlight = declareInFlight(Instant.now());
+        playerService.update(new PlayerToUpdate(RAFAEL_NADAL, "Rafael", "Nadal", LocalDate.of(1986, 6, 3), 6000));
+
+        // When
+        Changes whileInFlight = changeFeed.since(since, ChangeFeed.MAX_LIMIT);
+        jdbcTemplate.update("delete from change_in_flight where low_version = ?", inFlight);
+        Changes afterCommit = changeFeed.since(since, ChangeFeed.MAX_LIMIT);
+
+        // Then
+        Assertions.assertThat(whileInFlight.players()).isEmpty();
+        Assertions.assertThat(whileInFlight.highWaterMark()).isEqualTo(since);
+        Assertions.assertThat(afterCommit.players()).extracting(change -> change.player().identifier()).contains(RAFAEL_NADAL);
+    }
+
+    @Test
+    public void shouldIgnoreExpiredInFlightWrites() {
+        // Given
+        long since = changeFeed.since(0, ChangeFeed.MAX_LIMIT).highWaterMark();
+        declareInFlight(Instant.now().minus(Duration.ofHours(1)));
+
+        // When
+        playerService.update(new PlayerToUpdate(RAFAEL_NADAL, "Rafael", "Nadal", LocalDate.of(1986, 6, 3), 6000));
+        Changes changes = changeFeed.since(since, ChangeFeed.MAX_LIMIT);
+
+        // Then
+        Assertions.assertThat(changes.players()).extracting(change -> change.player().identifier()).contains(RAFAEL_NADAL);
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from change_in_flight", Integer.class)).isZero();
+    }
+
+    /**
+     * Simule une écriture d'une autre instance, déclarée mais pas encore validée.
+     */
+    private long declareInFlight(Instant startedAt) {
+        long lowVersion = jdbcTemplate.queryForObject("select nextval('change_version_seq')", Long.class);
+        jdbcTemplate.update("insert into change_in_flight(low_version, started_at) values (?, ?)", lowVersion, Timestamp.from(startedAt));
+        return lowVersion;
+    }
+}
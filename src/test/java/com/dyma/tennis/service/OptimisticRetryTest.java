@@ -0,0 +1,58 @@
+package com.dyma.tennis.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OptimisticRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OptimisticRetry optimisticRetry;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticRetry = new OptimisticRetry(3, meterRegistry);
+    }
+
+    @Test
+    public void shouldRetry_UntilWriteSucceeds() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = optimisticRetry.run("player.update", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("PlayerEntity", 1L);
+            }
+            return "saved";
+        });
+
+        // Then
+        Assertions.assertThat(result).isEqualTo("saved");
+        Assertions.assertThat(meterRegistry.get("tennis.optimistic-lock.conflicts")
+                .tags("operation", "player.update", "outcome", "retried").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldGiveUp_AfterMaxAttempts() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When / Then
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> optimisticRetry.run("player.update", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("PlayerEntity", 1L);
+        }));
+        Assertions.assertThat(attempts.get()).isEqualTo(3);
+        Assertions.assertThat(meterRegistry.get("tennis.optimistic-lock.conflicts")
+                .tags("operation", "player.update", "outcome", "exhausted").counter().count()).isEqualTo(1);
+    }
+}
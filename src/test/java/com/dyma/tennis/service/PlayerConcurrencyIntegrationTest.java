@@ -0,0 +1,80 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.model.Player;
+import com.dyma.tennis.model.PlayerToUpdate;
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Écritures concurrentes sur les joueurs : les recalculs du classement et les inscriptions ne doivent faire perdre
+ * aucune mise à jour, et les conflits de version doivent être absorbés par les nouvelles tentatives.
+ */
+@SpringBootTest
+public class PlayerConcurrencyIntegrationTest {
+
+    private static final int UPDATES_PER_WRITER = 25;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @BeforeEach
+    void clearDatabase(@Autowired Flyway flyway) {
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @Test
+    public void shouldNotLoseUpdates_WhenPlayersAreWrittenConcurrently() throws Exception {
+        // Given
+        List<Player> players = playerService.getAllPlayers();
+        UUID frenchOpen = UUID.fromString("d4a9f8e2-9051-4739-90bc-1cb7e4c7ad42");
+        UUID registeredPlayer = players.get(0).info().identifier();
+
+        // When
+        List<Future<?>> writers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(players.size() + 1)) {
+            for (int writer = 0; writer < players.size(); writer++) {
+                Player player = players.get(writer);
+                int base = (writer + 1) * 1000;
+                writers.add(executor.submit(() -> {
+                    for (int update = 1; update <= UPDATES_PER_WRITER; update++) {
+                        playerService.update(new PlayerToUpdate(player.info().identifier(), player.info().firstName(),
+                                player.info().lastName(), player.info().birthDate(), base + update));
+                    }
+                }));
+            }
+            writers.add(executor.submit(() -> registrationService.register(frenchOpen, registeredPlayer)));
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        }
+
+        // Then
+        List<Player> updatedPlayers = playerService.getAllPlayers();
+        for (int writer = 0; writer < players.size(); writer++) {
+            UUID identifier = players.get(writer).info().identifier();
+            Player updatedPlayer = updatedPlayers.stream().filter(player -> player.info().identifier().equals(identifier)).findFirst().orElseThrow();
+            Assertions.assertThat(updatedPlayer.info().rank().points()).isEqualTo((writer + 1) * 1000 + UPDATES_PER_WRITER);
+        }
+        Assertions.assertThat(playerService.getByIdentifier(registeredPlayer).tournaments()).extracting("identifier").containsExactly(frenchOpen);
+        Assertions.assertThat(updatedPlayers)
+                .isSortedAccordingTo(Comparator.comparing(player -> player.info().rank().position()))
+                .extracting(player -> player.info().rank().points())
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+}
@@ -1,8 +1,11 @@
 package com.dyma.tennis.service;
 
+import com.dyma.tennis.data.ChangeNotifier;
+import com.dyma.tennis.data.TimeOrderedIdentifierGenerator;
 import com.dyma.tennis.model.Player;
 import com.dyma.tennis.data.PlayerEntityList;
 import com.dyma.tennis.data.PlayerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,22 +15,53 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataRetrievalFailureException;
 
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class PlayerServiceTest {
+    @Mock
+    private ReadModel readModel;
+
+    @Mock
+    private ChangeNotifier changeNotifier;
+
+    @Mock
+    private RankingTable rankingTable;
+
+    @Mock
+    private RankingRecompute rankingRecompute;
+
     @Mock
     private PlayerRepository playerRepository;
 
+    @Mock
+    private PlayerView playerView;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
     private PlayerService playerService;
+
+    private SimpleMeterRegistry meterRegistry;
     @BeforeEach
     public void setUp(){
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
         PlayerMapper playerMapper = new PlayerMapper();
-        playerService = new PlayerService(playerRepository, playerMapper);
+        Mockito.doAnswer(invocation -> {
+            invocation.<Supplier<?>>getArgument(1).get();
+            return null;
+        }).when(rankingRecompute).run(Mockito.anyString(), Mockito.any());
+        Mockito.doAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get())
+                .when(changeTracker).write(Mockito.any(), Mockito.any());
+        playerService = new PlayerService(playerRepository, playerMapper, new ServiceMetrics(meterRegistry), readModel, rankingTable,
+                changeNotifier, rankingRecompute, new OptimisticRetry(3, meterRegistry), new TimeOrderedIdentifierGenerator(), playerView,
+                changeTracker);
     }
     @Test
     public void shouldReturnPlayerRanking(){
@@ -86,4 +120,42 @@ public class PlayerServiceTest {
         Assertions.assertThat(exception.getMessage()).isEqualTo("Player with identifier aaaaaaaa-1111-2222-3333-bbbbbbbbbbbb couldn't be found");
 
     }
+
+    @Test
+    public void shouldRecordOperationDuration_TaggedByOutcome(){
+        //Given
+        UUID unknownPlayer = UUID.fromString("aaaaaaaa-1111-2222-3333-bbbbbbbbbbbb");
+        Mockito.when(playerRepository.findAll()).thenReturn(PlayerEntityList.ALL);
+        Mockito.when(playerRepository.findOneByIdentifier(unknownPlayer)).thenReturn(Optional.empty());
+
+        //When
+        playerService.getAllPlayers();
+        assertThrows(PlayerNotFoundException.class, () -> playerService.getByIdentifier(unknownPlayer));
+
+        //Then
+        Assertions.assertThat(meterRegistry.get("tennis.service.operation")
+                .tags("operation", "player.getAll", "outcome", "success").timer().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("tennis.service.operation")
+                .tags("operation", "player.getByIdentifier", "outcome", "PlayerNotFoundException").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRecordRankingPhases_WhenPlayerIsDeleted(){
+        //Given
+        UUID playerToDelete = UUID.fromString("d27aef45-51cd-401b-a04a-b78a1327b793");
+        Mockito.when(playerRepository.findOneByIdentifier(playerToDelete)).thenReturn(Optional.of(PlayerEntityList.NOVAK_DJOKOVIC));
+        Mockito.when(playerRepository.findAllForRanking()).thenReturn(new ArrayList<>(PlayerEntityList.ALL));
+        Mockito.when(playerRepository.updateRanks(Mockito.anyList())).thenReturn(4);
+
+        //When
+        playerService.delete(playerToDelete);
+
+        //Then
+        for (String phase : List.of("load", "sort", "persist")) {
+            Assertions.assertThat(meterRegistry.get("tennis.ranking.phase")
+                    .tags("operation", "player.delete", "phase", phase).timer().count()).isEqualTo(1);
+        }
+        Assertions.assertThat(meterRegistry.get("tennis.ranking.rows.written")
+                .tag("operation", "player.delete").summary().totalAmount()).isEqualTo(4);
+    }
 }
@@ -0,0 +1,103 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.model.Player;
+import com.dyma.tennis.model.PlayerToCreate;
+import com.dyma.tennis.model.TournamentToUpdate;
+import com.dyma.tennis.web.PlayerViewEndpoint;
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+public class PlayerViewIntegrationTest {
+
+    private static final UUID FRENCH_OPEN = UUID.fromString("d4a9f8e2-9051-4739-90bc-1cb7e4c7ad42");
+    private static final UUID RAFAEL_NADAL = UUID.fromString("b466c6f7-52c6-4f25-b00d-c562be41311e");
+
+    @Autowired
+    private PlayerViewTable playerViewTable;
+
+    @Autowired
+    private PlayerViewEndpoint playerViewEndpoint;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearDatabase(@Autowired Flyway flyway) {
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @Test
+    public void shouldFillView_AfterMigration() {
+        // When
+        PlayerViewTable.Status status = playerViewTable.status();
+
+        // Then
+        Assertions.assertThat(status.players()).isPositive();
+        Assertions.assertThat(status.viewRows()).isEqualTo(status.players());
+        Assertions.assertThat(playerService.getAllPlayers()).extracting(player -> player.info().rank().position()).isSorted();
+    }
+
+    @Test
+    public void shouldKeepViewInSync_AfterWrites() {
+        // Given
+        Player created = playerService.create(new PlayerToCreate("Carlos", "Alcaraz", LocalDate.of(2003, 5, 5), 10000));
+        registrationService.register(FRENCH_OPEN, RAFAEL_NADAL);
+
+        // When
+        tournamentService.update(new TournamentToUpdate(FRENCH_OPEN, "Roland-Garros", LocalDate.now().plusDays(10),
+                LocalDate.now().plusDays(24), 2500000, 128));
+        List<Player> maintained = playerService.getAllPlayers();
+
+        // Then
+        Assertions.assertThat(maintained.getFirst().info().identifier()).isEqualTo(created.info().identifier());
+        Assertions.assertThat(playerService.getByIdentifier(RAFAEL_NADAL).tournaments()).extracting("name").containsExactly("Roland-Garros");
+        playerViewTable.rebuild();
+        Assertions.assertThat(playerService.getAllPlayers()).isEqualTo(maintained);
+    }
+
+    @Test
+    public void shouldRemovePlayerFromView_WhenPlayerIsDeleted() {
+        // When
+        playerService.delete(RAFAEL_NADAL);
+
+        // Then
+        Assertions.assertThat(playerViewTable.findOne(RAFAEL_NADAL)).isEmpty();
+        Assertions.assertThat(playerService.getAllPlayers()).extracting(player -> player.info().rank().position())
+                .startsWith(1)
+                .isSorted();
+    }
+
+    @Test
+    public void shouldRepairView_WhenRebuiltAfterDirectSqlWrite() {
+        // Given
+        jdbcTemplate.update("update player set first_name = 'Rafa' where identifier = ?", RAFAEL_NADAL);
+        Assertions.assertThat(playerService.getByIdentifier(RAFAEL_NADAL).info().firstName()).isEqualTo("Rafael");
+
+        // When
+        PlayerViewTable.Status status = playerViewEndpoint.rebuild();
+
+        // Then
+        Assertions.assertThat(status.viewRows()).isEqualTo(status.players());
+        Assertions.assertThat(playerService.getByIdentifier(RAFAEL_NADAL).info().firstName()).isEqualTo("Rafa");
+    }
+}
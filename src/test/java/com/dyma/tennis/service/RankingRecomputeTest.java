@@ -0,0 +1,235 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.data.PlayerEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RankingRecomputeTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RankingRecompute rankingRecompute;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rankingRecompute = new RankingRecompute(Mockito.mock(DataSource.class), Mockito.mock(RankingTable.class),
+                Mockito.mock(PlatformTransactionManager.class), meterRegistry, Duration.ofSeconds(30), Duration.ofMillis(50));
+    }
+
+    @Test
+    public void shouldCoalesceRequests_WhileRecomputeIsInFlight() throws Exception {
+        // Given
+        AtomicInteger recomputes = new AtomicInteger();
+        CountDownLatch firstRecomputeStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstRecompute = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> rankingRecompute.run("player.create", () -> {
+            recomputes.incrementAndGet();
+            firstRecomputeStarted.countDown();
+            awaitQuietly(releaseFirstRecompute);
+            return List.of();
+        }));
+        Assertions.assertThat(firstRecomputeStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> rankingRecompute.run("player.update", counting(recomputes)));
+        CompletableFuture<Void> third = CompletableFuture.runAsync(() -> rankingRecompute.run("player.delete", counting(recomputes)));
+        await().atMost(Duration.ofSeconds(5)).until(() -> counter("tennis.ranking.recompute.contention") == 2);
+        releaseFirstRecompute.countDown();
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+
+        // Then
+        Assertions.assertThat(recomputes.get()).isEqualTo(2);
+        Assertions.assertThat(counter("tennis.ranking.recompute.coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRecomputeEachTime_WhenRequestsDoNotOverlap() {
+        // Given
+        AtomicInteger recomputes = new AtomicInteger();
+
+        // When
+        rankingRecompute.run("player.create", counting(recomputes));
+        rankingRecompute.run("player.update", counting(recomputes));
+
+        // Then
+        Assertions.assertThat(recomputes.get()).isEqualTo(2);
+        Assertions.assertThat(counter("tennis.ranking.recompute.coalesced")).isZero();
+    }
+
+    @Test
+    public void shouldRetryInBackground_WhenClusterLockWaitTimesOut() throws Exception {
+        // Given
+        AtomicBoolean lockHeldElsewhere = new AtomicBoolean(true);
+        RankingRecompute clusterRecompute = new RankingRecompute(postgres(lockHeldElsewhere), Mockito.mock(RankingTable.class),
+                Mockito.mock(PlatformTransactionManager.class), meterRegistry, Duration.ofSeconds(30), Duration.ofMillis(50));
+        AtomicInteger recomputes = new AtomicInteger();
+
+        // When
+        clusterRecompute.run("player.update", counting(recomputes));
+        int recomputesAfterTimeout = recomputes.get();
+        lockHeldElsewhere.set(false);
+
+        // Then
+        Assertions.assertThat(recomputesAfterTimeout).isZero();
+        Assertions.assertThat(meterRegistry.get("tennis.ranking.recompute.failures").counter().count()).isEqualTo(1);
+        await().atMost(Duration.ofSeconds(5)).until(() -> recomputes.get() == 1);
+        clusterRecompute.destroy();
+    }
+
+    @Test
+    public void shouldNotPublishRanking_WhenCommitFails() {
+        // Given
+        RankingTable rankingTable = mock(RankingTable.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+        RankingRecompute failingRecompute = new RankingRecompute(mock(DataSource.class), rankingTable, transactionManager,
+                meterRegistry, Duration.ofSeconds(30), Duration.ofSeconds(30));
+
+        // When
+        failingRecompute.run("player.update", () -> List.of(new PlayerEntity()));
+
+        // Then
+        verify(rankingTable, never()).publish(anyList());
+        Assertions.assertThat(meterRegistry.get("tennis.ranking.recompute.failures").counter().count()).isEqualTo(1);
+        failingRecompute.destroy();
+    }
+
+    @Test
+    public void shouldPublishRanking_WhenCommitSucceeds() {
+        // Given
+        RankingTable rankingTable = mock(RankingTable.class);
+        RankingRecompute publishingRecompute = new RankingRecompute(mock(DataSource.class), rankingTable,
+                mock(PlatformTransactionManager.class), meterRegistry, Duration.ofSeconds(30), Duration.ofSeconds(30));
+        List<PlayerEntity> newRanking = List.of(new PlayerEntity());
+
+        // When
+        publishingRecompute.run("player.update", () -> newRanking);
+
+        // Then
+        verify(rankingTable).publish(newRanking);
+    }
+
+    @Test
+    public void shouldPublishRankingChanges_WhenRecomputeIsRetriedAfterRollback() {
+        // Given
+        List<Object> events = new ArrayList<>();
+        RankingTable rankingTable = new RankingTable(mock(DataSource.class), events::add);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        doThrow(new TransactionSystemException("commit failed")).doNothing().when(transactionManager).commit(any());
+        RankingRecompute retriedRecompute = new RankingRecompute(mock(DataSource.class), rankingTable, transactionManager,
+                meterRegistry, Duration.ofSeconds(30), Duration.ofSeconds(30));
+        UUID identifier = UUID.randomUUID();
+        Supplier<List<PlayerEntity>> recompute = () -> List.of(new PlayerEntity(identifier, "Nadal", "Rafael", null, 5000, 1));
+
+        // When
+        retriedRecompute.run("player.update", recompute);
+        int eventsAfterRollback = events.size();
+        retriedRecompute.run("ranking.retry", recompute);
+
+        // Then
+        Assertions.assertThat(eventsAfterRollback).isZero();
+        Assertions.assertThat(events).singleElement()
+                .isInstanceOfSatisfying(RankingChanged.class, changed -> Assertions.assertThat(changed.changes())
+                        .extracting(player -> player.identifier())
+                        .containsExactly(identifier));
+        retriedRecompute.destroy();
+    }
+
+    private static Supplier<List<PlayerEntity>> counting(AtomicInteger recomputes) {
+        return () -> {
+            recomputes.incrementAndGet();
+            return List.of();
+        };
+    }
+
+    /**
+     * Simule PostgreSQL : tant que le verrou consultatif est tenu par une autre instance,
+     * son attente échoue comme avec lock_timeout.
+     */
+    private static DataSource postgres(AtomicBoolean lockHeldElsewhere) throws SQLException {
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(connection.getMetaData()).thenReturn(metaData);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenAnswer(invocation -> singleValue(0L));
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            PreparedStatement preparedStatement = mock(PreparedStatement.class);
+            when(preparedStatement.executeQuery()).thenAnswer(execution -> {
+                if (sql.contains("pg_try_advisory_xact_lock")) {
+                    return singleValue(!lockHeldElsewhere.get());
+                }
+                if (sql.contains("pg_advisory_xact_lock") && lockHeldElsewhere.get()) {
+                    throw new SQLException("canceling statement due to lock timeout", "55P03");
+                }
+                return singleValue(null);
+            });
+            return preparedStatement;
+        });
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private static ResultSet singleValue(Object value) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getObject(1)).thenReturn(value);
+        when(resultSet.getLong(1)).thenReturn(value instanceof Long number ? number : 0L);
+        when(resultSet.getBoolean(1)).thenReturn(Boolean.TRUE.equals(value));
+        when(resultSet.wasNull()).thenReturn(value == null);
+        return resultSet;
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("scope", "local").counter().count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.data.PlayerEntity;
+import com.dyma.tennis.model.Rank;
+import com.dyma.tennis.model.RankedPlayer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+public class RankingTableTest {
+
+    private RankingTable rankingTable;
+
+    private List<PlayerEntity> ranking;
+
+    @BeforeEach
+    public void setUp() {
+        Random random = new Random(42);
+        List<PlayerEntity> players = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            players.add(new PlayerEntity(new UUID(random.nextLong(), random.nextLong()), "Last" + i, "First" + i,
+                    LocalDate.of(1990, 1, 1), random.nextInt(12_000), 0));
+        }
+        ranking = new RankingCalculator(players).getNewPlayersRanking();
+        rankingTable = new RankingTable(Mockito.mock(DataSource.class), event -> {
+        });
+        rankingTable.publish(ranking);
+    }
+
+    @Test
+    public void shouldReturnRankRange() {
+        // When
+        List<RankedPlayer> players = rankingTable.range(500, 600);
+
+        // Then
+        Assertions.assertThat(players).hasSize(101);
+        Assertions.assertThat(players.get(0)).isEqualTo(new RankedPlayer(ranking.get(499).getIdentifier(), new Rank(500, ranking.get(499).getPoints())));
+        Assertions.assertThat(players).extracting(player -> player.rank().points()).isSortedAccordingTo((first, second) -> second - first);
+    }
+
+    @Test
+    public void shouldBoundRankRange_ToExistingRanking() {
+        // When / Then
+        Assertions.assertThat(rankingTable.range(-5, 2)).extracting(player -> player.rank().position()).containsExactly(1, 2);
+        Assertions.assertThat(rankingTable.range(9_999, 20_000)).hasSize(2);
+        Assertions.assertThat(rankingTable.range(20_000, 30_000)).isEmpty();
+    }
+
+    @Test
+    public void shouldFindRankOfEveryPlayer() {
+        // When / Then
+        for (PlayerEntity player : ranking) {
+            Assertions.assertThat(rankingTable.rankOf(player.getIdentifier())).isEqualTo(new Rank(player.getRank(), player.getPoints()));
+        }
+        Assertions.assertThat(rankingTable.rankOf(UUID.fromString("aaaaaaaa-1111-2222-3333-bbbbbbbbbbbb"))).isNull();
+        Assertions.assertThat(rankingTable.footprintBytes()).isLessThan(40L * ranking.size() + 64);
+    }
+}
@@ -0,0 +1,128 @@
+package com.dyma.tennis.service;
+
+import com.dyma.tennis.model.Player;
+import com.dyma.tennis.model.PlayerToCreate;
+import com.dyma.tennis.model.Tournament;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "read-model.enabled=true")
+public class ReadModelIntegrationTest {
+
+    private static final UUID FRENCH_OPEN = UUID.fromString("d4a9f8e2-9051-4739-90bc-1cb7e4c7ad42");
+    private static final UUID RAFAEL_NADAL = UUID.fromString("b466c6f7-52c6-4f25-b00d-c562be41311e");
+
+    @Autowired
+    private ReadModel readModel;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @BeforeEach
+    void clearDatabase(@Autowired Flyway flyway) {
+        flyway.clean();
+        flyway.migrate();
+        readModel.refresh();
+    }
+
+    @Test
+    public void shouldServeReadsFromSnapshot_WithoutReloading() {
+        // Given
+        ReadModel.Snapshot snapshot = readModel.snapshot();
+
+        // When
+        List<Player> players = playerService.getAllPlayers();
+        Tournament frenchOpen = tournamentService.getByIdentifier(FRENCH_OPEN);
+
+        // Then
+        Assertions.assertThat(players).isSameAs(snapshot.playersByRank());
+        Assertions.assertThat(players).extracting(player -> player.info().rank().position()).isSorted();
+        Assertions.assertThat(frenchOpen.info().name()).isEqualTo("French Open");
+        Assertions.assertThat(readModel.snapshot()).isSameAs(snapshot);
+    }
+
+    @Test
+    public void shouldPublishNewSnapshot_AfterWrites() {
+        // Given
+        ReadModel.Snapshot before = readModel.snapshot();
+
+        // When
+        Player created = playerService.create(new PlayerToCreate("Carlos", "Alcaraz", LocalDate.of(2003, 5, 5), 10000));
+        registrationService.register(FRENCH_OPEN, RAFAEL_NADAL);
+
+        // Then
+        Assertions.assertThat(readModel.snapshot().version()).isGreaterThan(before.version());
+        Assertions.assertThat(playerService.getAllPlayers().get(0).info().identifier()).isEqualTo(created.info().identifier());
+        Assertions.assertThat(playerService.getByIdentifier(RAFAEL_NADAL).tournaments()).extracting("name").containsExactly("French Open");
+        Assertions.assertThat(tournamentService.getByIdentifier(FRENCH_OPEN).players()).extracting("lastName").containsExactly("NadalTest");
+        Assertions.assertThat(before.playersByIdentifier()).doesNotContainKey(created.info().identifier());
+    }
+
+    @Test
+    public void shouldFailToFindPlayer_WhenAbsentFromSnapshot() {
+        // When / Then
+        UUID unknownPlayer = UUID.fromString("aaaaaaaa-1111-2222-3333-bbbbbbbbbbbb");
+        assertThrows(PlayerNotFoundException.class, () -> playerService.getByIdentifier(unknownPlayer));
+    }
+
+    @Test
+    public void shouldFallBackToDatabase_AndReloadInBackground_WhenReloadFails(@Autowired DataSource dataSource) throws SQLException {
+        // Given
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        AtomicInteger connectionAttempts = new AtomicInteger();
+        DataSource flakyDataSource = mock(DataSource.class);
+        when(flakyDataSource.getConnection()).thenAnswer(invocation -> {
+            connectionAttempts.incrementAndGet();
+            if (databaseDown.get()) {
+                throw new SQLException("Connection refused");
+            }
+            return dataSource.getConnection();
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReadModel flakyReadModel = new ReadModel(true, flakyDataSource, meterRegistry, Duration.ofMillis(500));
+
+        // When
+        flakyReadModel.refresh();
+        List<ReadModel.Snapshot> whileDown = new ArrayList<>();
+        for (int read = 0; read < 100; read++) {
+            whileDown.add(flakyReadModel.snapshot());
+        }
+        int attemptsWhileDown = connectionAttempts.get();
+        databaseDown.set(false);
+
+        // Then
+        Assertions.assertThat(whileDown).containsOnlyNulls();
+        Assertions.assertThat(attemptsWhileDown).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("tennis.read-model.refresh.failures").counter().count()).isGreaterThanOrEqualTo(1);
+        await().atMost(Duration.ofSeconds(5)).until(() -> flakyReadModel.snapshot() != null);
+        Assertions.assertThat(flakyReadModel.snapshot().playersByRank()).isNotEmpty();
+        flakyReadModel.destroy();
+    }
+}
@@ -1,17 +1,22 @@
 package com.dyma.tennis.service;
 
+import com.dyma.tennis.data.ChangeNotifier;
 import com.dyma.tennis.data.PlayerEntityList;
 import com.dyma.tennis.data.PlayerRepository;
 import com.dyma.tennis.data.TournamentEntityList;
 import com.dyma.tennis.data.TournamentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.verify;
@@ -19,18 +24,36 @@ import static org.mockito.Mockito.when;
 
 public class RegistrationServiceTest {
 
+    @Mock
+    private ReadModel readModel;
+
+    @Mock
+    private ChangeNotifier changeNotifier;
+
     @Mock
     private PlayerRepository playerRepository;
 
     @Mock
     private TournamentRepository tournamentRepository;
 
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private RegistrationService registrationService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        registrationService = new RegistrationService(tournamentRepository, playerRepository);
+        meterRegistry = new SimpleMeterRegistry();
+        Mockito.doAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get())
+                .when(changeTracker).write(Mockito.any(), Mockito.any());
+        registrationService = new RegistrationService(tournamentRepository, playerRepository, new ServiceMetrics(meterRegistry), readModel, changeNotifier,
+                new OptimisticRetry(3, meterRegistry), changeTracker, eventPublisher);
     }
 
     @Test
@@ -76,4 +99,21 @@ public class RegistrationServiceTest {
         });
         Assertions.assertThat(exception.getMessage()).isEqualTo("Player b466c6f7-52c6-4f25-b00d-c562be41311e does not exist");
     }
+
+    @Test
+    public void shouldCountRegistrationFailure_ByReason() {
+        // Given
+        UUID frenchOpen = UUID.fromString("a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a12");
+        UUID rafaelNadal = UUID.fromString("b466c6f7-52c6-4f25-b00d-c562be41311e");
+        when(tournamentRepository.findOneByIdentifier(frenchOpen)).thenReturn(Optional.of(TournamentEntityList.FRENCH_OPEN));
+        when(playerRepository.findOneByIdentifier(rafaelNadal)).thenReturn(Optional.empty());
+
+        // When
+        assertThrows(TournamentRegistrationException.class, () -> registrationService.register(frenchOpen, rafaelNadal));
+
+        // Then
+        Assertions.assertThat(meterRegistry.get("tennis.registration.failures").tag("reason", "player_not_found").counter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("tennis.service.operation")
+                .tags("operation", "registration.register", "outcome", "TournamentRegistrationException").timer().count()).isEqualTo(1);
+    }
 }
@@ -1,11 +1,14 @@
 package com.dyma.tennis.service;
 
+import com.dyma.tennis.data.ChangeNotifier;
+import com.dyma.tennis.data.TimeOrderedIdentifierGenerator;
 import com.dyma.tennis.data.PlayerEntityList;
 import com.dyma.tennis.data.PlayerRepository;
 import com.dyma.tennis.data.TournamentEntityList;
 import com.dyma.tennis.data.TournamentRepository;
 import com.dyma.tennis.model.Player;
 import com.dyma.tennis.model.Tournament;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,20 +20,33 @@ import org.springframework.dao.DataRetrievalFailureException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TournamentServiceTest {
 
+    @Mock
+    private ReadModel readModel;
+
+    @Mock
+    private ChangeNotifier changeNotifier;
+
     @Mock
     private TournamentRepository tournamentRepository;
 
+    @Mock
+    private ChangeTracker changeTracker;
+
     private TournamentService tournamentService;
     @BeforeEach
     public void setUp(){
         MockitoAnnotations.openMocks(this);
         TournamentMapper tournamentMapper = new TournamentMapper();
-        tournamentService = new TournamentService(tournamentRepository, tournamentMapper);
+        Mockito.doAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get())
+                .when(changeTracker).write(Mockito.any(), Mockito.any());
+        tournamentService = new TournamentService(tournamentRepository, tournamentMapper, new ServiceMetrics(new SimpleMeterRegistry()), readModel, changeNotifier,
+                new OptimisticRetry(3, new SimpleMeterRegistry()), new TimeOrderedIdentifierGenerator(), changeTracker);
     }
 
     @Test
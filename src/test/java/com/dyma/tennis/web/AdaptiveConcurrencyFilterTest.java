@@ -0,0 +1,184 @@
+package com.dyma.tennis.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AdaptiveConcurrencyFilterTest {
+
+    private final AtomicLong poolWaitNanos = new AtomicLong();
+
+    private final List<Object> readinessStates = new ArrayList<>();
+
+    private final CountDownLatch requestStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseRequest = new CountDownLatch(1);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AdaptiveConcurrencyLimit limit;
+
+    private AdaptiveConcurrencyFilter adaptiveConcurrencyFilter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limit = new AdaptiveConcurrencyLimit(8, 1, 10, 0.5, Duration.ofMillis(20), 2, poolWaitNanos::get,
+                event -> readinessStates.add(((AvailabilityChangeEvent<?>) event).getState()), meterRegistry);
+        limit.onReadinessChange(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+        adaptiveConcurrencyFilter = new AdaptiveConcurrencyFilter(limit, Duration.ofHours(1), new ObjectMapper());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseRequest.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldRejectRequest_WhenLimitIsReached() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimit singleRequest = new AdaptiveConcurrencyLimit(1, 1, 1, 0.5, Duration.ofMillis(20), 2,
+                poolWaitNanos::get, event -> readinessStates.add(event), meterRegistry);
+        adaptiveConcurrencyFilter = new AdaptiveConcurrencyFilter(singleRequest, Duration.ofHours(1), new ObjectMapper());
+        Future<MockHttpServletResponse> slowRequest = executor.submit(() -> perform("/players", new SlowServlet()));
+        Assertions.assertThat(requestStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        MockHttpServletResponse rejected = perform("/tournaments", null);
+        MockHttpServletResponse outsideApi = perform("/accounts/token", null);
+
+        // Then
+        Assertions.assertThat(rejected.getStatus()).isEqualTo(503);
+        Assertions.assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        Assertions.assertThat(rejected.getContentAsString()).contains("Service is saturated, retry later");
+        Assertions.assertThat(outsideApi.getStatus()).isEqualTo(200);
+        Assertions.assertThat(meterRegistry.get("tennis.adaptive-limit.rejections").counter().count()).isEqualTo(1);
+
+        releaseRequest.countDown();
+        Assertions.assertThat(slowRequest.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        Assertions.assertThat(perform("/tournaments", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldDecreaseLimitAndRefuseTraffic_WhenConnectionPoolWaitExceedsThreshold() {
+        // Given
+        poolWaitNanos.set(TimeUnit.MILLISECONDS.toNanos(50));
+
+        // When
+        limit.evaluate();
+        limit.evaluate();
+
+        // Then
+        Assertions.assertThat(limit.getLimit()).isEqualTo(2);
+        Assertions.assertThat(limit.isSaturated()).isTrue();
+        Assertions.assertThat(readinessStates).containsExactly(ReadinessState.REFUSING_TRAFFIC);
+        Assertions.assertThat(meterRegistry.get("tennis.adaptive-limit.decisions").tag("decision", "decrease").counter().count()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("tennis.adaptive-limit.limit").gauge().value()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("tennis.adaptive-limit.pool-wait").gauge().value()).isEqualTo(50);
+    }
+
+    @Test
+    public void shouldIncreaseLimitAndAcceptTrafficAgain_WhenPoolRecovers() {
+        // Given
+        poolWaitNanos.set(TimeUnit.MILLISECONDS.toNanos(50));
+        limit.evaluate();
+        poolWaitNanos.set(TimeUnit.MILLISECONDS.toNanos(1));
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertThat(limit.tryAcquire()).isTrue();
+        }
+
+        // When
+        limit.evaluate();
+        boolean saturatedAfterOneHealthyWindow = limit.isSaturated();
+        limit.evaluate();
+
+        // Then
+        Assertions.assertThat(saturatedAfterOneHealthyWindow).isTrue();
+        Assertions.assertThat(limit.isSaturated()).isFalse();
+        Assertions.assertThat(limit.getLimit()).isEqualTo(6);
+        Assertions.assertThat(readinessStates).containsExactly(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC);
+        Assertions.assertThat(meterRegistry.get("tennis.adaptive-limit.decisions").tag("decision", "increase").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldHoldLimit_WhenLittleOfItIsUsed() {
+        // Given
+        Assertions.assertThat(limit.tryAcquire()).isTrue();
+        limit.release();
+
+        // When
+        limit.evaluate();
+
+        // Then
+        Assertions.assertThat(limit.getLimit()).isEqualTo(8);
+        Assertions.assertThat(limit.isSaturated()).isFalse();
+        Assertions.assertThat(readinessStates).isEmpty();
+        Assertions.assertThat(meterRegistry.get("tennis.adaptive-limit.decisions").tag("decision", "hold").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotReportReady_WhenRecoveringBeforeApplicationIsReady() {
+        // Given
+        AdaptiveConcurrencyLimit starting = new AdaptiveConcurrencyLimit(8, 1, 10, 0.5, Duration.ofMillis(20), 1, poolWaitNanos::get,
+                event -> readinessStates.add(((AvailabilityChangeEvent<?>) event).getState()), meterRegistry);
+        poolWaitNanos.set(TimeUnit.MILLISECONDS.toNanos(50));
+        starting.evaluate();
+        poolWaitNanos.set(TimeUnit.MILLISECONDS.toNanos(1));
+        starting.evaluate();
+        poolWaitNanos.set(TimeUnit.MILLISECONDS.toNanos(50));
+        starting.evaluate();
+        List<Object> statesDuringStartup = List.copyOf(readinessStates);
+
+        // When
+        starting.onReadinessChange(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+
+        // Then
+        Assertions.assertThat(statesDuringStartup).isEmpty();
+        Assertions.assertThat(readinessStates).containsExactly(ReadinessState.REFUSING_TRAFFIC);
+    }
+
+    private MockHttpServletResponse perform(String path, HttpServlet servlet) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = servlet == null ? new MockFilterChain() : new MockFilterChain(servlet);
+        adaptiveConcurrencyFilter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private class SlowServlet extends HttpServlet {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+            requestStarted.countDown();
+            try {
+                releaseRequest.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.dyma.tennis.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class BulkheadFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BulkheadFilter bulkheadFilter;
+
+    private final CountDownLatch readStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseRead = new CountDownLatch(1);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkheadFilter = new BulkheadFilter(new Bulkhead("read", 1, 0, Duration.ZERO, meterRegistry), new ObjectMapper());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseRead.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldRejectRead_WhenReadBulkheadIsSaturated() throws Exception {
+        // Given
+        Future<MockHttpServletResponse> slowRead = executor.submit(() -> perform("GET", "/players", new SlowServlet()));
+        Assertions.assertThat(readStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        MockHttpServletResponse rejectedRead = perform("GET", "/tournaments", null);
+
+        // Then
+        Assertions.assertThat(rejectedRead.getStatus()).isEqualTo(503);
+        Assertions.assertThat(rejectedRead.getHeader("Retry-After")).isEqualTo("1");
+        Assertions.assertThat(rejectedRead.getContentAsString()).contains("Service is saturated");
+        Assertions.assertThat(meterRegistry.get("tennis.bulkhead.active").tag("bulkhead", "read").gauge().value()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("tennis.bulkhead.rejections").tag("bulkhead", "read").counter().count()).isEqualTo(1);
+        releaseRead.countDown();
+        Assertions.assertThat(slowRead.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldLetWritesThrough_WhenReadBulkheadIsSaturated() throws Exception {
+        // Given
+        executor.submit(() -> perform("GET", "/players", new SlowServlet()));
+        Assertions.assertThat(readStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        MockHttpServletResponse write = perform("DELETE", "/players/b466c6f7-52c6-4f25-b00d-c562be41311e", null);
+
+        // Then
+        Assertions.assertThat(write.getStatus()).isEqualTo(200);
+        Assertions.assertThat(meterRegistry.get("tennis.bulkhead.rejections").tag("bulkhead", "read").counter().count()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldReleasePermit_WhenRequestCompletes() throws Exception {
+        // Given
+        perform("GET", "/players", null);
+
+        // When
+        MockHttpServletResponse secondRead = perform("GET", "/players", null);
+
+        // Then
+        Assertions.assertThat(secondRead.getStatus()).isEqualTo(200);
+        Assertions.assertThat(meterRegistry.get("tennis.bulkhead.active").tag("bulkhead", "read").gauge().value()).isEqualTo(0);
+    }
+
+    private MockHttpServletResponse perform(String method, String path, HttpServlet servlet) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = servlet == null ? new MockFilterChain() : new MockFilterChain(servlet);
+        bulkheadFilter.doFilter(request, response, filterChain);
+        return response;
+    }
+
+    private class SlowServlet extends HttpServlet {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+            readStarted.countDown();
+            try {
+                releaseRead.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.dyma.tennis.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+
+public class EventStreamTest {
+
+    // Les envois ne partent que quand le test exécute les tâches : l'abonné est lent à volonté
+    private final Queue<Runnable> sender = new ArrayDeque<>();
+
+    private long now;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EventStream eventStream;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventStream = new EventStream("test", 3, Duration.ofMinutes(1), Duration.ofSeconds(10), sender::add, () -> now, meterRegistry);
+    }
+
+    @Test
+    public void shouldCoalesceEvents_WhenSubscriberIsSlow() {
+        // Given
+        eventStream.subscribe("ranking");
+
+        // When
+        eventStream.publish("ranking", "rank", "nadal", 1);
+        eventStream.publish("ranking", "rank", "nadal", 2);
+        eventStream.publish("ranking", "rank", "nadal", 3);
+        eventStream.publish("ranking", "rank", "federer", 2);
+        runSender();
+
+        // Then
+        Assertions.assertThat(counter("tennis.live-stream.published")).isEqualTo(4);
+        Assertions.assertThat(dropped("coalesced")).isEqualTo(2);
+        Assertions.assertThat(counter("tennis.live-stream.sent")).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDropPendingEvents_WhenSubscriberFallsTooFarBehind() {
+        // Given
+        eventStream.subscribe("ranking");
+
+        // When
+        for (int player = 0; player < 5; player++) {
+            eventStream.publish("ranking", "rank", "player-" + player, player);
+        }
+        runSender();
+
+        // Then
+        Assertions.assertThat(dropped("overflow")).isEqualTo(4);
+        Assertions.assertThat(counter("tennis.live-stream.sent")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldOnlyDeliverToSubscribersOfTopic() {
+        // Given
+        eventStream.subscribe("tournament-1");
+        eventStream.subscribe("tournament-1");
+        eventStream.subscribe("tournament-2");
+
+        // When
+        eventStream.publish("tournament-1", "registration", "state", 1);
+        runSender();
+
+        // Then
+        Assertions.assertThat(meterRegistry.get("tennis.live-stream.subscribers").tag("stream", "test").gauge().value()).isEqualTo(3);
+        Assertions.assertThat(counter("tennis.live-stream.sent")).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldSendInitialState_BeforePublishedEvents() {
+        // Given
+        eventStream.subscribe("tournament-1", "registration", "state", 1);
+
+        // When
+        eventStream.publish("tournament-1", "registration", "state", 2);
+        runSender();
+
+        // Then
+        Assertions.assertThat(dropped("coalesced")).isEqualTo(1);
+        Assertions.assertThat(counter("tennis.live-stream.sent")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictSubscriber_WhenPendingEventsAreNotSentInTime() {
+        // Given
+        eventStream.subscribe("tournament-1");
+        eventStream.subscribe("tournament-2");
+        eventStream.publish("tournament-1", "registration", "state", 1);
+
+        // When
+        now += Duration.ofSeconds(11).toNanos();
+        eventStream.heartbeat();
+        runSender();
+
+        // Then
+        Assertions.assertThat(meterRegistry.get("tennis.live-stream.evicted").counter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("tennis.live-stream.subscribers").tag("stream", "test").gauge().value()).isEqualTo(1);
+        Assertions.assertThat(eventStream.hasSubscribers("tournament-1")).isFalse();
+        Assertions.assertThat(eventStream.hasSubscribers("tournament-2")).isTrue();
+    }
+
+    @Test
+    public void shouldNotLeakSubscriber_WhenClosedDuringSubscription() {
+        // Given
+        EventStream stoppingStream = new EventStream("stopping", 3, Duration.ofMinutes(1), Duration.ofSeconds(10),
+                task -> {
+                    throw new RejectedExecutionException("Shutting down");
+                }, () -> now, meterRegistry);
+
+        // When
+        stoppingStream.subscribe("tournament-1", "registration", "state", 1);
+
+        // Then
+        Assertions.assertThat(stoppingStream.hasSubscribers("tournament-1")).isFalse();
+        Assertions.assertThat(meterRegistry.get("tennis.live-stream.subscribers").tag("stream", "stopping").gauge().value()).isZero();
+    }
+
+    private void runSender() {
+        Runnable task;
+        while ((task = sender.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private double dropped(String reason) {
+        return meterRegistry.get("tennis.live-stream.dropped").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,67 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.service.PlayerService;
+import com.dyma.tennis.service.RegistrationService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+public class FlightRecorderEndpointIntegrationTest {
+
+    @Autowired
+    private FlightRecorderEndpoint flightRecorderEndpoint;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @BeforeEach
+    void clearDatabase(@Autowired Flyway flyway) {
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @Test
+    public void shouldRecordApplicationEvents() throws Exception {
+        // Given
+        FlightRecorderEndpoint.RecordingDescription started = flightRecorderEndpoint.start("test", "default", Duration.ofMinutes(1));
+
+        // When
+        registrationService.register(UUID.fromString("d4a9f8e2-9051-4739-90bc-1cb7e4c7ad42"), UUID.fromString("b466c6f7-52c6-4f25-b00d-c562be41311e"));
+        playerService.delete(UUID.fromString("d27aef45-51cd-401b-a04a-b78a1327b793"));
+        FlightRecorderEndpoint.RecordingDescription stopped = flightRecorderEndpoint.stop(started.id());
+        Resource download = flightRecorderEndpoint.download(started.id());
+
+        // Then
+        Assertions.assertThat(stopped.state()).isEqualTo("STOPPED");
+        List<RecordedEvent> events = RecordingFile.readAllEvents(download.getFile().toPath());
+        Assertions.assertThat(events).filteredOn(event -> event.getEventType().getName().equals("com.dyma.tennis.Registration"))
+                .singleElement()
+                .satisfies(event -> Assertions.assertThat(event.getString("outcome")).isEqualTo("success"));
+        Assertions.assertThat(events).filteredOn(event -> event.getEventType().getName().equals("com.dyma.tennis.RankingRecompute"))
+                .singleElement()
+                .satisfies(event -> {
+                    Assertions.assertThat(event.getString("operation")).isEqualTo("player.delete");
+                    // Seuls les joueurs classés derrière le joueur supprimé changent de rang
+                    Assertions.assertThat(event.getInt("rowsWritten")).isBetween(1, event.getInt("playerCount"));
+                });
+        Assertions.assertThat(events).filteredOn(event -> event.getEventType().getName().equals("com.dyma.tennis.RepositoryCall"))
+                .extracting(event -> event.getString("repository"))
+                .contains("PlayerRepository", "TournamentRepository");
+        flightRecorderEndpoint.delete(started.id());
+        Assertions.assertThat(flightRecorderEndpoint.recordings()).extracting("id").doesNotContain(started.id());
+    }
+}
@@ -0,0 +1,117 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.model.PlayerToCreate;
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class LiveStreamsEndToEndTest {
+
+    private static final String FRENCH_OPEN = "d4a9f8e2-9051-4739-90bc-1cb7e4c7ad42";
+    private static final String RAFAEL_NADAL = "b466c6f7-52c6-4f25-b00d-c562be41311e";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void clearDatabase(@Autowired Flyway flyway){
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @Test
+    public void shouldStreamRankChanges_WhenPlayerIsCreated() throws Exception {
+        //Given
+        HttpResponse<Stream<String>> stream = open("/players/stream");
+        Iterator<String> lines = stream.body().iterator();
+
+        //When
+        restTemplate.exchange("http://localhost:" + port + "/players", HttpMethod.POST,
+                new HttpEntity<>(new PlayerToCreate("Carlos", "Alcaraz", LocalDate.of(2003, Month.MAY, 5), 100000)), String.class);
+
+        //Then
+        Assertions.assertThat(stream.headers().firstValue("Content-Type")).hasValueSatisfying(type -> Assertions.assertThat(type).startsWith("text/event-stream"));
+        String rankEvent = nextData(lines, "event:rank");
+        Assertions.assertThat(rankEvent).contains("\"position\":1");
+        stream.body().close();
+    }
+
+    @Test
+    public void shouldStreamRegistrations_WithRemainingCapacity() throws Exception {
+        //Given
+        HttpResponse<Stream<String>> stream = open("/tournaments/" + FRENCH_OPEN + "/stream");
+        Iterator<String> lines = stream.body().iterator();
+        String initialState = nextData(lines, "event:registration");
+
+        //When
+        restTemplate.exchange("http://localhost:" + port + "/tournaments/" + FRENCH_OPEN + "/players/" + RAFAEL_NADAL,
+                HttpMethod.POST, null, Void.class);
+
+        //Then
+        Assertions.assertThat(initialState).contains("\"registeredPlayers\":0");
+        String registration = nextData(lines, "event:registration");
+        Assertions.assertThat(registration)
+                .contains("\"playerIdentifier\":\"" + RAFAEL_NADAL + "\"")
+                .contains("\"registeredPlayers\":1");
+        stream.body().close();
+    }
+
+    @Test
+    public void shouldFailToStream_WhenTournamentDoesNotExist() {
+        //When
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://localhost:" + port + "/tournaments/aaaaaaaa-1111-2222-3333-444444444444/stream", String.class);
+
+        //Then
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private HttpResponse<Stream<String>> open(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", "text/event-stream")
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+    }
+
+    /**
+     * @return La ligne data: qui suit la prochaine ligne event attendue.
+     */
+    private static String nextData(Iterator<String> lines, String event) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            while (lines.hasNext()) {
+                if (lines.next().equals(event)) {
+                    return lines.next();
+                }
+            }
+            throw new IllegalStateException("Stream closed before " + event);
+        }).get(10, TimeUnit.SECONDS);
+    }
+}
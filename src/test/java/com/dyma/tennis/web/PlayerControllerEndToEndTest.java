@@ -3,6 +3,7 @@ package com.dyma.tennis.web;
 import com.dyma.tennis.model.Player;
 import com.dyma.tennis.model.PlayerToCreate;
 import com.dyma.tennis.model.PlayerToUpdate;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.groups.Tuple;
 import org.flywaydb.core.Flyway;
@@ -34,6 +35,9 @@ public class PlayerControllerEndToEndTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void clearDatabase(@Autowired Flyway flyway){
         flyway.clean();
@@ -117,5 +121,43 @@ public class PlayerControllerEndToEndTest {
 
 
 
+    }
+
+    @Test
+    public void shouldReportDatabaseTimeInServerTimingHeader(){
+        //Given / When
+        String url = "http://localhost:" + port + "/players";
+        ResponseEntity<List<Player>> playerResponseEntity = this.restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<Player>>() {});
+
+        //Then
+        Assertions.assertThat(playerResponseEntity.getHeaders().getFirst("Server-Timing"))
+                .matches("db;dur=[0-9.]+;desc=\"[0-9]+ queries, [1-9][0-9]* rows\"");
+    }
+
+    @Test
+    public void shouldCreatePlayerWithWriteConnections_AndReportItsDatabaseTime(){
+        //Given
+        PlayerToCreate playerToCreate = new PlayerToCreate(
+                "Carlos",
+                "Alcaraz",
+                LocalDate.of(2003, Month.MAY, 5),
+                4500
+        );
+        long writeAcquisitionsBefore = meterRegistry.get("hikaricp.connections.acquire").tag("pool", "writes").timer().count();
+
+        //When
+        String url = "http://localhost:" + port + "/players";
+        ResponseEntity<Player> playerResponseEntity = this.restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(playerToCreate), Player.class);
+
+        //Then
+        Assertions.assertThat(playerResponseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(playerResponseEntity.getHeaders().get("Server-Timing"))
+                .anyMatch(value -> value.matches("db;dur=[0-9.]+;desc=\"[1-9][0-9]* queries, [0-9]+ rows\""));
+        Assertions.assertThat(meterRegistry.get("hikaricp.connections.acquire").tag("pool", "writes").timer().count())
+                .isGreaterThan(writeAcquisitionsBefore);
     }
 }
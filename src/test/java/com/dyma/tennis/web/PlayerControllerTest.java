@@ -1,6 +1,8 @@
 package com.dyma.tennis.web;
 
 import com.dyma.tennis.data.PlayerList;
+import com.dyma.tennis.model.Rank;
+import com.dyma.tennis.model.RankedPlayer;
 import com.dyma.tennis.service.PlayerNotFoundException;
 import com.dyma.tennis.service.PlayerService;
 import org.hamcrest.CoreMatchers;
@@ -11,6 +13,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -24,6 +27,10 @@ public class PlayerControllerTest {
     private MockMvc mockMvc;
     @MockitoBean
     private PlayerService playerService;
+    @MockitoBean
+    private LiveStreams liveStreams;
+    @MockitoBean
+    private WriteExecutor writeExecutor;
     @Test
     public void shouldListAllPlayers() throws Exception {
         //Given
@@ -71,5 +78,18 @@ public class PlayerControllerTest {
 
     }
 
+    @Test
+    public void shouldListPlayersByRank() throws Exception {
+        //Given
+        Mockito.when(playerService.getByRankRange(1, 2)).thenReturn(List.of(
+                new RankedPlayer(UUID.fromString("b466c6f7-52c6-4f25-b00d-c562be41311e"), new Rank(1, 5000)),
+                new RankedPlayer(UUID.fromString("d27aef45-51cd-401b-a04a-b78a1327b793"), new Rank(2, 4000))));
 
+        //When / Then
+        mockMvc.perform(get("/players").param("rankFrom", "1").param("rankTo", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].identifier", CoreMatchers.is("d27aef45-51cd-401b-a04a-b78a1327b793")))
+                .andExpect(jsonPath("$[1].rank.points", CoreMatchers.is(4000)));
+    }
 }
@@ -0,0 +1,175 @@
+package com.dyma.tennis.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter(
+                "preferred_username",
+                new RateLimiter(3, 1, 1000, now::get),
+                new RateLimiter(1, 0.5, 1000, now::get),
+                new RateLimiter(2, 0.1, 1000, now::get),
+                new ObjectMapper(),
+                meterRegistry);
+    }
+
+    @AfterEach
+    public void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void shouldRejectReads_WhenUserExceedsBudget() throws Exception {
+        // Given
+        authenticate("rafael");
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThat(perform("GET", "/players").getStatus()).isEqualTo(200);
+        }
+
+        // When
+        MockHttpServletResponse response = perform("GET", "/players");
+
+        // Then
+        Assertions.assertThat(response.getStatus()).isEqualTo(429);
+        Assertions.assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        Assertions.assertThat(response.getContentAsString()).contains("Too many requests");
+        Assertions.assertThat(meterRegistry.get("tennis.rate-limit.rejections").tag("budget", "read").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldAdmitRequestsAgain_WhenBucketIsRefilled() throws Exception {
+        // Given
+        authenticate("rafael");
+        for (int i = 0; i < 3; i++) {
+            perform("GET", "/players");
+        }
+        Assertions.assertThat(perform("GET", "/players").getStatus()).isEqualTo(429);
+
+        // When
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // Then
+        Assertions.assertThat(perform("GET", "/players").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldKeepSeparateBudgets_ForReadsWritesAndUsers() throws Exception {
+        // Given
+        authenticate("rafael");
+        Assertions.assertThat(perform("PUT", "/players").getStatus()).isEqualTo(200);
+
+        // When
+        MockHttpServletResponse secondWrite = perform("PUT", "/players");
+        MockHttpServletResponse read = perform("GET", "/players");
+        authenticate("novak");
+        MockHttpServletResponse otherUserWrite = perform("PUT", "/players");
+
+        // Then
+        Assertions.assertThat(secondWrite.getStatus()).isEqualTo(429);
+        Assertions.assertThat(secondWrite.getHeader("Retry-After")).isEqualTo("2");
+        Assertions.assertThat(read.getStatus()).isEqualTo(200);
+        Assertions.assertThat(otherUserWrite.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldLimitTokenRequests_ByClientAddress() throws Exception {
+        // Given
+        perform("POST", "/accounts/token", "10.0.0.1");
+        perform("POST", "/accounts/token", "10.0.0.1");
+
+        // When
+        MockHttpServletResponse rejected = perform("POST", "/accounts/token", "10.0.0.1");
+        MockHttpServletResponse otherClient = perform("POST", "/accounts/token", "10.0.0.2");
+
+        // Then
+        Assertions.assertThat(rejected.getStatus()).isEqualTo(429);
+        Assertions.assertThat(rejected.getHeader("Retry-After")).isEqualTo("10");
+        Assertions.assertThat(otherClient.getStatus()).isEqualTo(200);
+        Assertions.assertThat(meterRegistry.get("tennis.rate-limit.rejections").tag("budget", "token").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictIdleBuckets_WhenSweeping() {
+        // Given
+        RateLimiter rateLimiter = new RateLimiter(3, 1, 1000, now::get);
+        rateLimiter.tryAcquire("user:rafael");
+        rateLimiter.tryAcquire("user:novak");
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        rateLimiter.tryAcquire("user:roger");
+
+        // When
+        rateLimiter.sweep();
+
+        // Then
+        Assertions.assertThat(rateLimiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldBoundTrackedClients_WhenNewKeysKeepArriving() {
+        // Given
+        RateLimiter rateLimiter = new RateLimiter(3, 1, 2, now::get);
+        rateLimiter.tryAcquire("user:rafael");
+        rateLimiter.tryAcquire("user:novak");
+
+        // When
+        long rejected = 0;
+        for (int request = 0; request < 10_000; request++) {
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+            if (rateLimiter.tryAcquire("ip:10.0." + (request / 256) + "." + (request % 256)) > 0) {
+                rejected++;
+            }
+        }
+
+        // Then
+        Assertions.assertThat(rateLimiter.size()).isLessThanOrEqualTo(2);
+        Assertions.assertThat(rateLimiter.evictions()).isGreaterThanOrEqualTo(10_000);
+        Assertions.assertThat(rejected).isZero();
+        Assertions.assertThat(rateLimiter.tryAcquire("ip:192.168.0.1")).isZero();
+        Assertions.assertThat(rateLimiter.tryAcquire("user:rafael")).isZero();
+    }
+
+    private void authenticate(String username) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .claim("preferred_username", username)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt, List.of()));
+    }
+
+    private MockHttpServletResponse perform(String method, String path) throws Exception {
+        return perform(method, path, "127.0.0.1");
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,118 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.timing.ServerTiming;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+public class ServerTimingFilterTest {
+
+    private final ServerTimingFilter serverTimingFilter = new ServerTimingFilter();
+
+    private final ServerTimingJackson2HttpMessageConverter converter = new ServerTimingJackson2HttpMessageConverter(new ObjectMapper(), DataSize.ofKilobytes(1));
+
+    @Test
+    public void shouldReportPhasesInServerTimingHeader() throws Exception {
+        // Given
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                Object body = ServerTiming.time(ServerTiming.Phase.SVC, () -> {
+                    ServerTiming.time(ServerTiming.Phase.REPO, () -> sleep(5));
+                    return ServerTiming.time(ServerTiming.Phase.MAP, () -> List.of(Map.of("lastName", "Nadal")));
+                });
+                converter.write(body, MediaType.APPLICATION_JSON, new ServletServerHttpResponse(response));
+            }
+        };
+
+        // When
+        MockHttpServletResponse response = perform(servlet);
+
+        // Then
+        Assertions.assertThat(response.getHeader("Server-Timing"))
+                .matches("svc;dur=[0-9.]+, repo;dur=[0-9.]+, map;dur=[0-9.]+, ser;dur=[0-9.]+, total;dur=[0-9.]+");
+        Assertions.assertThat(response.getContentAsString()).isEqualTo("[{\"lastName\":\"Nadal\"}]");
+    }
+
+    @Test
+    public void shouldStreamAndOmitSerialization_WhenResponseExceedsBuffer() throws Exception {
+        // Given
+        List<Map<String, String>> players = IntStream.range(0, 100).mapToObj(i -> Map.of("lastName", "Player " + i)).toList();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                Object body = ServerTiming.time(ServerTiming.Phase.SVC, () -> players);
+                converter.write(body, MediaType.APPLICATION_JSON, new ServletServerHttpResponse(response));
+            }
+        };
+
+        // When
+        MockHttpServletResponse response = perform(servlet);
+
+        // Then
+        Assertions.assertThat(response.getHeader("Server-Timing")).matches("svc;dur=[0-9.]+, total;dur=[0-9.]+");
+        Assertions.assertThat(response.getContentAsString()).isEqualTo(new ObjectMapper().writeValueAsString(players));
+    }
+
+    @Test
+    public void shouldCountNestedCallsOfSamePhaseOnce() {
+        // Given
+        ServerTiming timing = ServerTiming.begin();
+
+        // When
+        try {
+            ServerTiming.time(ServerTiming.Phase.SVC, () -> {
+                sleep(20);
+                return ServerTiming.time(ServerTiming.Phase.SVC, () -> sleep(20));
+            });
+        } finally {
+            ServerTiming.end();
+        }
+
+        // Then
+        Assertions.assertThat(timing.getNanos(ServerTiming.Phase.SVC)).isBetween(40_000_000L, 80_000_000L);
+        Assertions.assertThat(ServerTiming.current()).isNull();
+    }
+
+    @Test
+    public void shouldOnlyReportTotal_WhenNoPhaseIsMeasured() throws Exception {
+        // When
+        MockHttpServletResponse response = perform(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+            }
+        });
+
+        // Then
+        Assertions.assertThat(response.getHeader("Server-Timing")).matches("total;dur=[0-9.]+");
+    }
+
+    private MockHttpServletResponse perform(HttpServlet servlet) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        serverTimingFilter.doFilter(new MockHttpServletRequest("GET", "/players"), response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private static Object sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
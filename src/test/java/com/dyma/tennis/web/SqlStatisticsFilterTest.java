@@ -0,0 +1,112 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.data.SqlStatisticsListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+public class SqlStatisticsFilterTest {
+
+    private final SqlStatisticsListener listener = new SqlStatisticsListener(Duration.ofSeconds(1), 0);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SqlStatisticsFilter sqlStatisticsFilter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sqlStatisticsFilter = new SqlStatisticsFilter(3, meterRegistry);
+    }
+
+    @Test
+    public void shouldReportStatementsInServerTimingHeader() throws Exception {
+        // Given
+        MockHttpServletRequest request = request();
+
+        // When
+        MockHttpServletResponse response = perform(request, new QueryingServlet(2, 5));
+
+        // Then
+        Assertions.assertThat(response.getHeader("Server-Timing")).matches("db;dur=[0-9.]+;desc=\"2 queries, 10 rows\"");
+        Assertions.assertThat(response.getContentAsString()).isEqualTo("[]");
+        Assertions.assertThat(meterRegistry.get("tennis.http.sql.statements").tags("method", "GET", "uri", "/players").summary().totalAmount()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("tennis.http.sql.rows").tags("uri", "/players").summary().totalAmount()).isEqualTo(10);
+        Assertions.assertThat(meterRegistry.find("tennis.http.sql.budget.exceeded").counter()).isNull();
+    }
+
+    @Test
+    public void shouldFlagRequest_WhenQueryBudgetIsExceeded() throws Exception {
+        // Given
+        MockHttpServletRequest request = request();
+
+        // When
+        MockHttpServletResponse response = perform(request, new QueryingServlet(5, 1));
+
+        // Then
+        Assertions.assertThat(response.getHeader("Server-Timing")).contains("5 queries");
+        Assertions.assertThat(meterRegistry.get("tennis.http.sql.budget.exceeded").tags("uri", "/players").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCountQueries_OutsideOfHttpRequest() throws Exception {
+        // Given
+        new QueryingServlet(1, 1).service(request(), new MockHttpServletResponse());
+
+        // When
+        MockHttpServletResponse response = perform(request(), new QueryingServlet(0, 0));
+
+        // Then
+        Assertions.assertThat(response.getHeader("Server-Timing")).isNull();
+        Assertions.assertThat(meterRegistry.get("tennis.http.sql.statements").summary().totalAmount()).isEqualTo(0);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/players");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/players");
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, HttpServlet servlet) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sqlStatisticsFilter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private class QueryingServlet extends HttpServlet {
+        private final int statements;
+        private final int updatedRowsPerStatement;
+
+        QueryingServlet(int statements, int updatedRowsPerStatement) {
+            this.statements = statements;
+            this.updatedRowsPerStatement = updatedRowsPerStatement;
+        }
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            for (int i = 0; i < statements; i++) {
+                ExecutionInfo executionInfo = new ExecutionInfo();
+                List<QueryInfo> queries = List.of(new QueryInfo("update player set rank = ? where id = ?"));
+                listener.beforeQuery(executionInfo, queries);
+                executionInfo.setResult(updatedRowsPerStatement);
+                listener.afterQuery(executionInfo, queries);
+            }
+            response.getWriter().write("[]");
+            response.flushBuffer();
+        }
+    }
+}
@@ -31,6 +31,12 @@ public class TournamentControllerTest {
     @MockitoBean
     private RegistrationService registrationService;
 
+    @MockitoBean
+    private LiveStreams liveStreams;
+
+    @MockitoBean
+    private WriteExecutor writeExecutor;
+
     @Test
     public void shouldListAllTournaments() throws Exception {
         // Given
@@ -0,0 +1,111 @@
+package com.dyma.tennis.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class TrafficCaptureFilterTest {
+
+    private static final UUID NADAL = UUID.fromString("007bf83e-f3eb-4ec8-a271-dc0a6c92bb99");
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TrafficCaptureFilter trafficCaptureFilter;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("traffic.ndjson");
+        meterRegistry = new SimpleMeterRegistry();
+        trafficCaptureFilter = new TrafficCaptureFilter(new TrafficCapture(file, 1024 * 1024, 100, new ObjectMapper(), meterRegistry));
+    }
+
+    @Test
+    public void shouldCaptureControllerRequestMetadata() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/players/" + NADAL + "/rank");
+        request.setQueryString("verbose=true");
+        request.addParameter("verbose", "true");
+        request.addHeader("Authorization", "Bearer secret");
+        request.setAttribute(RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME,
+                new SecurityContextImpl(new TestingAuthenticationToken("rafael", null, "ROLE_USER")));
+
+        // When
+        perform(request, handler(PlayerController.class, "getRank", UUID.class), "/players/{identifier}/rank",
+                Map.of("identifier", NADAL.toString()), "{\"position\":1}");
+        trafficCaptureFilter.destroy();
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        Assertions.assertThat(lines).singleElement().asString().doesNotContain("secret", "rafael");
+        TrafficRecord record = new ObjectMapper().readValue(lines.getFirst(), TrafficRecord.class);
+        Assertions.assertThat(record.endpoint()).isEqualTo("GET /players/{identifier}/rank");
+        Assertions.assertThat(record.uriVariables()).containsEntry("identifier", NADAL.toString());
+        Assertions.assertThat(record.parameters()).containsEntry("verbose", List.of("true"));
+        Assertions.assertThat(record.principalClass()).isEqualTo("user");
+        Assertions.assertThat(record.status()).isEqualTo(200);
+        Assertions.assertThat(record.responseBytes()).isEqualTo(14);
+        Assertions.assertThat(record.durationMicros()).isPositive();
+        Assertions.assertThat(meterRegistry.get("tennis.traffic-capture.records").tag("outcome", "written").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldIgnoreRequestsOutsideApiControllers() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/metrics");
+
+        // When
+        perform(request, handler(FlightRecorderEndpoint.class, "recordings"), "/actuator/metrics", Map.of(), "{}");
+        trafficCaptureFilter.destroy();
+
+        // Then
+        Assertions.assertThat(file).doesNotExist();
+    }
+
+    private void perform(MockHttpServletRequest request, HandlerMethod handlerMethod, String template,
+                         Map<String, String> uriVariables, String body) throws Exception {
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handlerMethod);
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, template);
+                request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, uriVariables);
+                response.getOutputStream().write(body.getBytes());
+            }
+        };
+        trafficCaptureFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(servlet));
+    }
+
+    private static HandlerMethod handler(Class<?> controller, String method, Class<?>... parameterTypes) throws NoSuchMethodException {
+        BeanFactory beanFactory = Mockito.mock(BeanFactory.class);
+        Mockito.doReturn(controller).when(beanFactory).getType("controller");
+        return new HandlerMethod("controller", beanFactory, controller.getMethod(method, parameterTypes));
+    }
+}
@@ -0,0 +1,48 @@
+package com.dyma.tennis.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"warmup.enabled=true", "warmup.iterations=5", "warmup.concurrency=2"})
+public class WarmupIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Test
+    public void shouldReplayRequestsBeforeAcceptingTraffic() {
+        // When
+        ResponseEntity<String> readiness = restTemplate.getForEntity("http://localhost:" + port + "/actuator/health/readiness", String.class);
+
+        // Then
+        Assertions.assertThat(meterRegistry.get("tennis.warmup").tag("outcome", "completed").timer().count()).isEqualTo(1);
+        // 2 threads x 5 itérations x 13 requêtes ; les identifiants absents des données de test finissent en erreur
+        double success = meterRegistry.get("tennis.warmup.requests").tag("outcome", "success").counter().count();
+        double error = meterRegistry.get("tennis.warmup.requests").tag("outcome", "error").counter().count();
+        Assertions.assertThat(success + error).isEqualTo(130);
+        Assertions.assertThat(success).isGreaterThanOrEqualTo(50);
+        Assertions.assertThat(applicationAvailability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        Assertions.assertThat(readiness.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+}
@@ -0,0 +1,92 @@
+package com.dyma.tennis.web;
+
+import com.dyma.tennis.data.SqlStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class WriteExecutorTest {
+
+    private final CountDownLatch writeStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseWrite = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MockHttpServletRequest request;
+
+    private WriteExecutor writeExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writeExecutor = new WriteExecutor(true, 1, 0, Duration.ZERO, Duration.ofSeconds(5), meterRegistry);
+        request = new MockHttpServletRequest("PUT", "/players");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseWrite.countDown();
+        writeExecutor.destroy();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void shouldRejectWriteImmediately_WhenAllWriteThreadsAreBusy() throws Exception {
+        // Given
+        Future<String> slowWrite = execute(writeExecutor.submit(() -> {
+            writeStarted.countDown();
+            releaseWrite.await(5, TimeUnit.SECONDS);
+            return "updated";
+        }));
+        Assertions.assertThat(writeStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        Throwable rejection = Assertions.catchThrowable(() -> execute(writeExecutor.submit(() -> "rejected")));
+
+        // Then
+        Assertions.assertThat(rejection).isInstanceOf(TaskRejectedException.class);
+        Assertions.assertThat(meterRegistry.get("tennis.bulkhead.active").tag("bulkhead", "write").gauge().value()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("tennis.bulkhead.rejections").tag("bulkhead", "write").counter().count()).isEqualTo(1);
+        releaseWrite.countDown();
+        Assertions.assertThat(slowWrite.get(5, TimeUnit.SECONDS)).isEqualTo("updated");
+    }
+
+    @Test
+    public void shouldRunWriteOffRequestThread_WithRequestSqlStatistics() throws Exception {
+        // Given
+        SqlStatistics statistics = SqlStatistics.begin();
+        Thread requestThread = Thread.currentThread();
+
+        // When
+        Future<Boolean> write;
+        try {
+            write = execute(writeExecutor.submit(() -> Thread.currentThread() != requestThread && SqlStatistics.current() == statistics));
+        } finally {
+            SqlStatistics.end();
+        }
+
+        // Then
+        Assertions.assertThat(write.get(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(WriteExecutor.isWrite(request)).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Future<T> execute(WebAsyncTask<T> task) {
+        return task.getExecutor().submit((Callable<T>) task.getCallable());
+    }
+}